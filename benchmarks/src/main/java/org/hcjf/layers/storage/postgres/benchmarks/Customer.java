@@ -0,0 +1,57 @@
+package org.hcjf.layers.storage.postgres.benchmarks;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Bean result type used by the mapping benchmarks.
+ * @author Javier Quiroga.
+ */
+public class Customer {
+
+    private UUID id;
+    private String name;
+    private Integer age;
+    private Double balance;
+    private Date created;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    public Double getBalance() {
+        return balance;
+    }
+
+    public void setBalance(Double balance) {
+        this.balance = balance;
+    }
+
+    public Date getCreated() {
+        return created;
+    }
+
+    public void setCreated(Date created) {
+        this.created = created;
+    }
+}
@@ -0,0 +1,78 @@
+package org.hcjf.layers.storage.postgres.benchmarks;
+
+import org.hcjf.layers.query.Query;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Queries and tables shared by the benchmarks.
+ * @author Javier Quiroga.
+ */
+public final class Fixtures {
+
+    public static final String SIMPLE = "SIMPLE";
+    public static final String NESTED = "NESTED";
+    public static final String LARGE_IN = "LARGE_IN";
+    public static final String JOIN = "JOIN";
+
+    private static final String[] CUSTOMER_COLUMNS = {"id", "name", "age", "balance", "created"};
+    private static final int LARGE_IN_SIZE = 500;
+
+    static {
+        PostgresProperties.init();
+    }
+
+    private Fixtures() {
+    }
+
+    /**
+     * Compiles the query for the shape name.
+     * @param shape Shape name.
+     * @return Query instance.
+     */
+    public static Query query(String shape) {
+        String sql;
+        switch (shape) {
+            case SIMPLE:
+                sql = "SELECT * FROM customer WHERE id = '" + UUID.randomUUID() + "'";
+                break;
+            case NESTED:
+                sql = "SELECT id, name, age FROM customer WHERE age >= 18 AND (name LIKE 'jo%' OR " +
+                        "(balance > 1000 AND balance < 5000) OR (age < 30 AND name != 'john')) " +
+                        "ORDER BY name, age DESC LIMIT 100";
+                break;
+            case LARGE_IN:
+                StringBuilder inBuilder = new StringBuilder();
+                for (int i = 0; i < LARGE_IN_SIZE; i++) {
+                    inBuilder.append(i == 0 ? "" : ", ").append(i);
+                }
+                sql = "SELECT * FROM customer WHERE age IN (" + inBuilder + ") ORDER BY id LIMIT 1000";
+                break;
+            case JOIN:
+                sql = "SELECT * FROM customer JOIN account ON customer.id = account.customerId " +
+                        "WHERE customer.age > 18 AND account.balance > 100 ORDER BY customer.name LIMIT 100";
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown shape " + shape);
+        }
+        return Query.compile(sql);
+    }
+
+    /**
+     * Creates a customer table with the number of rows.
+     * @param rows Number of rows.
+     * @return Table instance.
+     */
+    public static StubJdbc.Table customers(int rows) {
+        Object[][] data = new Object[rows][];
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < rows; i++) {
+            data[i] = new Object[]{UUID.randomUUID(), "customer" + i, 18 + (i % 60),
+                    BigDecimal.valueOf(i * 10L, 2), new Timestamp(now - i * 1000L)};
+        }
+        return new StubJdbc.Table("customer", CUSTOMER_COLUMNS, data);
+    }
+}
@@ -0,0 +1,45 @@
+package org.hcjf.layers.storage.postgres.benchmarks;
+
+import org.hcjf.layers.query.Query;
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the mapping of the postgres result sets into hcjf result sets,
+ * for map based and bean based result types.
+ * @author Javier Quiroga.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultMappingBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int rows;
+
+    private PostgresStorageSession session;
+    private StubJdbc.Table table;
+    private Query query;
+
+    @Setup
+    public void setUp() {
+        table = Fixtures.customers(rows);
+        session = new PostgresStorageSession("benchmark", StubJdbc.connection(table));
+        query = Fixtures.query(Fixtures.SIMPLE);
+    }
+
+    @Benchmark
+    public Object mapResult() throws Exception {
+        return session.createResultSet(query, StubJdbc.resultSet(table), null);
+    }
+
+    @Benchmark
+    public Object beanResult() throws Exception {
+        return session.createResultSet(query, StubJdbc.resultSet(table), Customer.class);
+    }
+}
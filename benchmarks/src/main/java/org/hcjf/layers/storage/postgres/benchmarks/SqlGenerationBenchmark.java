@@ -0,0 +1,78 @@
+package org.hcjf.layers.storage.postgres.benchmarks;
+
+import org.hcjf.layers.query.Query;
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.hcjf.layers.storage.postgres.actions.PostgresSelect;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.PreparedStatement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the sql generation and the parameter binding for different query shapes.
+ * @author Javier Quiroga.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlGenerationBenchmark {
+
+    @Param({Fixtures.SIMPLE, Fixtures.NESTED, Fixtures.LARGE_IN, Fixtures.JOIN})
+    public String shape;
+
+    private PostgresStorageSession session;
+    private Query query;
+    private BenchmarkSelect select;
+    private String statement;
+
+    @Setup
+    public void setUp() {
+        session = new PostgresStorageSession("benchmark", StubJdbc.connection(Fixtures.customers(1)));
+        query = Fixtures.query(shape);
+        select = new BenchmarkSelect(session);
+        select.setQuery(query);
+        statement = select.build(query);
+    }
+
+    @Benchmark
+    public StringBuilder processEvaluators() {
+        return session.processEvaluators(new StringBuilder(), query);
+    }
+
+    @Benchmark
+    public String buildStatement() {
+        return select.build(query);
+    }
+
+    @Benchmark
+    public PreparedStatement setValues() throws Exception {
+        PreparedStatement preparedStatement = session.prepareStatement(statement);
+        try {
+            return session.setValues(preparedStatement, query, 1);
+        } finally {
+            session.releaseStatement(preparedStatement);
+        }
+    }
+
+    @Benchmark
+    public Object execute() throws Exception {
+        return select.execute();
+    }
+
+    /**
+     * Select that exposes the statement building without the template cache.
+     */
+    public static class BenchmarkSelect extends PostgresSelect {
+
+        public BenchmarkSelect(PostgresStorageSession session) {
+            super(session);
+        }
+
+        public String build(Query query) {
+            return buildStatement(query);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.hcjf.layers.storage.postgres.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.sql.*;
+
+/**
+ * In-process jdbc objects used by the benchmarks, the statements don't send anything and the
+ * result sets return the rows of a fixed table.
+ * @author Javier Quiroga.
+ */
+public final class StubJdbc {
+
+    private StubJdbc() {
+    }
+
+    /**
+     * Creates a connection whose statements return the rows of the table.
+     * @param table Table returned by the queries.
+     * @return Stub connection.
+     */
+    public static Connection connection(Table table) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "prepareStatement": return preparedStatement((String) args[0], table);
+                case "isWrapperFor": return false;
+                case "toString": return "StubConnection";
+                case "hashCode": return System.identityHashCode(proxy);
+                case "equals": return proxy == args[0];
+                default: return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    /**
+     * Creates a result set over the rows of the table.
+     * @param table Table.
+     * @return Stub result set.
+     */
+    public static ResultSet resultSet(Table table) {
+        ResultSetMetaData metaData = proxy(ResultSetMetaData.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getColumnCount": return table.getColumns().length;
+                case "getColumnLabel":
+                case "getColumnName": return table.getColumns()[(Integer) args[0] - 1];
+                case "getTableName": return table.getName();
+                default: return defaultValue(method.getReturnType());
+            }
+        });
+        int[] row = new int[]{-1};
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "next": return ++row[0] < table.getRows().length;
+                case "getObject": return table.getRows()[row[0]][(Integer) args[0] - 1];
+                case "getMetaData": return metaData;
+                case "hashCode": return System.identityHashCode(proxy);
+                case "equals": return proxy == args[0];
+                default: return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    private static PreparedStatement preparedStatement(String sql, Table table) {
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "executeQuery": return resultSet(table);
+                case "executeUpdate": return 1;
+                case "unwrap": throw new SQLException("Unsupported");
+                case "toString": return sql;
+                case "hashCode": return System.identityHashCode(proxy);
+                case "equals": return proxy == args[0];
+                default: return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, java.lang.reflect.InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StubJdbc.class.getClassLoader(), new Class[]{type}, handler);
+    }
+
+    private static Object defaultValue(Class type) {
+        Object result = null;
+        if(type.equals(boolean.class)) {
+            result = false;
+        } else if(type.equals(int.class)) {
+            result = 0;
+        } else if(type.equals(long.class)) {
+            result = 0L;
+        } else if(type.equals(double.class)) {
+            result = 0.0;
+        } else if(type.equals(float.class)) {
+            result = 0.0F;
+        } else if(type.equals(short.class)) {
+            result = (short) 0;
+        } else if(type.equals(byte.class)) {
+            result = (byte) 0;
+        }
+        return result;
+    }
+
+    /**
+     * Rows returned by the stub result sets.
+     */
+    public static class Table {
+
+        private final String name;
+        private final String[] columns;
+        private final Object[][] rows;
+
+        public Table(String name, String[] columns, Object[][] rows) {
+            this.name = name;
+            this.columns = columns;
+            this.rows = rows;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String[] getColumns() {
+            return columns;
+        }
+
+        public Object[][] getRows() {
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.hcjf.layers.storage.postgres;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Source of the connections of a session, the session takes the connection when
+ * it is needed and returns it to the provider when the connection is not needed anymore.
+ * @author Javier Quiroga.
+ */
+public interface ConnectionProvider {
+
+    /**
+     * Takes a connection configured for the session.
+     * @return Connection instance.
+     * @throws SQLException
+     */
+    Connection getConnection() throws SQLException;
+
+    /**
+     * Returns the connection to the provider.
+     * @param connection Connection taken with the method {@link ConnectionProvider#getConnection()}.
+     * @throws SQLException
+     */
+    default void release(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * Return the data source of the connections, used to explain the slow statements with other
+     * connection of the same data source.
+     * @return Data source or null if the provider is not backed by a data source.
+     */
+    default DataSource getDataSource() {
+        return null;
+    }
+
+}
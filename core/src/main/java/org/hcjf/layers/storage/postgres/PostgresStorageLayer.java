@@ -0,0 +1,563 @@
+package org.hcjf.layers.storage.postgres;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hcjf.errors.Errors;
+import org.hcjf.layers.storage.StorageLayer;
+import org.hcjf.layers.storage.postgres.async.PostgresAsyncFacade;
+import org.hcjf.layers.storage.postgres.cache.StatementCache;
+import org.hcjf.layers.storage.postgres.errors.PostgressErrors;
+import org.hcjf.layers.storage.postgres.metrics.PoolMetricsTrackerFactory;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.hcjf.layers.storage.postgres.replicas.Replica;
+import org.hcjf.layers.storage.postgres.replicas.ReplicaEndpoint;
+import org.hcjf.layers.storage.postgres.replicas.ReplicaRouter;
+import org.hcjf.layers.storage.postgres.slowlog.SlowQueryLog;
+import org.hcjf.log.Log;
+import org.hcjf.properties.SystemProperties;
+import org.hcjf.utils.Strings;
+import org.postgresql.PGConnection;
+import org.postgresql.PGStatement;
+import org.postgresql.core.BaseConnection;
+import org.postgresql.core.TypeInfo;
+import org.postgresql.ds.PGSimpleDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base layer to create a pooling connection with a postgres data base engine.
+ * @author Javier Quiroga.
+ */
+public abstract class PostgresStorageLayer<S extends PostgresStorageSession> extends StorageLayer<S> {
+
+    private static final long SHUTDOWN_POLL_PERIOD = 50;
+
+    private volatile DataSource source;
+    private volatile ReplicaRouter replicaRouter;
+    private volatile SlowQueryLog slowQueryLog;
+    private volatile PostgresAsyncFacade<S> asyncFacade;
+    private volatile boolean shuttingDown;
+    private final AtomicInteger openSessions;
+
+    public PostgresStorageLayer(String implName) {
+        super(implName);
+        this.openSessions = new AtomicInteger();
+    }
+
+    /**
+     * The first time this method creates a postgres pooling data source, then
+     * only return a session with a postgres connection.
+     * @return Postgres storage session.
+     */
+    @Override
+    public S begin() {
+        return begin(false);
+    }
+
+    /**
+     * Return a session with a connection of the primary data source.
+     * @param readOnly If the value is true then the session is created in read only mode.
+     * @return Postgres storage session.
+     * @see #beginReadOnly()
+     */
+    public S begin(boolean readOnly) {
+        initialize();
+        return createSession(new ConnectionProvider() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return configureConnection(source.getConnection(), readOnly);
+            }
+
+            @Override
+            public DataSource getDataSource() {
+                return source;
+            }
+        });
+    }
+
+    /**
+     * Return a session to execute read only operations. The connection of the session is marked as read only
+     * and works in autocommit mode, then there are not BEGIN/COMMIT round trips and the session close
+     * only returns the connection to the pool. The connection is taken from an available replica, if there are
+     * not replicas or all the replicas are excluded by its replication lag then the connection is taken from
+     * the primary data source.
+     * @return Postgres storage session.
+     */
+    public S beginReadOnly() {
+        initialize();
+        Replica replica = replicaRouter.select();
+        if(replica == null) {
+            return begin(true);
+        }
+
+        return createSession(new ConnectionProvider() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = replica.getConnection();
+                try {
+                    return configureConnection(connection, true);
+                } catch (SQLException ex) {
+                    replica.release();
+                    throw ex;
+                }
+            }
+
+            @Override
+            public void release(Connection connection) throws SQLException {
+                try {
+                    connection.close();
+                } finally {
+                    replica.release();
+                }
+            }
+
+            @Override
+            public DataSource getDataSource() {
+                return replica.getDataSource();
+            }
+        });
+    }
+
+    /**
+     * Return the asynchronous facade of the layer, the facade executes as many operations at the same time
+     * as connections in the pool.
+     * @return Async facade.
+     */
+    public PostgresAsyncFacade<S> async() {
+        if(asyncFacade == null) {
+            synchronized (this) {
+                if(asyncFacade == null) {
+                    asyncFacade = new PostgresAsyncFacade<>(this, getMaxConnections(),
+                            SystemProperties.getInteger(PostgresProperties.Async.QUEUE_SIZE));
+                }
+            }
+        }
+        return asyncFacade;
+    }
+
+    /**
+     * Return the slow query log of the layer.
+     * @return Slow query log or null if the slow query log is disabled.
+     */
+    public SlowQueryLog getSlowQueryLog() {
+        initialize();
+        return slowQueryLog;
+    }
+
+    /**
+     * Creates the session instance. If the lazy connection is enabled the session takes the connection
+     * from the provider with the first action, in other case the connection is taken now. The session
+     * is counted as open until it's closed.
+     * @param connectionProvider Provider of the session connections.
+     * @return Postgres storage session.
+     */
+    private S createSession(ConnectionProvider connectionProvider) {
+        //The session is counted before the last check, so the shutdown waits for it or the session is rejected
+        openSessions.incrementAndGet();
+        if(shuttingDown) {
+            openSessions.decrementAndGet();
+            throw new IllegalStateException(Errors.getMessage(PostgressErrors.LAYER_SHUT_DOWN));
+        }
+
+        boolean created = false;
+        Connection connection = null;
+        try {
+            if(!SystemProperties.getBoolean(PostgresProperties.Session.LAZY_CONNECTION)) {
+                connection = connectionProvider.getConnection();
+            }
+            S session = getSessionInstance(getImplName(), connection);
+            session.setConnectionProvider(connectionProvider);
+            session.setSlowQueryLog(slowQueryLog);
+            session.setCloseListener(openSessions::decrementAndGet);
+            created = true;
+            return session;
+        } catch (SQLException ex) {
+            Log.e(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                    Errors.getMessage(PostgressErrors.UNABLE_TO_CREATE_CONNECTION), ex);
+            throw new RuntimeException(Errors.getMessage(PostgressErrors.UNABLE_TO_CREATE_CONNECTION), ex);
+        } finally {
+            if(!created) {
+                openSessions.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Configures the connection for the session mode. The pool restores the read only and autocommit
+     * state of the connection when the connection is returned.
+     * @param connection Connection of the session.
+     * @param readOnly Read only mode.
+     * @return Configured connection.
+     * @throws SQLException
+     */
+    private Connection configureConnection(Connection connection, boolean readOnly) throws SQLException {
+        try {
+            if(readOnly) {
+                connection.setAutoCommit(true);
+                connection.setReadOnly(true);
+            } else {
+                connection.setAutoCommit(false);
+            }
+            return connection;
+        } catch (SQLException ex) {
+            connection.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Return the router of the read replicas.
+     * @return Replica router.
+     */
+    public ReplicaRouter getReplicaRouter() {
+        initialize();
+        return replicaRouter;
+    }
+
+    /**
+     * Starts the initialization of the data sources and the warm-up in background, this method should be called
+     * when the layer is published in order to have the pool ready before the first session is requested.
+     * @return Future that is completed when the initialization ends.
+     */
+    public CompletableFuture<Void> start() {
+        return CompletableFuture.runAsync(this::initialize, runnable -> {
+            Thread thread = new Thread(runnable, getDataSourceName() + "-startup");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+
+    /**
+     * Creates the primary data source and the data sources of the replicas, only the first time.
+     * After the initialization this method only reads a volatile field. The warm-up is executed by the
+     * thread that creates the data sources after the data sources are published, so the sessions
+     * requested during the warm-up are not blocked.
+     */
+    private void initialize() {
+        if(shuttingDown) {
+            throw new IllegalStateException(Errors.getMessage(PostgressErrors.LAYER_SHUT_DOWN));
+        }
+
+        if(source == null) {
+            DataSource primary = null;
+            List<Replica> replicas = new ArrayList<>();
+            synchronized (this) {
+                if(source == null) {
+                    primary = createDataSource(getDataSourceName(), getServerName(), getPortNumber());
+
+                    for (ReplicaEndpoint endpoint : getReplicas()) {
+                        replicas.add(new Replica(endpoint.getName(), createDataSource(
+                                getDataSourceName() + Strings.CLASS_SEPARATOR + endpoint.getName(),
+                                endpoint.getServerName(), endpoint.getPortNumber())));
+                    }
+                    replicaRouter = new ReplicaRouter(replicas,
+                            ReplicaRouter.Strategy.valueOf(SystemProperties.get(PostgresProperties.Replicas.BALANCING)),
+                            SystemProperties.getLong(PostgresProperties.Replicas.MAX_LAG));
+                    replicaRouter.startLagMonitor(SystemProperties.getLong(PostgresProperties.Replicas.LAG_CHECK_PERIOD));
+
+                    if(SystemProperties.getBoolean(PostgresProperties.SlowLog.ENABLED)) {
+                        slowQueryLog = new SlowQueryLog();
+                    }
+                    source = primary;
+                }
+            }
+
+            if(primary != null && SystemProperties.getBoolean(PostgresProperties.Pool.WARM_UP)) {
+                warmUp(primary);
+                for(Replica replica : replicas) {
+                    warmUp(replica.getDataSource());
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens the initial connections of the data source, and for each connection primes the warm-up statements
+     * and loads the warm-up types into the type cache of the driver. The selects are executed once with
+     * null parameters, in a read only connection and with the prepare threshold in one, so the server keeps
+     * a named prepared statement that is reused by the next executions of the same sql on the connection.
+     * The other statements are only parsed and described by the server, they are never executed.
+     * The errors are logged and don't interrupt the initialization.
+     * @param dataSource Data source to warm-up.
+     */
+    private void warmUp(DataSource dataSource) {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            int initialConnections = Math.max(1, getInitialConnections());
+            for (int i = 0; i < initialConnections; i++) {
+                connections.add(dataSource.getConnection());
+            }
+
+            for(Connection connection : connections) {
+                Connection physicalConnection = connection;
+                if(connection.isWrapperFor(PGConnection.class)) {
+                    physicalConnection = (Connection) connection.unwrap(PGConnection.class);
+                }
+
+                //The pool restores the read only state when the connection is returned
+                connection.setReadOnly(true);
+                StatementCache statementCache = StatementCache.get(physicalConnection);
+                for(String statement : getWarmUpStatements()) {
+                    PreparedStatement preparedStatement = statementCache.borrow(statement);
+                    try {
+                        prime(statement, preparedStatement);
+                    } finally {
+                        statementCache.release(preparedStatement);
+                    }
+                }
+
+                if(connection.isWrapperFor(BaseConnection.class)) {
+                    TypeInfo typeInfo = connection.unwrap(BaseConnection.class).getTypeInfo();
+                    for(String type : getWarmUpTypes()) {
+                        typeInfo.getPGType(type);
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            Log.e(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                    Errors.getMessage(PostgressErrors.UNABLE_TO_WARM_UP), ex);
+        } finally {
+            for(Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException ex) {
+                    Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                            Errors.getMessage(PostgressErrors.UNABLE_TO_CLOSE_CONNECTION), ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends the statement to the server. The selects are executed reading at most one row, the other
+     * statements are only described.
+     * @param statement Sql of the statement.
+     * @param preparedStatement Statement of the connection.
+     * @throws SQLException
+     */
+    private void prime(String statement, PreparedStatement preparedStatement) throws SQLException {
+        if(statement.trim().regionMatches(true, 0, SystemProperties.get(SystemProperties.Query.ReservedWord.SELECT),
+                0, SystemProperties.get(SystemProperties.Query.ReservedWord.SELECT).length())) {
+            PGStatement pgStatement = preparedStatement.unwrap(PGStatement.class);
+            int prepareThreshold = pgStatement.getPrepareThreshold();
+            try {
+                pgStatement.setPrepareThreshold(1);
+                preparedStatement.setMaxRows(1);
+                int parameterCount = preparedStatement.getParameterMetaData().getParameterCount();
+                for (int index = 1; index <= parameterCount; index++) {
+                    preparedStatement.setNull(index, Types.OTHER);
+                }
+                preparedStatement.executeQuery().close();
+            } finally {
+                preparedStatement.setMaxRows(0);
+                pgStatement.setPrepareThreshold(prepareThreshold);
+            }
+        } else {
+            preparedStatement.getParameterMetaData();
+        }
+    }
+
+    /**
+     * Stops the layer using the default shutdown timeout.
+     * @return True if all the in-flight sessions ended before the timeout.
+     * @see #shutdown(long)
+     */
+    public boolean shutdown() {
+        return shutdown(SystemProperties.getLong(PostgresProperties.Pool.SHUTDOWN_TIMEOUT));
+    }
+
+    /**
+     * Stops the layer. First the async facade stops accepting operations and the queued operations are drained,
+     * then the layer stops creating sessions and waits until the open sessions are closed, and finally the pools
+     * are closed. The open sessions are counted even if they don't hold a connection between its statements.
+     * @param timeout Maximum time to wait the queued operations and the open sessions in milliseconds.
+     * @return True if all the queued operations and the open sessions ended before the timeout.
+     */
+    public boolean shutdown(long timeout) {
+        long deadline = System.currentTimeMillis() + timeout;
+        boolean result = true;
+        try {
+            PostgresAsyncFacade<S> asyncFacade = this.asyncFacade;
+            if(asyncFacade != null) {
+                asyncFacade.shutdown();
+                result = asyncFacade.awaitTermination(Math.max(0, deadline - System.currentTimeMillis()));
+            }
+
+            shuttingDown = true;
+            while (openSessions.get() > 0) {
+                if(System.currentTimeMillis() >= deadline) {
+                    result = false;
+                    break;
+                }
+                Thread.sleep(SHUTDOWN_POLL_PERIOD);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            shuttingDown = true;
+            result = false;
+        }
+
+        synchronized (this) {
+            if(source != null) {
+                replicaRouter.shutdown();
+                if(slowQueryLog != null) {
+                    slowQueryLog.shutdown();
+                }
+
+                List<DataSource> dataSources = new ArrayList<>();
+                dataSources.add(source);
+                for(Replica replica : replicaRouter.getReplicas()) {
+                    dataSources.add(replica.getDataSource());
+                }
+                for(DataSource dataSource : dataSources) {
+                    if(dataSource instanceof HikariDataSource) {
+                        ((HikariDataSource) dataSource).close();
+                    }
+                }
+            }
+        }
+
+        if(!result) {
+            Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                    Errors.getMessage(PostgressErrors.SHUTDOWN_TIMEOUT), timeout);
+        }
+        return result;
+    }
+
+    /**
+     * Return the number of sessions created by the layer and not closed yet.
+     * @return Number of open sessions.
+     */
+    public int getOpenSessions() {
+        return openSessions.get();
+    }
+
+    /**
+     * Creates a pooling data source for a postgres server.
+     * @param poolName Name of the pool.
+     * @param serverName Host of the server.
+     * @param portNumber Port of the server.
+     * @return Pooling data source.
+     */
+    protected DataSource createDataSource(String poolName, String serverName, Integer portNumber) {
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setDataSourceClassName(PGSimpleDataSource.class.getName());
+        hikariConfig.addDataSourceProperty(SystemProperties.get(PostgresProperties.Pool.SERVER_NAME_FIELD), serverName);
+        hikariConfig.addDataSourceProperty(SystemProperties.get(PostgresProperties.Pool.DATABASE_NAME_FIELD), getDatabaseName());
+        hikariConfig.addDataSourceProperty(SystemProperties.get(PostgresProperties.Pool.USER_FIELD), getUserName());
+        hikariConfig.addDataSourceProperty(SystemProperties.get(PostgresProperties.Pool.PASSWORD_FIELD), getPassword());
+        hikariConfig.addDataSourceProperty(SystemProperties.get(PostgresProperties.Pool.PORT_NUMBER_FIELD), portNumber);
+        hikariConfig.setPoolName(poolName);
+        hikariConfig.setMaximumPoolSize(getMaxConnections());
+        hikariConfig.setMinimumIdle(getInitialConnections());
+        hikariConfig.setIdleTimeout(getIdleTimeout());
+        hikariConfig.setMaxLifetime(getMaxLifeTime());
+        hikariConfig.setMetricsTrackerFactory(new PoolMetricsTrackerFactory());
+        return new HikariDataSource(hikariConfig);
+    }
+
+    /**
+     * Creates the session instance for the connection. When the lazy connection is enabled the connection
+     * is null and the session takes it from its connection provider with the first action.
+     * @param implName Implementation name.
+     * @param connection Connection of the session or null.
+     * @return Postgres storage session.
+     */
+    protected abstract S getSessionInstance(String implName, Connection connection);
+
+    /**
+     * Return a name for a data source.
+     * @return Data source name.
+     */
+    protected abstract String getDataSourceName();
+
+    /**
+     * Return the host of the data base engine.
+     * @return Data base engine host.
+     */
+    protected abstract String getServerName();
+
+    /**
+     * Return the data base name.
+     * @return Data base name.
+     */
+    protected abstract String getDatabaseName();
+
+    /**
+     * Return the user name.
+     * @return User name.
+     */
+    protected abstract String getUserName();
+
+    /**
+     * Return the password.
+     * @return Password.
+     */
+    protected abstract String getPassword();
+
+    /**
+     * Return the initial connection size for the pool.
+     * @return Initial connection size.
+     */
+    protected Integer getInitialConnections() {
+        return SystemProperties.getInteger(PostgresProperties.Pool.INIT_CONNECTIONS);
+    }
+
+    /**
+     * Return the max connection size for the pool.
+     * @return Max connection size.
+     */
+    protected Integer getMaxConnections() {
+        return SystemProperties.getInteger(PostgresProperties.Pool.MAX_CONNECTIONS);
+    }
+
+    /**
+     * Return the port number of the server.
+     * @return Port number.
+     */
+    protected abstract Integer getPortNumber();
+
+    protected Long getIdleTimeout() {
+        return SystemProperties.getLong(PostgresProperties.Pool.IDLE_TIMEOUT);
+    }
+
+    protected Long getMaxLifeTime() {
+        return SystemProperties.getLong(PostgresProperties.Pool.MAX_LIFE_TIME);
+    }
+
+    /**
+     * Return the statements primed on each connection during the warm-up. The selects are executed once
+     * with null parameters, then they should be cheap with any value (the execution reads at most one row).
+     * @return List of sql statements.
+     */
+    protected List<String> getWarmUpStatements() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Return the names of the postgres types loaded into the type cache of each connection during the warm-up.
+     * @return List of type names.
+     */
+    protected List<String> getWarmUpTypes() {
+        return Arrays.asList(SystemProperties.get(PostgresProperties.Pool.WARM_UP_TYPES).split(Strings.ARGUMENT_SEPARATOR));
+    }
+
+    /**
+     * Return the read replicas of the data base, by default there are not replicas.
+     * @return List of replica endpoints.
+     */
+    protected List<ReplicaEndpoint> getReplicas() {
+        return Collections.emptyList();
+    }
+
+}
@@ -0,0 +1,1236 @@
+package org.hcjf.layers.storage.postgres;
+
+import org.hcjf.errors.Errors;
+import org.hcjf.layers.query.*;
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.layers.storage.StorageSession;
+import org.hcjf.layers.storage.actions.*;
+import org.hcjf.layers.storage.postgres.actions.PostgresBatchInsert;
+import org.hcjf.layers.storage.postgres.actions.PostgresBulkUpdate;
+import org.hcjf.layers.storage.postgres.actions.PostgresCopyIn;
+import org.hcjf.layers.storage.postgres.actions.PostgresDelete;
+import org.hcjf.layers.storage.postgres.actions.PostgresInsert;
+import org.hcjf.layers.storage.postgres.actions.PostgresKeysetPagination;
+import org.hcjf.layers.storage.postgres.actions.PostgresSelect;
+import org.hcjf.layers.storage.postgres.actions.PostgresSelectPipeline;
+import org.hcjf.layers.storage.postgres.actions.PostgresUpdate;
+import org.hcjf.layers.storage.postgres.actions.PostgresUpsert;
+import org.hcjf.layers.storage.postgres.cache.BoundedCache;
+import org.hcjf.layers.storage.postgres.cache.ResultCache;
+import org.hcjf.layers.storage.postgres.cache.StatementCache;
+import org.hcjf.layers.storage.postgres.codecs.TypeCodec;
+import org.hcjf.layers.storage.postgres.codecs.TypeCodecRegistry;
+import org.hcjf.layers.storage.postgres.columnar.Column;
+import org.hcjf.layers.storage.postgres.columnar.ColumnarResultSet;
+import org.hcjf.layers.storage.postgres.copy.CopyFormat;
+import org.hcjf.layers.storage.postgres.errors.PostgressErrors;
+import org.hcjf.layers.storage.postgres.mapping.ResultMappingPlan;
+import org.hcjf.layers.storage.postgres.mapping.RowListener;
+import org.hcjf.layers.storage.postgres.metrics.Metric;
+import org.hcjf.layers.storage.postgres.metrics.Metrics;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.hcjf.layers.storage.postgres.slowlog.SlowQueryLog;
+import org.hcjf.layers.storage.postgres.values.ArrayValue;
+import org.hcjf.log.Log;
+import org.hcjf.properties.SystemProperties;
+import org.hcjf.utils.Introspection;
+import org.hcjf.utils.Strings;
+import org.postgresql.PGConnection;
+import org.postgresql.core.BaseConnection;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.sql.ResultSet;
+import java.util.*;
+import java.util.Date;
+
+/**
+ * This class implements the postgres session.
+ * @author Javier Quiroga.
+ */
+public class PostgresStorageSession extends StorageSession {
+
+    private static final String COLUMN_TYPES_STATEMENT = "SELECT %s FROM %s LIMIT 0";
+    private static final String DEFAULT_ARRAY_TYPE = "text";
+
+    private Connection connection;
+    private ConnectionProvider connectionProvider;
+    private boolean earlyRelease;
+    private final Set<Closeable> cursors;
+    private StatementCache statementCache;
+    private SlowQueryLog slowQueryLog;
+    private int borrowedStatements;
+    private final Set<String> pendingWrites;
+    private Throwable throwable;
+    private Runnable closeListener;
+
+    public PostgresStorageSession(String implName, Connection connection) {
+        super(implName);
+        this.connection = connection;
+        this.cursors = new HashSet<>();
+        this.pendingWrites = new HashSet<>();
+        this.earlyRelease = SystemProperties.getBoolean(PostgresProperties.Session.EARLY_RELEASE);
+    }
+
+    public PostgresStorageSession(String implName, ConnectionProvider connectionProvider) {
+        this(implName, (Connection) null);
+        this.connectionProvider = connectionProvider;
+    }
+
+    /**
+     * Return the instance of the pooled postgres connection asocciated to the session. If the session
+     * has not connection then the connection is taken from the connection provider.
+     * @return Polled postgres connection.
+     */
+    public final Connection getConnection() {
+        if(connection == null) {
+            if(connectionProvider == null) {
+                throw new IllegalStateException(Errors.getMessage(PostgressErrors.UNABLE_TO_CREATE_CONNECTION));
+            }
+            try {
+                connection = connectionProvider.getConnection();
+            } catch (SQLException ex) {
+                Log.e(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                        Errors.getMessage(PostgressErrors.UNABLE_TO_CREATE_CONNECTION), ex);
+                throw new RuntimeException(Errors.getMessage(PostgressErrors.UNABLE_TO_CREATE_CONNECTION), ex);
+            }
+        }
+        return connection;
+    }
+
+    /**
+     * Set the provider used to take the connection of the session and to release it.
+     * @param connectionProvider Connection provider.
+     */
+    final void setConnectionProvider(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
+    }
+
+    /**
+     * Set the listener that is called once when the session is closed.
+     * @param closeListener Close listener.
+     */
+    final void setCloseListener(Runnable closeListener) {
+        this.closeListener = closeListener;
+    }
+
+    /**
+     * Set the slow query log where the executions of the session are checked.
+     * @param slowQueryLog Slow query log.
+     */
+    final void setSlowQueryLog(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    /**
+     * This method is called after each statement execution, records the execution time and checks if the
+     * statement is slow. The statement must not be released before this method is called.
+     * @param statement Normalized sql.
+     * @param preparedStatement Executed statement, null for the statements executed without bind values.
+     * @param elapsedNanos Execution time in nanoseconds.
+     */
+    public void onExecuted(String statement, PreparedStatement preparedStatement, long elapsedNanos) {
+        Metrics.record(statement, Metric.EXECUTE_TIME, elapsedNanos);
+        if(slowQueryLog != null) {
+            slowQueryLog.onExecuted(connectionProvider == null ? null : connectionProvider.getDataSource(),
+                    statement, preparedStatement, elapsedNanos);
+        }
+    }
+
+    /**
+     * Return true if the connection is released as soon as the session is idle, only for sessions
+     * in autocommit mode created with a connection provider.
+     * @return Early release value.
+     */
+    public boolean isEarlyRelease() {
+        return earlyRelease;
+    }
+
+    /**
+     * Set if the connection is released as soon as the session is idle.
+     * @param earlyRelease Early release value.
+     */
+    public void setEarlyRelease(boolean earlyRelease) {
+        this.earlyRelease = earlyRelease;
+    }
+
+    /**
+     * Returns the connection to the provider if the session is in autocommit mode and there are not
+     * borrowed statements or open cursors, the next action of the session takes a new connection.
+     * Sessions with an open transaction or without connection provider keep the connection until the
+     * session is closed.
+     * @return True if the connection was released and false in other case.
+     */
+    public boolean releaseConnection() {
+        boolean result = false;
+        if(connection != null && connectionProvider != null && borrowedStatements == 0 && cursors.isEmpty()) {
+            try {
+                if(connection.getAutoCommit()) {
+                    Connection releasedConnection = connection;
+                    connection = null;
+                    statementCache = null;
+                    connectionProvider.release(releasedConnection);
+                    result = true;
+                }
+            } catch (SQLException ex) {
+                Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                        Errors.getMessage(PostgressErrors.UNABLE_TO_CLOSE_CONNECTION), ex);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Releases the connection if the early release is enabled and the session is idle.
+     */
+    private void releaseIfIdle() {
+        if(earlyRelease) {
+            releaseConnection();
+        }
+    }
+
+    /**
+     * Return a prepared statement for the sql text. The statement is taken from the cache of
+     * the physical connection, when the statement is not needed anymore it must be returned using
+     * the method {@link PostgresStorageSession#releaseStatement(PreparedStatement)}.
+     * @param sql Sql text.
+     * @return Prepared statement.
+     * @throws SQLException
+     */
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        if(statementCache == null) {
+            Connection physicalConnection = getConnection();
+            if(physicalConnection.isWrapperFor(PGConnection.class)) {
+                physicalConnection = (Connection) physicalConnection.unwrap(PGConnection.class);
+            }
+            statementCache = StatementCache.get(physicalConnection);
+        }
+        PreparedStatement result = statementCache.borrow(sql);
+        borrowedStatements++;
+        return result;
+    }
+
+    /**
+     * Return the statement to the cache of the physical connection.
+     * @param statement Statement created with the method {@link PostgresStorageSession#prepareStatement(String)}.
+     */
+    public void releaseStatement(PreparedStatement statement) {
+        if(statement != null && statementCache != null) {
+            statementCache.release(statement);
+            borrowedStatements--;
+            releaseIfIdle();
+        }
+    }
+
+    /**
+     * Writes the statement into the log, the text of the statement is only rendered if the
+     * statements log is enabled.
+     * @param statement Statement to log.
+     */
+    public void logStatement(Object statement) {
+        if(SystemProperties.getBoolean(PostgresProperties.POSTGRES_LOG_STATEMENTS)) {
+            Log.d(SystemProperties.get(PostgresProperties.POSTGRES_EXECUTE_STATEMENT_LOG_TAG), statement.toString());
+        }
+    }
+
+    /**
+     * Register an open cursor, all the open cursors are released before the session is closed.
+     * @param cursor Open cursor.
+     */
+    public void registerCursor(Closeable cursor) {
+        cursors.add(cursor);
+    }
+
+    /**
+     * Remove the cursor from the open cursors of the session.
+     * @param cursor Released cursor.
+     */
+    public void unregisterCursor(Closeable cursor) {
+        cursors.remove(cursor);
+        releaseIfIdle();
+    }
+
+    /**
+     * This method is called after each write over a resource. If the session is in autocommit mode the
+     * cached results of the resource are invalidated now, in other case the resource is registered as
+     * pending and the results are invalidated when the transaction is committed.
+     * @param resourceName Name of the written resource.
+     */
+    public void onWrite(String resourceName) {
+        boolean autoCommit;
+        try {
+            //Only the sessions in autocommit mode release the connection before the close
+            autoCommit = connection == null || connection.getAutoCommit();
+        } catch (SQLException ex) {
+            autoCommit = false;
+        }
+
+        if(autoCommit) {
+            ResultCache.getInstance().invalidate(resourceName);
+        } else {
+            pendingWrites.add(resourceName);
+        }
+    }
+
+    /**
+     * This method is called after each commit of the session transaction, the cached results of the
+     * resources written by the transaction are invalidated.
+     */
+    public void onCommit() {
+        for(String resourceName : pendingWrites) {
+            ResultCache.getInstance().invalidate(resourceName);
+        }
+        pendingWrites.clear();
+    }
+
+    /**
+     * Return true if the current transaction of the session has written some resource.
+     * @return True if there are pending writes.
+     */
+    public boolean hasPendingWrites() {
+        return !pendingWrites.isEmpty();
+    }
+
+    /**
+     * Return true if some of the resources was written by the current transaction of the session,
+     * the cached results of these resources are not used by the session until the commit.
+     * @param resourceNames Names of the resources.
+     * @return True if there are pending writes.
+     */
+    public boolean hasPendingWrites(Collection<String> resourceNames) {
+        boolean result = false;
+        if(!pendingWrites.isEmpty()) {
+            for(String resourceName : resourceNames) {
+                if(pendingWrites.contains(resourceName)) {
+                    result = true;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * This method is callas when occurs an error in some operation over the session.
+     * @param throwable Throwable that represents the error.
+     */
+    public final void onError(Throwable throwable) {
+        this.throwable = throwable;
+    }
+
+    /**
+     * Close the postgres connection, when the connection is closed its is released to the
+     * connections pool. If the session has not connection then there is nothing to do. If the
+     * commit of the session transaction fails then the transaction is rolled back, the connection
+     * is released anyway and the commit error is thrown.
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            closeConnection();
+        } finally {
+            Runnable closeListener = this.closeListener;
+            this.closeListener = null;
+            if(closeListener != null) {
+                closeListener.run();
+            }
+        }
+    }
+
+    private void closeConnection() throws IOException {
+        for(Closeable cursor : new ArrayList<>(cursors)) {
+            try {
+                cursor.close();
+            } catch (Exception ex) {
+                Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                        Errors.getMessage(PostgressErrors.UNABLE_TO_CLOSE_CURSOR), ex);
+            }
+        }
+        if(connection == null) {
+            return;
+        }
+
+        IOException closeException = null;
+        try {
+            if(getConnection().getAutoCommit()) {
+                if(throwable != null) {
+                    Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                            Errors.getMessage(PostgressErrors.AUTOCOMMIT_SESSION_ERROR), throwable);
+                }
+            } else if(throwable != null) {
+                rollback();
+                Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                        Errors.getMessage(PostgressErrors.ROLLBACK_OPERATION), throwable);
+            } else {
+                try {
+                    getConnection().commit();
+                    onCommit();
+                } catch (SQLException ex) {
+                    Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                            Errors.getMessage(PostgressErrors.UNABLE_TO_COMMIT), ex);
+                    closeException = new IOException(Errors.getMessage(PostgressErrors.UNABLE_TO_COMMIT), ex);
+                    rollback();
+                }
+            }
+        } catch (SQLException ex) {
+            Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                    Errors.getMessage(PostgressErrors.UNABLE_TO_CLOSE_CONNECTION), ex);
+            closeException = new IOException(Errors.getMessage(PostgressErrors.UNABLE_TO_CLOSE_CONNECTION), ex);
+        } finally {
+            Connection closedConnection = connection;
+            connection = null;
+            statementCache = null;
+            try {
+                if(connectionProvider == null) {
+                    closedConnection.close();
+                } else {
+                    connectionProvider.release(closedConnection);
+                }
+            } catch (SQLException ex) {
+                Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                        Errors.getMessage(PostgressErrors.UNABLE_TO_CLOSE_CONNECTION), ex);
+                if(closeException == null) {
+                    closeException = new IOException(Errors.getMessage(PostgressErrors.UNABLE_TO_CLOSE_CONNECTION), ex);
+                }
+            }
+        }
+
+        if(closeException != null) {
+            throw closeException;
+        }
+    }
+
+    /**
+     * Rolls back the session transaction, the writes of the transaction are discarded.
+     */
+    private void rollback() {
+        try {
+            getConnection().rollback();
+        } catch (SQLException ex) {
+            Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                    Errors.getMessage(PostgressErrors.UNABLE_TO_ROLLBACK), ex);
+        }
+        pendingWrites.clear();
+    }
+
+    /**
+     * Return the cache of the mapping plans, the key of the cache is composed by the session implementation,
+     * the resource, the result type and the columns of the postgres result set.
+     * @return Mapping plan cache.
+     */
+    public static BoundedCache<String, ResultMappingPlan> getMappingPlanCache() {
+        return MappingPlanCacheHolder.INSTANCE;
+    }
+
+    /**
+     * Creates a hcjf result set from a postgres data base result set.
+     * @param query Query instance that was evaluated for postgres engine.
+     * @param sqlResultSet Postgres result set.
+     * @param resultType Expected object to create hcjf result set.
+     * @param <R> Expected kind of result set.
+     * @return Result set instance.
+     * @throws SQLException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> R createResultSet(Query query, java.sql.ResultSet sqlResultSet, Class resultType)
+            throws SQLException, IllegalAccessException, InstantiationException {
+        return createResultSet(null, query, sqlResultSet, resultType);
+    }
+
+    /**
+     * Creates a hcjf result set from a postgres data base result set, and records the mapping time
+     * and the number of rows for the query shape.
+     * @param shape Shape of the query, if the shape is null then nothing is recorded.
+     * @param query Query instance that was evaluated for postgres engine.
+     * @param sqlResultSet Postgres result set.
+     * @param resultType Expected object to create hcjf result set.
+     * @param <R> Expected kind of result set.
+     * @return Result set instance.
+     * @throws SQLException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> R createResultSet(String shape, Query query,
+            java.sql.ResultSet sqlResultSet, Class resultType) throws SQLException, IllegalAccessException, InstantiationException {
+        return createResultSet(shape, query, sqlResultSet, resultType, null);
+    }
+
+    /**
+     * Creates a hcjf result set from a postgres data base result set, and records the mapping time
+     * and the number of rows for the query shape. The row listener is called for each row after the row is mapped.
+     * @param shape Shape of the query, if the shape is null then nothing is recorded.
+     * @param query Query instance that was evaluated for postgres engine.
+     * @param sqlResultSet Postgres result set.
+     * @param resultType Expected object to create hcjf result set.
+     * @param rowListener Listener called for each row, could be null.
+     * @param <R> Expected kind of result set.
+     * @return Result set instance.
+     * @throws SQLException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> R createResultSet(String shape, Query query,
+            java.sql.ResultSet sqlResultSet, Class resultType, RowListener rowListener)
+            throws SQLException, IllegalAccessException, InstantiationException {
+        long startTime = Metrics.start();
+        ResultMappingPlan plan = getMappingPlan(query, sqlResultSet.getMetaData(), resultType);
+        R resultSet;
+        int rows;
+        if(resultType == null) {
+            List<Map<String, Object>> collectionResult = new ArrayList<>();
+            while (sqlResultSet.next()) {
+                collectionResult.add((Map<String, Object>) mapRow(plan, query, sqlResultSet));
+                if(rowListener != null) {
+                    rowListener.onRow(sqlResultSet);
+                }
+            }
+            resultSet = (R) new MapResultSet(collectionResult);
+            rows = collectionResult.size();
+        } else {
+            Collection<Object> collectionResult = new ArrayList<>();
+            while (sqlResultSet.next()) {
+                collectionResult.add(mapRow(plan, query, sqlResultSet));
+                if(rowListener != null) {
+                    rowListener.onRow(sqlResultSet);
+                }
+            }
+            resultSet = (R) new CollectionResultSet(collectionResult);
+            rows = collectionResult.size();
+        }
+
+        if(shape != null) {
+            Metrics.stop(shape, Metric.MAPPING_TIME, startTime);
+            Metrics.record(shape, Metric.ROWS, rows);
+        }
+
+        return resultSet;
+    }
+
+    /**
+     * Creates a columnar result set from a postgres data base result set, the values are read with the typed
+     * getters of the result set and stored by column, and the columns are named with the same keys that
+     * the map result sets. Records the mapping time and the number of rows for the query shape.
+     * @param shape Shape of the query, if the shape is null then nothing is recorded.
+     * @param query Query instance that was evaluated for postgres engine.
+     * @param sqlResultSet Postgres result set.
+     * @return Columnar result set.
+     * @throws SQLException
+     */
+    public ColumnarResultSet createColumnarResultSet(String shape, Query query, java.sql.ResultSet sqlResultSet) throws SQLException {
+        long startTime = Metrics.start();
+        ResultSetMetaData resultSetMetaData = sqlResultSet.getMetaData();
+        ResultMappingPlan plan = getMappingPlan(query, resultSetMetaData, null);
+        Column[] columns = new Column[plan.size()];
+        for (int position = 0; position < columns.length; position++) {
+            columns[position] = Column.create(plan.getKey(position),
+                    resultSetMetaData.getColumnType(plan.getColumn(position)), this::getValueFromColumn);
+        }
+        int rows = 0;
+        while (sqlResultSet.next()) {
+            for (int position = 0; position < columns.length; position++) {
+                columns[position].read(sqlResultSet, plan.getColumn(position));
+            }
+            rows++;
+        }
+
+        if(shape != null) {
+            Metrics.stop(shape, Metric.MAPPING_TIME, startTime);
+            Metrics.record(shape, Metric.ROWS, rows);
+        }
+
+        return new ColumnarResultSet(query.getResourceName(), columns, rows);
+    }
+
+    /**
+     * Creates the object for the current row of the postgres result set.
+     * @param plan Mapping plan for the postgres result set.
+     * @param query Query instance that was evaluated for postgres engine.
+     * @param sqlResultSet Postgres result set positioned on the row to map.
+     * @return Joinable map or instance of the plan result type.
+     * @throws SQLException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     */
+    public Object mapRow(ResultMappingPlan plan, Query query, java.sql.ResultSet sqlResultSet)
+            throws SQLException, IllegalAccessException, InstantiationException {
+        Object result;
+        if(plan.getResultType() == null) {
+            JoinableMap mapResult = new JoinableMap(query.getResourceName());
+            for (int position = 0; position < plan.size(); position++) {
+                mapResult.put(plan.getKey(position), readValue(plan, position, sqlResultSet));
+            }
+            result = mapResult;
+        } else {
+            result = plan.getResultType().newInstance();
+            Object value;
+            for (int position = 0; position < plan.size(); position++) {
+                value = readValue(plan, position, sqlResultSet);
+                try {
+                    plan.getSetter(position).invokeExact(result, value);
+                } catch (Error error) {
+                    throw error;
+                } catch (Throwable throwable) {
+                    plan.onFailure(position, throwable);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads the value of the mapped column using the codec of the column, the columns without codec are
+     * read with getObject and converted with {@link #getValueFromColumn(Object)}.
+     * @param plan Mapping plan for the postgres result set.
+     * @param position Position of the mapped column into the plan.
+     * @param sqlResultSet Postgres result set positioned on the row.
+     * @return Java value.
+     * @throws SQLException
+     */
+    private Object readValue(ResultMappingPlan plan, int position, java.sql.ResultSet sqlResultSet) throws SQLException {
+        TypeCodec<?> codec = plan.getCodec(position);
+        return codec == null ? getValueFromColumn(sqlResultSet.getObject(plan.getColumn(position))) :
+                codec.read(sqlResultSet, plan.getColumn(position));
+    }
+
+    /**
+     * Return the mapping plan for the columns of the postgres result set, the plan is created
+     * only the first time for each shape of result.
+     * @param query Query instance that was evaluated for postgres engine.
+     * @param resultSetMetaData Metadata of the postgres result set.
+     * @param resultType Expected object to create hcjf result set.
+     * @return Mapping plan.
+     * @throws SQLException
+     */
+    public ResultMappingPlan getMappingPlan(Query query, ResultSetMetaData resultSetMetaData, Class resultType) throws SQLException {
+        String[] columnNames = new String[resultSetMetaData.getColumnCount()];
+        String[] columnTypes = new String[columnNames.length];
+        StringBuilder keyBuilder = new StringBuilder();
+        keyBuilder.append(getClass().getName()).append(Strings.ARGUMENT_SEPARATOR);
+        keyBuilder.append(query.getResourceName()).append(Strings.ARGUMENT_SEPARATOR);
+        keyBuilder.append(resultType == null ? null : resultType.getName());
+        for (int columnNumber = 1; columnNumber <= columnNames.length; columnNumber++) {
+            columnNames[columnNumber - 1] = resultSetMetaData.getTableName(columnNumber) +
+                    Strings.CLASS_SEPARATOR + resultSetMetaData.getColumnLabel(columnNumber);
+            columnTypes[columnNumber - 1] = resultSetMetaData.getColumnTypeName(columnNumber);
+            keyBuilder.append(Strings.ARGUMENT_SEPARATOR).append(columnNames[columnNumber - 1]);
+            keyBuilder.append(Strings.WHITE_SPACE).append(columnTypes[columnNumber - 1]);
+        }
+        return getMappingPlanCache().get(keyBuilder.toString(), key -> createMappingPlan(query, columnNames, columnTypes, resultType));
+    }
+
+    /**
+     * Resolves the target of each column, the key into the joinable map or the setter of the result type,
+     * and the codec to read each column.
+     * @param query Query instance that was evaluated for postgres engine.
+     * @param columnNames Names of the columns with the form 'table.column'.
+     * @param columnTypes Postgres type names of the columns.
+     * @param resultType Expected object to create hcjf result set.
+     * @return Mapping plan.
+     */
+    private ResultMappingPlan createMappingPlan(Query query, String[] columnNames, String[] columnTypes, Class resultType) {
+        int[] columns = new int[columnNames.length];
+        String[] keys = new String[columnNames.length];
+        MethodHandle[] setters = new MethodHandle[columnNames.length];
+        TypeCodec<?>[] codecs = new TypeCodec<?>[columnNames.length];
+        Map<String, Introspection.Setter> resultTypeSetters = resultType == null ? null : Introspection.getSetters(resultType);
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodType setterType = MethodType.methodType(void.class, Object.class, Object.class);
+        int size = 0;
+        for (int columnNumber = 1; columnNumber <= columnNames.length; columnNumber++) {
+            Query.QueryComponent queryField = normalizeDataSourceToApplication(new Query.QueryField(columnNames[columnNumber - 1]));
+            if(queryField != null) {
+                String fieldName = ((Query.QueryField) queryField).getFieldName();
+                if(resultType == null) {
+                    keys[size] = query.getResourceName() + Strings.CLASS_SEPARATOR + fieldName;
+                    codecs[size] = getCodec(columnTypes[columnNumber - 1]);
+                    columns[size++] = columnNumber;
+                } else if(resultTypeSetters.containsKey(fieldName)) {
+                    try {
+                        Method setterMethod = resultTypeSetters.get(fieldName).getMethod();
+                        setterMethod.setAccessible(true);
+                        setters[size] = lookup.unreflect(setterMethod).asType(setterType);
+                        keys[size] = fieldName;
+                        codecs[size] = getCodec(columnTypes[columnNumber - 1]);
+                        columns[size++] = columnNumber;
+                    } catch (IllegalAccessException | RuntimeException ex) {
+                        Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                                Errors.getMessage(PostgressErrors.UNABLE_TO_MAP_COLUMN, fieldName, resultType), ex);
+                    }
+                }
+            }
+        }
+        return new ResultMappingPlan(resultType, Arrays.copyOf(columns, size),
+                Arrays.copyOf(keys, size), Arrays.copyOf(setters, size), Arrays.copyOf(codecs, size));
+    }
+
+    /**
+     * Return the codec to read the columns of the postgres type, the oid of the type is resolved
+     * with the type information of the connection.
+     * @param typeName Postgres type name.
+     * @return Codec or null if there are not a codec for the type.
+     */
+    private TypeCodec<?> getCodec(String typeName) {
+        TypeCodec<?> result = null;
+        if(typeName != null) {
+            try {
+                Connection connection = getConnection();
+                if(connection.isWrapperFor(BaseConnection.class)) {
+                    result = TypeCodecRegistry.getInstance().get(
+                            connection.unwrap(BaseConnection.class).getTypeInfo().getPGType(typeName));
+                }
+            } catch (SQLException ex) {
+                Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                        Errors.getMessage(PostgressErrors.UNABLE_TO_RESOLVE_CODEC, typeName), ex);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Mapping some kind of data type from data base to java types.
+     * @param columnValue Value from data base column.
+     * @return Java-friendly instance
+     * @throws SQLException
+     */
+    protected Object getValueFromColumn(Object columnValue) throws SQLException {
+        Object result = columnValue;
+        if(columnValue != null) {
+            if (columnValue instanceof Array) {
+                result = Arrays.asList((Object[]) ((Array) columnValue).getArray());
+            } else if (columnValue instanceof BigDecimal) {
+                result = ((BigDecimal) columnValue).doubleValue();
+            } else if (columnValue instanceof Timestamp) {
+                result = new Date(((Timestamp) columnValue).getTime());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Put into the query builder all the restrictions based on collection evaluator.
+     * @param result Query builder.
+     * @param collection Evaluator collection.
+     * @return Query builder.
+     */
+    public StringBuilder processEvaluators(StringBuilder result, EvaluatorCollection collection) {
+        String separatorValue = collection instanceof Or ?
+                SystemProperties.get(SystemProperties.Query.ReservedWord.OR) :
+                SystemProperties.get(SystemProperties.Query.ReservedWord.AND);
+        boolean inAsArray = SystemProperties.getBoolean(PostgresProperties.Statement.IN_AS_ARRAY);
+        boolean addSeparator = false;
+        for(Evaluator evaluator : collection.getEvaluators()) {
+            if(addSeparator) {
+                result.append(Strings.WHITE_SPACE).append(separatorValue).append(Strings.WHITE_SPACE);
+            }
+            if(evaluator instanceof Or) {
+                result.append(Strings.START_GROUP);
+                processEvaluators(result, (Or)evaluator);
+                result.append(Strings.END_GROUP);
+            } else if(evaluator instanceof And) {
+                result.append(Strings.START_GROUP);
+                processEvaluators(result, (And)evaluator);
+                result.append(Strings.END_GROUP);
+            } else if(evaluator instanceof FieldEvaluator) {
+                result.append(normalizeApplicationToDataSource(
+                        ((FieldEvaluator)evaluator).getQueryParameter())).append(Strings.WHITE_SPACE);
+                int size = 0;
+                if(evaluator instanceof Distinct) {
+                    if(((FieldEvaluator)evaluator).getRawValue() == null) {
+                        result.append(SystemProperties.get(PostgresProperties.ReservedWord.IS_NOT_NULL_OPERATOR));
+                        size = -1;
+                    } else {
+                        result.append(SystemProperties.get(SystemProperties.Query.ReservedWord.DISTINCT));
+                    }
+                } else if(evaluator instanceof Equals) {
+                    if(((FieldEvaluator)evaluator).getRawValue() == null) {
+                        result.append(SystemProperties.get(PostgresProperties.ReservedWord.IS_NULL_OPERATOR));
+                        size = -1;
+                    } else {
+                        result.append(SystemProperties.get(SystemProperties.Query.ReservedWord.EQUALS));
+                    }
+                } else if(evaluator instanceof GreaterThanOrEqual) {
+                    result.append(SystemProperties.get(SystemProperties.Query.ReservedWord.GREATER_THAN_OR_EQUALS));
+                } else if(evaluator instanceof GreaterThan) {
+                    result.append(SystemProperties.get(SystemProperties.Query.ReservedWord.GREATER_THAN));
+                } else if(evaluator instanceof NotIn) {
+                    if(inAsArray) {
+                        result.append(SystemProperties.get(PostgresProperties.ReservedWord.NOT_IN_ARRAY_OPERATOR));
+                        size = 1;
+                    } else {
+                        result.append(SystemProperties.get(SystemProperties.Query.ReservedWord.NOT_IN));
+                        if (((FieldEvaluator) evaluator).getRawValue() instanceof Collection) {
+                            size = ((Collection) ((FieldEvaluator) evaluator).getRawValue()).size();
+                        } else {
+                            size = 1;
+                        }
+                    }
+                } else if(evaluator instanceof In) {
+                    if(inAsArray) {
+                        result.append(SystemProperties.get(PostgresProperties.ReservedWord.IN_ARRAY_OPERATOR));
+                        size = 1;
+                    } else {
+                        result.append(SystemProperties.get(SystemProperties.Query.ReservedWord.IN));
+                        if (((FieldEvaluator) evaluator).getRawValue() instanceof Collection) {
+                            size = ((Collection) ((FieldEvaluator) evaluator).getRawValue()).size();
+                        } else {
+                            size = 1;
+                        }
+                    }
+                } else if(evaluator instanceof Like) {
+                    result.append(SystemProperties.get(PostgresProperties.ReservedWord.LIKE_OPERATOR));
+                } else if(evaluator instanceof SmallerThanOrEqual) {
+                    result.append(SystemProperties.get(SystemProperties.Query.ReservedWord.SMALLER_THAN_OR_EQUALS));
+                } else if(evaluator instanceof SmallerThan) {
+                    result.append(SystemProperties.get(SystemProperties.Query.ReservedWord.SMALLER_THAN));
+                }
+                if(size > 0) {
+                    String argumentSeparatorValue = SystemProperties.get(SystemProperties.Query.ReservedWord.ARGUMENT_SEPARATOR);
+                    String argumentSeparator = Strings.EMPTY_STRING;
+                    result.append(Strings.WHITE_SPACE).append(Strings.START_GROUP);
+                    for (int i = 0; i < size; i++) {
+                        result.append(argumentSeparator).append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE));
+                        argumentSeparator = argumentSeparatorValue;
+                    }
+                    result.append(Strings.END_GROUP).append(Strings.WHITE_SPACE);
+                } else if(size == 0) {
+                    result.append(Strings.WHITE_SPACE).append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE));
+                } else {
+                    result.append(Strings.WHITE_SPACE);
+                }
+            }
+            addSeparator = true;
+        }
+        return result;
+    }
+
+    /**
+     * Set the values for the prepared statement.
+     * @param statement Prepared statement.
+     * @param collection Evaluator collection.
+     * @param index Starting index of the parameters.
+     * @param params Execution parameters.
+     * @return Prepared statement.
+     */
+    public PreparedStatement setValues(PreparedStatement statement, EvaluatorCollection collection, Integer index, Object... params) {
+        List<Object> values = collectValues(new ArrayList<>(), collection, params);
+        return setValues(statement, values, new TypeCodec[values.size()], index);
+    }
+
+    /**
+     * Set the values for the prepared statement, the codec of each value is taken from the codecs
+     * of its position.
+     * @param statement Prepared statement.
+     * @param values Values to set.
+     * @param codecs Codecs indexed by position, see {@link PostgresStorageSession#getCodecs(String, int)}.
+     * @param index Starting index of the parameters.
+     * @return Prepared statement.
+     */
+    public PreparedStatement setValues(PreparedStatement statement, List<Object> values, TypeCodec[] codecs, Integer index) {
+        try {
+            int position = 0;
+            for(Object value : values) {
+                index = setValue(statement, index, value, codecs, position++);
+            }
+        } catch (SQLException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+        return statement;
+    }
+
+    /**
+     * Return the cache of the codecs resolved for each position of the statements, the key of the
+     * cache is the sql of the statement.
+     * @return Codecs cache.
+     */
+    public static BoundedCache<String, TypeCodec[]> getCodecsCache() {
+        return CodecsCacheHolder.INSTANCE;
+    }
+
+    /**
+     * Return the codecs of the values of the statement indexed by position, the codecs are resolved
+     * once for each position and reused by all the executions of the same sql.
+     * @param statement Sql of the statement.
+     * @param size Number of values bound by the statement.
+     * @return Codecs indexed by position.
+     */
+    public TypeCodec[] getCodecs(String statement, int size) {
+        TypeCodec[] result = getCodecsCache().getIfPresent(statement);
+        if(result == null || result.length != size) {
+            result = new TypeCodec[size];
+            getCodecsCache().put(statement, result);
+        }
+        return result;
+    }
+
+    /**
+     * Collects the values of the evaluators in the same order that the replaceable values
+     * created by the method {@link PostgresStorageSession#processEvaluators(StringBuilder, EvaluatorCollection)}.
+     * @param values List to put the values.
+     * @param collection Evaluator collection.
+     * @param params Execution parameters.
+     * @return List of values.
+     */
+    public List<Object> collectValues(List<Object> values, EvaluatorCollection collection, Object... params) {
+        boolean inAsArray = SystemProperties.getBoolean(PostgresProperties.Statement.IN_AS_ARRAY);
+        Object value;
+        for(Evaluator evaluator : collection.getEvaluators()) {
+            if(evaluator instanceof Or) {
+                collectValues(values, (Or)evaluator, params);
+            } else if(evaluator instanceof And) {
+                collectValues(values, (And)evaluator, params);
+            } else if(evaluator instanceof FieldEvaluator) {
+                value = ((FieldEvaluator)evaluator).getValue(null,null, params);
+                if(value != null) {
+                    if(inAsArray && (evaluator instanceof In || evaluator instanceof NotIn)) {
+                        value = createArrayValue(value instanceof Collection ?
+                                (Collection<?>) value : Collections.singletonList(value));
+                    }
+                    values.add(value);
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Return the cache of the column types, the key of the cache is composed by the data base,
+     * the resource and the columns.
+     * @return Column types cache.
+     */
+    public static BoundedCache<String, List<String>> getColumnTypesCache() {
+        return ColumnTypesCacheHolder.INSTANCE;
+    }
+
+    /**
+     * Return the postgres type name of each column of the resource, the types are resolved only once for
+     * each data base, resource and columns.
+     * @param resourceName Name of the resource.
+     * @param columns Columns of the resource.
+     * @return List with the type name of each column.
+     * @throws SQLException
+     */
+    public List<String> getColumnTypes(String resourceName, List<String> columns) throws SQLException {
+        String columnsList = String.join(Strings.ARGUMENT_SEPARATOR, columns);
+        String key = getConnection().getCatalog() + Strings.CLASS_SEPARATOR + resourceName + Strings.START_GROUP + columnsList + Strings.END_GROUP;
+        List<String> result = getColumnTypesCache().getIfPresent(key);
+        if(result == null) {
+            result = new ArrayList<>();
+            PreparedStatement statement = prepareStatement(String.format(COLUMN_TYPES_STATEMENT, columnsList, resourceName));
+            try (ResultSet sqlResultSet = statement.executeQuery()) {
+                ResultSetMetaData metaData = sqlResultSet.getMetaData();
+                for (int columnNumber = 1; columnNumber <= metaData.getColumnCount(); columnNumber++) {
+                    result.add(metaData.getColumnTypeName(columnNumber));
+                }
+            } finally {
+                releaseStatement(statement);
+            }
+            result = Collections.unmodifiableList(result);
+            getColumnTypesCache().put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Set a value into the prepared statement, the dates are stored as timestamps and each
+     * element of the collections is stored as a different parameter.
+     * @param statement Prepared statement.
+     * @param index Index of the parameter.
+     * @param value Value to set.
+     * @return Index of the next parameter.
+     * @throws SQLException
+     */
+    public int setValue(PreparedStatement statement, int index, Object value) throws SQLException {
+        if (value instanceof ArrayValue) {
+            statement.setArray(index++, getConnection().createArrayOf(((ArrayValue) value).getTypeName(),
+                    toArrayElements(((ArrayValue) value).getValues())));
+        } else if (value instanceof Collection) {
+            for (Object object : ((Collection) value)) {
+                index = setValue(statement, index, object);
+            }
+        } else if (value == null) {
+            statement.setObject(index++, null);
+        } else {
+            TypeCodec codec = TypeCodecRegistry.getInstance().get(value.getClass());
+            if(codec == null) {
+                statement.setObject(index++, value);
+            } else {
+                codec.bind(statement, index++, value);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Binds the value using the codec of the parameter position, the codec is resolved again only when
+     * the value is not an instance of the java type of the current codec. This method is intended for
+     * the statements that bind the same columns for many rows.
+     * @param statement Prepared statement.
+     * @param index Index of the parameter.
+     * @param value Value to bind.
+     * @param codecs Codecs indexed by position.
+     * @param position Position of the value.
+     * @return Index of the next parameter.
+     * @throws SQLException
+     */
+    public int setValue(PreparedStatement statement, int index, Object value, TypeCodec[] codecs, int position) throws SQLException {
+        TypeCodec codec = codecs[position];
+        if(value == null || value instanceof ArrayValue || value instanceof Collection) {
+            index = setValue(statement, index, value);
+        } else {
+            if(codec == null || !codec.getJavaType().isInstance(value)) {
+                codec = TypeCodecRegistry.getInstance().get(value.getClass());
+                codecs[position] = codec;
+            }
+            if(codec == null) {
+                statement.setObject(index++, value);
+            } else {
+                codec.bind(statement, index++, value);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Creates a postgres array with the values of the collection, the type of the array is inferred
+     * from the first not null element.
+     * @param values Collection of values.
+     * @return Postgres array.
+     * @throws SQLException
+     */
+    public Array createArray(Collection<?> values) throws SQLException {
+        ArrayValue arrayValue = createArrayValue(values);
+        return getConnection().createArrayOf(arrayValue.getTypeName(), toArrayElements(arrayValue.getValues()));
+    }
+
+    /**
+     * Creates an array value with the values of the collection, the type of the array is inferred
+     * from the first not null element.
+     * @param values Collection of values.
+     * @return Array value.
+     */
+    public ArrayValue createArrayValue(Collection<?> values) {
+        String typeName = null;
+        for(Object value : values) {
+            if(value != null) {
+                typeName = getArrayTypeName(value);
+                break;
+            }
+        }
+        return new ArrayValue(values, typeName == null ? DEFAULT_ARRAY_TYPE : typeName);
+    }
+
+    private Object[] toArrayElements(Collection<?> values) {
+        Object[] elements = new Object[values.size()];
+        int index = 0;
+        for(Object value : values) {
+            elements[index++] = value instanceof Date ? new Timestamp(((Date) value).getTime()) : value;
+        }
+        return elements;
+    }
+
+    /**
+     * Return the postgres type name for the elements of an array.
+     * @param value Sample element of the array.
+     * @return Postgres type name.
+     */
+    protected String getArrayTypeName(Object value) {
+        String result;
+        if(value instanceof Integer) {
+            result = "int4";
+        } else if(value instanceof Long) {
+            result = "int8";
+        } else if(value instanceof Short) {
+            result = "int2";
+        } else if(value instanceof Double) {
+            result = "float8";
+        } else if(value instanceof Float) {
+            result = "float4";
+        } else if(value instanceof BigDecimal) {
+            result = "numeric";
+        } else if(value instanceof Boolean) {
+            result = "bool";
+        } else if(value instanceof UUID) {
+            result = "uuid";
+        } else if(value instanceof Date) {
+            result = "timestamp";
+        } else {
+            result = DEFAULT_ARRAY_TYPE;
+        }
+        return result;
+    }
+
+    /**
+     * Return the select (postgres implementation) instance associated to the query parameter.
+     * @param query Query parameter.
+     * @return Select instance.
+     * @throws StorageAccessException
+     */
+    @Override
+    public Select select(Query query) throws StorageAccessException {
+        Select select = new PostgresSelect(this);
+        select.setQuery(query);
+        return select;
+    }
+
+    /**
+     * Returns a pipeline to execute several selects in one round trip.
+     * @return Select pipeline.
+     */
+    public PostgresSelectPipeline pipeline() {
+        return new PostgresSelectPipeline(this);
+    }
+
+    /**
+     * Returns a keyset pagination over the query, the query must be ordered by a unique combination of fields.
+     * @param query Query to paginate.
+     * @param pageSize Number of rows of each page.
+     * @return Keyset pagination.
+     */
+    public PostgresKeysetPagination keysetPagination(Query query, int pageSize) {
+        return new PostgresKeysetPagination(this, query, pageSize);
+    }
+
+    /**
+     * Returns the update operation implementation.
+     * @param query Query to filter the update.
+     * @param values Values to be updated.
+     * @return update operation.
+     * @throws StorageAccessException
+     */
+    @Override
+    public Update update(Query query, Map<String, Object> values) throws StorageAccessException {
+        PostgresUpdate update = new PostgresUpdate(this);
+        update.setQuery(query);
+        for(String key : values.keySet()) {
+            update.add(key, values.get(key));
+        }
+        return update;
+    }
+
+    /**
+     * Returns the delete operation implementation.
+     * @param query Query to filter the delete.
+     * @return Delete operation.
+     * @throws StorageAccessException
+     */
+    @Override
+    public Delete delete(Query query) throws StorageAccessException {
+        PostgresDelete delete = new PostgresDelete(this);
+        delete.setQuery(query);
+        return delete;
+    }
+
+    /**
+     * Returns the delete operation implementation in bulk mode, the rows are deleted in chunks
+     * of keys and each chunk is committed in a different transaction.
+     * @param resourceName Name of the resource.
+     * @param keyColumn Column used to identify the rows.
+     * @param keys Keys of the rows to delete.
+     * @return Delete operation.
+     */
+    public PostgresDelete bulkDelete(String resourceName, String keyColumn, Collection<?> keys) {
+        PostgresDelete delete = new PostgresDelete(this);
+        delete.setResourceName(resourceName);
+        delete.setKeys(keyColumn, keys);
+        return delete;
+    }
+
+    /**
+     * Returns the insert operation implementation
+     * @return insert query
+     * @throws StorageAccessException
+     */
+    @Override
+    public Insert insert() throws StorageAccessException {
+        return new PostgresInsert(this);
+    }
+
+    /**
+     * Returns the batch insert operation implementation.
+     * @param resourceName Name of the resource to insert the rows.
+     * @return Batch insert operation.
+     */
+    public PostgresBatchInsert batchInsert(String resourceName) {
+        PostgresBatchInsert batchInsert = new PostgresBatchInsert(this);
+        batchInsert.setResourceName(resourceName);
+        return batchInsert;
+    }
+
+    /**
+     * Returns the upsert operation implementation, the existing rows are updated with the values of the new rows.
+     * @param resourceName Name of the resource to write.
+     * @param conflictColumns Columns of the unique constraint used to detect the existing rows.
+     * @return Upsert operation.
+     */
+    public PostgresUpsert upsert(String resourceName, String... conflictColumns) {
+        PostgresUpsert upsert = new PostgresUpsert(this);
+        upsert.setResourceName(resourceName);
+        upsert.setConflictColumns(Arrays.asList(conflictColumns));
+        return upsert;
+    }
+
+    /**
+     * Returns the bulk update operation implementation.
+     * @param resourceName Name of the resource to update.
+     * @param keyColumn Column used to identify each row.
+     * @return Bulk update operation.
+     */
+    public PostgresBulkUpdate bulkUpdate(String resourceName, String keyColumn) {
+        PostgresBulkUpdate bulkUpdate = new PostgresBulkUpdate(this);
+        bulkUpdate.setResourceName(resourceName);
+        bulkUpdate.setKeyColumn(keyColumn);
+        return bulkUpdate;
+    }
+
+    /**
+     * Returns the bulk load operation implementation.
+     * @param resourceName Name of the resource to load the rows.
+     * @return Bulk load operation.
+     */
+    public PostgresCopyIn copyIn(String resourceName) {
+        PostgresCopyIn copyIn = new PostgresCopyIn(this);
+        copyIn.setResourceName(resourceName);
+        return copyIn;
+    }
+
+    /**
+     * Load all the rows into the resource using the copy command.
+     * @param resourceName Name of the resource to load the rows.
+     * @param columns Columns to load, if the value is null then the columns are taken from the first row.
+     * @param rows Rows to load, each row is a map indexed by column name or a bean with a getter for each column.
+     * @param format Data format used to send the rows.
+     * @return Number of loaded rows.
+     * @throws StorageAccessException
+     */
+    public long copyIn(String resourceName, List<String> columns, Iterator<?> rows, CopyFormat format) throws StorageAccessException {
+        PostgresCopyIn copyIn = copyIn(resourceName);
+        copyIn.setColumns(columns);
+        copyIn.setRows(rows);
+        copyIn.setFormat(format);
+        copyIn.execute();
+        return copyIn.getRowCount();
+    }
+
+    private static class MappingPlanCacheHolder {
+        private static final BoundedCache<String, ResultMappingPlan> INSTANCE = new BoundedCache<>(
+                SystemProperties.getInteger(PostgresProperties.Cache.MAPPING_PLAN_SIZE));
+    }
+
+    private static class CodecsCacheHolder {
+        private static final BoundedCache<String, TypeCodec[]> INSTANCE = new BoundedCache<>(
+                SystemProperties.getInteger(PostgresProperties.Cache.CODECS_SIZE));
+    }
+
+    private static class ColumnTypesCacheHolder {
+        private static final BoundedCache<String, List<String>> INSTANCE = new BoundedCache<>(
+                SystemProperties.getInteger(PostgresProperties.Cache.COLUMN_TYPES_SIZE));
+    }
+}
@@ -0,0 +1,363 @@
+package org.hcjf.layers.storage.postgres.actions;
+
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.layers.storage.actions.Insert;
+import org.hcjf.layers.storage.actions.ResultSet;
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.hcjf.layers.storage.postgres.codecs.TypeCodec;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.hcjf.properties.SystemProperties;
+import org.hcjf.utils.Strings;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.*;
+
+/**
+ * Insert implementation that writes many rows of the same resource and the same columns.
+ * The rows are sent in chunks, using jdbc batches or multi-row values statements. If a chunk
+ * fails by a data error or by an integrity constraint violation (sql state classes 22 and 23)
+ * then each row of the chunk is retried alone to report the rows with errors, any other error
+ * fails the execution.
+ * @author Javier Quiroga.
+ */
+public class PostgresBatchInsert extends Insert<PostgresStorageSession> {
+
+    private static final String INSERT_STATEMENT = "INSERT INTO %s (%s) VALUES %s";
+    private static final int MAX_PARAMETERS = 32767;
+    private static final String DATA_EXCEPTION_CLASS = "22";
+    private static final String INTEGRITY_CONSTRAINT_VIOLATION_CLASS = "23";
+
+    private final List<Map<String, Object>> rows;
+    private final List<RowError> errors;
+    private List<String> columns;
+    private Mode mode;
+    private Integer chunkSize;
+    private TypeCodec[] codecs;
+    private List<String> returningColumns;
+    private ReturningRows returningRows;
+
+    public PostgresBatchInsert(PostgresStorageSession session) {
+        super(session);
+        this.rows = new ArrayList<>();
+        this.errors = new ArrayList<>();
+    }
+
+    /**
+     * Add a row to the batch, all the rows must have the same columns.
+     * @param values Values of the row indexed by column name.
+     */
+    public void addRow(Map<String, Object> values) {
+        if(columns == null) {
+            columns = new ArrayList<>(values.keySet());
+        } else if(columns.size() != values.size() || !values.keySet().containsAll(columns)) {
+            throw new IllegalArgumentException("All the rows of the batch must have the columns " + columns);
+        }
+        rows.add(values);
+    }
+
+    /**
+     * Add all the rows to the batch.
+     * @param rows Collection of rows.
+     */
+    public void addRows(Collection<Map<String, Object>> rows) {
+        for(Map<String, Object> row : rows) {
+            addRow(row);
+        }
+    }
+
+    /**
+     * Return the rows of the batch.
+     * @return Rows of the batch.
+     */
+    public List<Map<String, Object>> getRows() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    /**
+     * Return the columns of the batch.
+     * @return Columns of the batch.
+     */
+    public List<String> getColumns() {
+        return columns == null ? Collections.emptyList() : Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * Return the way to send the rows.
+     * @return Batch mode.
+     */
+    public Mode getMode() {
+        return mode == null ? Mode.valueOf(SystemProperties.get(PostgresProperties.Batch.MODE)) : mode;
+    }
+
+    /**
+     * Set the way to send the rows.
+     * @param mode Batch mode.
+     */
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Return the max number of rows sent in each statement or jdbc batch.
+     * @return Chunk size.
+     */
+    public Integer getChunkSize() {
+        return chunkSize == null ? SystemProperties.getInteger(PostgresProperties.Batch.CHUNK_SIZE) : chunkSize;
+    }
+
+    /**
+     * Set the max number of rows sent in each statement or jdbc batch.
+     * @param chunkSize Chunk size.
+     */
+    public void setChunkSize(Integer chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Return the rows rejected by the data base in the last execution.
+     * @return List of row errors.
+     */
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Return the columns returned by the inserted rows.
+     * @return Returned columns, empty list means all the columns and null means that the rows are not returned.
+     */
+    public List<String> getReturningColumns() {
+        return returningColumns;
+    }
+
+    /**
+     * Set the columns returned by the inserted rows, the returned rows are the result of the execution.
+     * The jdbc batches can't return rows, so if the returning columns are set the rows are always sent
+     * with multi-row values statements.
+     * @param returningColumns Returned columns, empty list means all the columns and null means that the rows are not returned.
+     */
+    public void setReturningColumns(List<String> returningColumns) {
+        this.returningColumns = returningColumns;
+    }
+
+    /**
+     * Insert all the rows of the batch. The rows rejected by the data base are not inserted and
+     * they are reported in the list of errors, the other rows are inserted. The errors that are not
+     * produced by the values of the rows (connection, permissions, missing relations) are not reported
+     * as row errors, the execution fails with these errors.
+     * @param params Execution parameters.
+     * @param <R> Expected result set.
+     * @return Result set with the inserted rows if the returning columns are set, in other case null.
+     * @throws StorageAccessException
+     */
+    @Override
+    public <R extends ResultSet> R execute(Object... params) throws StorageAccessException {
+        errors.clear();
+        if(rows.isEmpty()) {
+            return returningColumns == null ? null :
+                    new ReturningRows(getSession(), getResourceName(), getResultType()).getResultSet();
+        }
+
+        try {
+            codecs = new TypeCodec[columns.size()];
+            returningRows = returningColumns == null ? null : new ReturningRows(getSession(), getResourceName(), getResultType());
+            List<Map<String, Object>> rows = prepareRows(this.rows);
+            int chunkSize = Math.max(1, Math.min(getChunkSize(), MAX_PARAMETERS / columns.size()));
+            for (int from = 0; from < rows.size(); from += chunkSize) {
+                int to = Math.min(rows.size(), from + chunkSize);
+                if(!executeChunk(rows, from, to)) {
+                    for (int rowIndex = from; rowIndex < to; rowIndex++) {
+                        executeChunk(rows, rowIndex, rowIndex + 1);
+                    }
+                }
+            }
+            getSession().onWrite(getResourceName());
+            return returningRows == null ? null : returningRows.getResultSet();
+        } catch (Exception ex) {
+            getSession().onError(ex);
+            throw new StorageAccessException(ex);
+        }
+    }
+
+    /**
+     * Return the rows that are written by the execution, the index of the row errors refers to this list.
+     * @param rows Rows of the batch.
+     * @return Rows to write.
+     */
+    protected List<Map<String, Object>> prepareRows(List<Map<String, Object>> rows) {
+        return rows;
+    }
+
+    /**
+     * Creates the insert statement for the columns of the batch and the specific number of rows.
+     * @param rowCount Number of rows of the statement.
+     * @return Insert statement.
+     */
+    protected String buildStatement(int rowCount) {
+        String replaceableValue = SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE);
+        String argumentSeparator = SystemProperties.get(SystemProperties.Query.ReservedWord.ARGUMENT_SEPARATOR);
+        Strings.Builder columnsBuilder = new Strings.Builder();
+        Strings.Builder rowBuilder = new Strings.Builder();
+        for(String column : columns) {
+            columnsBuilder.append(column, Strings.ARGUMENT_SEPARATOR);
+            rowBuilder.append(replaceableValue, Strings.ARGUMENT_SEPARATOR);
+        }
+        String row = Strings.START_GROUP + rowBuilder.toString() + Strings.END_GROUP;
+        StringBuilder valuesBuilder = new StringBuilder();
+        for (int i = 0; i < rowCount; i++) {
+            if(i > 0) {
+                valuesBuilder.append(argumentSeparator);
+            }
+            valuesBuilder.append(row);
+        }
+        return String.format(INSERT_STATEMENT, getResourceName(), columnsBuilder.toString(), valuesBuilder.toString());
+    }
+
+    /**
+     * Executes the rows between the indexes, if the execution fails then the rows are rolled back to
+     * the state previous to the chunk.
+     * @param rows Rows to write.
+     * @param from Index of the first row (inclusive).
+     * @param to Index of the last row (exclusive).
+     * @return True if the chunk was inserted and false if the chunk was rejected by the values of its rows.
+     * @throws Exception If the chunk fails by an error that is not produced by the values of the rows.
+     */
+    private boolean executeChunk(List<Map<String, Object>> rows, int from, int to) throws Exception {
+        Connection connection = getSession().getConnection();
+        Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+        PreparedStatement preparedStatement = null;
+        try {
+            if(getMode().equals(Mode.BATCH) && returningRows == null) {
+                String statement = buildStatement(1);
+                preparedStatement = getSession().prepareStatement(statement);
+                for (int rowIndex = from; rowIndex < to; rowIndex++) {
+                    setRowValues(preparedStatement, 1, rows.get(rowIndex));
+                    preparedStatement.addBatch();
+                }
+                getSession().logStatement(preparedStatement);
+                long startTime = System.nanoTime();
+                preparedStatement.executeBatch();
+                getSession().onExecuted(statement, preparedStatement, System.nanoTime() - startTime);
+            } else {
+                String statement = buildStatement(to - from);
+                if(returningRows != null) {
+                    statement += ReturningRows.clause(getResourceName(), returningColumns);
+                }
+                preparedStatement = getSession().prepareStatement(statement);
+                int index = 1;
+                for (int rowIndex = from; rowIndex < to; rowIndex++) {
+                    index = setRowValues(preparedStatement, index, rows.get(rowIndex));
+                }
+                getSession().logStatement(preparedStatement);
+                if(returningRows == null) {
+                    long startTime = System.nanoTime();
+                    preparedStatement.executeUpdate();
+                    getSession().onExecuted(statement, preparedStatement, System.nanoTime() - startTime);
+                } else {
+                    returningRows.execute(statement, preparedStatement);
+                }
+            }
+            if(savepoint != null) {
+                connection.releaseSavepoint(savepoint);
+            }
+            return true;
+        } catch (SQLException ex) {
+            if(!isRowError(ex)) {
+                throw ex;
+            }
+            if(preparedStatement != null) {
+                preparedStatement.clearBatch();
+            }
+            if(savepoint != null) {
+                connection.rollback(savepoint);
+            }
+            if(to - from == 1) {
+                errors.add(new RowError(from, rows.get(from), ex));
+            }
+            return false;
+        } finally {
+            getSession().releaseStatement(preparedStatement);
+        }
+    }
+
+    /**
+     * Checks if the error was produced by the values of the rows, the first sql state of the chain of
+     * exceptions must be a data exception or an integrity constraint violation.
+     * @param exception Data base error.
+     * @return True if the rows could be retried one by one.
+     */
+    static boolean isRowError(SQLException exception) {
+        String sqlState = null;
+        for(SQLException current = exception; current != null && sqlState == null; current = current.getNextException()) {
+            sqlState = current.getSQLState();
+        }
+        return sqlState != null && (sqlState.startsWith(DATA_EXCEPTION_CLASS) ||
+                sqlState.startsWith(INTEGRITY_CONSTRAINT_VIOLATION_CLASS));
+    }
+
+    private int setRowValues(PreparedStatement preparedStatement, int index, Map<String, Object> row) throws SQLException {
+        for (int position = 0; position < columns.size(); position++) {
+            index = getSession().setValue(preparedStatement, index, row.get(columns.get(position)), codecs, position);
+        }
+        return index;
+    }
+
+    /**
+     * Ways to send the rows to the data base.
+     */
+    public enum Mode {
+
+        /**
+         * One single-row statement added to a jdbc batch for each row.
+         */
+        BATCH,
+
+        /**
+         * One multi-row values statement for each chunk.
+         */
+        VALUES
+
+    }
+
+    /**
+     * Row rejected by the data base.
+     */
+    public static class RowError {
+
+        private final int index;
+        private final Map<String, Object> row;
+        private final SQLException exception;
+
+        public RowError(int index, Map<String, Object> row, SQLException exception) {
+            this.index = index;
+            this.row = row;
+            this.exception = exception;
+        }
+
+        /**
+         * Return the index of the row into the batch.
+         * @return Row index.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Return the values of the row.
+         * @return Row values.
+         */
+        public Map<String, Object> getRow() {
+            return row;
+        }
+
+        /**
+         * Return the error reported by the data base.
+         * @return Data base error.
+         */
+        public SQLException getException() {
+            return exception;
+        }
+    }
+}
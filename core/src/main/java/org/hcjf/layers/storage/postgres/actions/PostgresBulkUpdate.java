@@ -0,0 +1,259 @@
+package org.hcjf.layers.storage.postgres.actions;
+
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.layers.storage.actions.ResultSet;
+import org.hcjf.layers.storage.actions.Update;
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.hcjf.layers.storage.postgres.codecs.TypeCodec;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.hcjf.layers.storage.postgres.values.ArrayValue;
+import org.hcjf.properties.SystemProperties;
+import org.hcjf.utils.Strings;
+
+import java.sql.PreparedStatement;
+import java.util.*;
+
+/**
+ * Update implementation that applies different values to each row identified by a key column.
+ * All the rows of a chunk are updated with a single statement joining the target resource
+ * with a values list.
+ * @author Javier Quiroga.
+ */
+public class PostgresBulkUpdate extends Update<PostgresStorageSession> {
+
+    private static final String UPDATE_STATEMENT = "UPDATE %s SET %s FROM (VALUES %s) AS %s (%s) WHERE %s.%s = %s.%s";
+    private static final String VALUES_ALIAS = "v";
+    private static final String CAST = "CAST(%s AS %s)";
+    private static final int MAX_PARAMETERS = 32767;
+
+    private final Map<Object, Map<String, Object>> rows;
+    private String keyColumn;
+    private List<String> columns;
+    private Integer chunkSize;
+    private long updatedRows;
+    private List<String> returningColumns;
+
+    public PostgresBulkUpdate(PostgresStorageSession session) {
+        super(session);
+        this.rows = new LinkedHashMap<>();
+    }
+
+    /**
+     * Return the column used to identify each row.
+     * @return Key column.
+     */
+    public String getKeyColumn() {
+        return keyColumn;
+    }
+
+    /**
+     * Set the column used to identify each row.
+     * @param keyColumn Key column.
+     */
+    public void setKeyColumn(String keyColumn) {
+        this.keyColumn = keyColumn;
+    }
+
+    /**
+     * Add the values for the row identified by the key, all the rows must have the same columns.
+     * If the key was added before then the previous values are replaced. The rows without values
+     * or with only the key column are rejected because there is nothing to update.
+     * @param key Value of the key column.
+     * @param values Values to update indexed by column name.
+     */
+    public void addRow(Object key, Map<String, Object> values) {
+        if(key == null) {
+            throw new IllegalArgumentException("The key of the row can't be null");
+        }
+        if(values == null || values.isEmpty() || (values.size() == 1 && values.containsKey(keyColumn))) {
+            throw new IllegalArgumentException("The row " + key + " has not values to update");
+        }
+        if(columns == null) {
+            columns = new ArrayList<>(values.keySet());
+        } else if(columns.size() != values.size() || !values.keySet().containsAll(columns)) {
+            throw new IllegalArgumentException("All the rows of the bulk update must have the columns " + columns);
+        }
+        rows.put(key, values);
+    }
+
+    /**
+     * Return the max number of rows updated by each statement.
+     * @return Chunk size.
+     */
+    public Integer getChunkSize() {
+        return chunkSize == null ? SystemProperties.getInteger(PostgresProperties.Batch.CHUNK_SIZE) : chunkSize;
+    }
+
+    /**
+     * Set the max number of rows updated by each statement.
+     * @param chunkSize Chunk size.
+     */
+    public void setChunkSize(Integer chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Return the number of rows updated in the last execution.
+     * @return Number of updated rows.
+     */
+    public long getUpdatedRows() {
+        return updatedRows;
+    }
+
+    /**
+     * Return the columns returned by the update.
+     * @return Returned columns, empty list means all the columns and null means that the rows are not returned.
+     */
+    public List<String> getReturningColumns() {
+        return returningColumns;
+    }
+
+    /**
+     * Set the columns returned by the update, the returned rows are the result of the execution.
+     * @param returningColumns Returned columns, empty list means all the columns and null means that the rows are not returned.
+     */
+    public void setReturningColumns(List<String> returningColumns) {
+        this.returningColumns = returningColumns;
+    }
+
+    /**
+     * Updates all the rows, one statement for each chunk.
+     * @param params Execution parameters.
+     * @param <R> Expected result set.
+     * @return Result set with the updated rows if the returning columns are set, in other case null.
+     * @throws StorageAccessException
+     */
+    @Override
+    public <R extends ResultSet> R execute(Object... params) throws StorageAccessException {
+        updatedRows = 0;
+        if(keyColumn == null) {
+            throw new StorageAccessException("Bulk update key column not found");
+        }
+        if(columns != null && columns.contains(keyColumn)) {
+            throw new StorageAccessException("The key column can't be updated by the bulk update");
+        }
+        if(rows.isEmpty()) {
+            return returningColumns == null ? null :
+                    new ReturningRows(getSession(), getResourceName(), getResultType()).getResultSet();
+        }
+
+        PreparedStatement preparedStatement = null;
+        try {
+            List<String> valueColumns = new ArrayList<>();
+            valueColumns.add(keyColumn);
+            valueColumns.addAll(columns);
+            List<String> types = getSession().getColumnTypes(getResourceName(), valueColumns);
+
+            int chunkSize = Math.max(1, Math.min(getChunkSize(), MAX_PARAMETERS / valueColumns.size()));
+            TypeCodec[] codecs = new TypeCodec[valueColumns.size()];
+            ReturningRows returningRows = returningColumns == null ? null :
+                    new ReturningRows(getSession(), getResourceName(), getResultType());
+            List<Map.Entry<Object, Map<String, Object>>> entries = new ArrayList<>(rows.entrySet());
+            for (int from = 0; from < entries.size(); from += chunkSize) {
+                int to = Math.min(entries.size(), from + chunkSize);
+                String statement = buildStatement(types, to - from);
+                if(returningRows != null) {
+                    statement += ReturningRows.clause(getResourceName(), returningColumns);
+                }
+                preparedStatement = getSession().prepareStatement(statement);
+                int index = 1;
+                for (int rowIndex = from; rowIndex < to; rowIndex++) {
+                    Map.Entry<Object, Map<String, Object>> entry = entries.get(rowIndex);
+                    index = getSession().setValue(preparedStatement, index,
+                            toParameter(entry.getKey(), types.get(0)), codecs, 0);
+                    for (int position = 0; position < columns.size(); position++) {
+                        index = getSession().setValue(preparedStatement, index,
+                                toParameter(entry.getValue().get(columns.get(position)), types.get(position + 1)),
+                                codecs, position + 1);
+                    }
+                }
+                getSession().logStatement(preparedStatement);
+                if(returningRows == null) {
+                    long startTime = System.nanoTime();
+                    updatedRows += preparedStatement.executeUpdate();
+                    getSession().onExecuted(statement, preparedStatement, System.nanoTime() - startTime);
+                } else {
+                    updatedRows += returningRows.execute(statement, preparedStatement);
+                }
+                getSession().releaseStatement(preparedStatement);
+                preparedStatement = null;
+            }
+            getSession().onWrite(getResourceName());
+            return returningRows == null ? null : returningRows.getResultSet();
+        } catch (Exception ex) {
+            getSession().onError(ex);
+            throw new StorageAccessException(ex);
+        } finally {
+            getSession().releaseStatement(preparedStatement);
+        }
+    }
+
+    /**
+     * Each row of the values list has one parameter for each column, then the collections are bound as
+     * a single array parameter using the element type of the target column.
+     * @param value Value of the column.
+     * @param type Type name of the column.
+     * @return Value to bind.
+     */
+    private Object toParameter(Object value, String type) {
+        Object result = value;
+        if(value instanceof Collection) {
+            result = type.startsWith("_") ? new ArrayValue((Collection<?>) value, type.substring(1)) :
+                    getSession().createArrayValue((Collection<?>) value);
+        }
+        return result;
+    }
+
+    /**
+     * Creates the update statement for the specific number of rows. Each value is casted to the
+     * type of the target column, in other case the server infers the type of the values list as text.
+     * @param types Type of the key column and the other columns.
+     * @param rowCount Number of rows.
+     * @return Update statement.
+     */
+    protected String buildStatement(List<String> types, int rowCount) {
+        String argumentSeparator = SystemProperties.get(SystemProperties.Query.ReservedWord.ARGUMENT_SEPARATOR);
+        String replaceableValue = SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE);
+
+        Strings.Builder setBuilder = new Strings.Builder();
+        Strings.Builder aliasBuilder = new Strings.Builder();
+        aliasBuilder.append(keyColumn, Strings.ARGUMENT_SEPARATOR);
+        for(String column : columns) {
+            setBuilder.append(column + Strings.WHITE_SPACE + Strings.ASSIGNATION + Strings.WHITE_SPACE +
+                    VALUES_ALIAS + Strings.CLASS_SEPARATOR + column, Strings.ARGUMENT_SEPARATOR);
+            aliasBuilder.append(column, Strings.ARGUMENT_SEPARATOR);
+        }
+
+        Strings.Builder rowBuilder = new Strings.Builder();
+        for(String type : types) {
+            rowBuilder.append(String.format(CAST, replaceableValue, castType(type)), Strings.ARGUMENT_SEPARATOR);
+        }
+        String row = Strings.START_GROUP + rowBuilder.toString() + Strings.END_GROUP;
+        StringBuilder valuesBuilder = new StringBuilder();
+        for (int i = 0; i < rowCount; i++) {
+            if(i > 0) {
+                valuesBuilder.append(argumentSeparator);
+            }
+            valuesBuilder.append(row);
+        }
+
+        return String.format(UPDATE_STATEMENT, getResourceName(), setBuilder.toString(), valuesBuilder.toString(),
+                VALUES_ALIAS, aliasBuilder.toString(), getResourceName(), keyColumn, VALUES_ALIAS, keyColumn);
+    }
+
+    /**
+     * Translates the type name reported by the metadata to a name that can be used into a cast.
+     * @param typeName Type name from metadata.
+     * @return Type name for cast.
+     */
+    private String castType(String typeName) {
+        String result;
+        switch (typeName) {
+            case "serial": result = "int4"; break;
+            case "bigserial": result = "int8"; break;
+            case "smallserial": result = "int2"; break;
+            default: result = typeName.startsWith("_") ? typeName.substring(1) + "[]" : typeName;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,182 @@
+package org.hcjf.layers.storage.postgres.actions;
+
+import org.hcjf.errors.Errors;
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.layers.storage.actions.Insert;
+import org.hcjf.layers.storage.actions.ResultSet;
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.hcjf.layers.storage.postgres.copy.CopyBuffer;
+import org.hcjf.layers.storage.postgres.copy.CopyEncoder;
+import org.hcjf.layers.storage.postgres.copy.CopyFormat;
+import org.hcjf.layers.storage.postgres.errors.PostgressErrors;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.hcjf.log.Log;
+import org.hcjf.properties.SystemProperties;
+import org.hcjf.utils.Introspection;
+import org.hcjf.utils.Strings;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Bulk load implementation using the copy command. The rows are encoded incrementally into a
+ * reusable buffer that is sent to the data base each time that it reach the configured size, so
+ * the complete payload never is in memory.
+ * @author Javier Quiroga.
+ */
+public class PostgresCopyIn extends Insert<PostgresStorageSession> {
+
+    private static final String COPY_STATEMENT = "COPY %s (%s) FROM STDIN WITH (FORMAT %s)";
+
+    private List<String> columns;
+    private Iterator<?> rows;
+    private CopyFormat format;
+    private long rowCount;
+
+    public PostgresCopyIn(PostgresStorageSession session) {
+        super(session);
+        this.format = CopyFormat.TEXT;
+    }
+
+    /**
+     * Return the columns to load, if the columns are not specified then the columns are
+     * taken from the first row.
+     * @return Columns to load.
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Set the columns to load.
+     * @param columns Columns to load.
+     */
+    public void setColumns(List<String> columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Set the rows to load, each row is a map indexed by column name or a bean with a getter for each column.
+     * @param rows Iterator of rows.
+     */
+    public void setRows(Iterator<?> rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * Set the rows to load, each row is a map indexed by column name or a bean with a getter for each column.
+     * @param rows Stream of rows.
+     */
+    public void setRows(Stream<?> rows) {
+        this.rows = rows.iterator();
+    }
+
+    /**
+     * Return the data format used to send the rows.
+     * @return Copy format.
+     */
+    public CopyFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Set the data format used to send the rows.
+     * @param format Copy format.
+     */
+    public void setFormat(CopyFormat format) {
+        this.format = format;
+    }
+
+    /**
+     * Return the number of rows loaded in the last execution.
+     * @return Number of rows.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Sends all the rows using the copy command.
+     * @param params Execution parameters.
+     * @param <R> Expected result set.
+     * @return null
+     * @throws StorageAccessException
+     */
+    @Override
+    public <R extends ResultSet> R execute(Object... params) throws StorageAccessException {
+        rowCount = 0;
+        if(rows == null || !rows.hasNext()) {
+            return null;
+        }
+
+        CopyIn copyIn = null;
+        try {
+            Object firstRow = rows.next();
+            if(columns == null) {
+                columns = new ArrayList<>(firstRow instanceof Map ?
+                        ((Map<String, Object>) firstRow).keySet() : Introspection.getGetters(firstRow.getClass()).keySet());
+            }
+
+            CopyEncoder encoder = CopyEncoder.create(format, format.equals(CopyFormat.BINARY) ?
+                    getSession().getColumnTypes(getResourceName(), columns) : null);
+            int bufferSize = SystemProperties.getInteger(PostgresProperties.Copy.BUFFER_SIZE);
+            CopyBuffer buffer = new CopyBuffer(bufferSize);
+            Map<Class, Map<String, Introspection.Getter>> getters = new HashMap<>();
+            Object[] values = new Object[columns.size()];
+
+            String statement = String.format(COPY_STATEMENT, getResourceName(),
+                    String.join(Strings.ARGUMENT_SEPARATOR, columns), format.getOption());
+            getSession().logStatement(statement);
+            long startTime = System.nanoTime();
+            copyIn = getSession().getConnection().unwrap(PGConnection.class).getCopyAPI().copyIn(statement);
+
+            encoder.writeHeader(buffer);
+            Object row = firstRow;
+            while(row != null) {
+                setRowValues(values, row, getters);
+                encoder.writeRow(buffer, values);
+                if(buffer.size() >= bufferSize) {
+                    copyIn.writeToCopy(buffer.array(), 0, buffer.size());
+                    buffer.reset();
+                }
+                row = rows.hasNext() ? rows.next() : null;
+            }
+            encoder.writeTrailer(buffer);
+            if(buffer.size() > 0) {
+                copyIn.writeToCopy(buffer.array(), 0, buffer.size());
+            }
+            rowCount = copyIn.endCopy();
+            //The time includes the encoding of the rows, the copy statement has not bind values to explain
+            getSession().onExecuted(statement, null, System.nanoTime() - startTime);
+            getSession().onWrite(getResourceName());
+            return null;
+        } catch (Exception ex) {
+            if(copyIn != null && copyIn.isActive()) {
+                try {
+                    copyIn.cancelCopy();
+                } catch (Exception cancelException) {
+                    Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                            Errors.getMessage(PostgressErrors.UNABLE_TO_CANCEL_COPY), cancelException);
+                }
+            }
+            getSession().onError(ex);
+            throw new StorageAccessException(ex);
+        }
+    }
+
+    private void setRowValues(Object[] values, Object row, Map<Class, Map<String, Introspection.Getter>> getters) throws Exception {
+        if(row instanceof Map) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = ((Map) row).get(columns.get(i));
+            }
+        } else {
+            Map<String, Introspection.Getter> rowGetters = getters.computeIfAbsent(row.getClass(), Introspection::getGetters);
+            for (int i = 0; i < values.length; i++) {
+                Introspection.Getter getter = rowGetters.get(columns.get(i));
+                values[i] = getter == null ? null : getter.get(row);
+            }
+        }
+    }
+}
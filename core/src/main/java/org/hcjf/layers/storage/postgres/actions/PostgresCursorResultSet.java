@@ -0,0 +1,220 @@
+package org.hcjf.layers.storage.postgres.actions;
+
+import org.hcjf.errors.Errors;
+import org.hcjf.layers.query.Query;
+import org.hcjf.layers.storage.actions.CollectionResultSet;
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.hcjf.layers.storage.postgres.errors.PostgressErrors;
+import org.hcjf.layers.storage.postgres.mapping.ResultMappingPlan;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.hcjf.log.Log;
+import org.hcjf.properties.SystemProperties;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Result set backed by an open postgres cursor. The rows are fetched in blocks of the
+ * statement fetch size and mapped only when the iterator reach them, so the memory used
+ * not depends of the number of rows. The cursor is released when the iteration finish,
+ * when the result set is closed or when the session is closed. Postgres only keeps a cursor
+ * open inside a transaction, so if the connection is in autocommit mode the autocommit is
+ * disabled while the cursor is open and restored when the cursor is released.
+ * The size of the result set is unknown until the end of the rows, if the size is required
+ * before the end of the iteration then the rest of the rows are read and kept into memory.
+ * @author Javier Quiroga.
+ */
+public class PostgresCursorResultSet extends CollectionResultSet implements Closeable {
+
+    private final Cursor cursor;
+
+    private PostgresCursorResultSet(Cursor cursor) {
+        super(cursor);
+        this.cursor = cursor;
+    }
+
+    /**
+     * Creates a result set over the open postgres result set and register the cursor into the
+     * session. Since this moment the statement is owned by the result set.
+     * @param session Session that owns the connection of the cursor.
+     * @param query Query instance that was evaluated for postgres engine.
+     * @param statement Executed statement.
+     * @param sqlResultSet Open postgres result set.
+     * @param plan Mapping plan for the postgres result set.
+     * @param restoreAutoCommit If true the autocommit of the connection is enabled again when the cursor is released.
+     * @return Cursor result set.
+     */
+    public static PostgresCursorResultSet open(PostgresStorageSession session, Query query,
+                                               PreparedStatement statement, java.sql.ResultSet sqlResultSet,
+                                               ResultMappingPlan plan, boolean restoreAutoCommit) {
+        Cursor cursor = new Cursor(session, query, statement, sqlResultSet, plan, restoreAutoCommit);
+        session.registerCursor(cursor);
+        return new PostgresCursorResultSet(cursor);
+    }
+
+    /**
+     * Return true if the cursor was released.
+     * @return Closed flag.
+     */
+    public boolean isClosed() {
+        return cursor.closed;
+    }
+
+    /**
+     * Release the postgres cursor and return the statement to the session.
+     */
+    @Override
+    public void close() {
+        cursor.close();
+    }
+
+    /**
+     * Lazy collection over the postgres result set, only one iteration is allowed unless the rows
+     * were read into memory before the iteration.
+     */
+    private static class Cursor extends AbstractCollection<Object> implements Closeable {
+
+        private final PostgresStorageSession session;
+        private final Query query;
+        private final PreparedStatement statement;
+        private final java.sql.ResultSet sqlResultSet;
+        private final ResultMappingPlan plan;
+        private final boolean restoreAutoCommit;
+        private final Queue<Object> pending;
+        private List<Object> rows;
+        private int count;
+        private boolean iterated;
+        private boolean closed;
+
+        private Cursor(PostgresStorageSession session, Query query, PreparedStatement statement,
+                       java.sql.ResultSet sqlResultSet, ResultMappingPlan plan, boolean restoreAutoCommit) {
+            this.session = session;
+            this.query = query;
+            this.statement = statement;
+            this.sqlResultSet = sqlResultSet;
+            this.plan = plan;
+            this.restoreAutoCommit = restoreAutoCommit;
+            this.pending = new LinkedList<>();
+        }
+
+        @Override
+        public synchronized Iterator<Object> iterator() {
+            Iterator<Object> result;
+            if(rows != null) {
+                //All the rows were read before the iteration
+                result = Collections.unmodifiableList(rows).iterator();
+            } else {
+                if (iterated) {
+                    throw new IllegalStateException("The cursor result set can be iterated only once");
+                }
+                iterated = true;
+                result = new Iterator<Object>() {
+
+                    @Override
+                    public boolean hasNext() {
+                        synchronized (Cursor.this) {
+                            return !pending.isEmpty() || fetch();
+                        }
+                    }
+
+                    @Override
+                    public Object next() {
+                        synchronized (Cursor.this) {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            return pending.poll();
+                        }
+                    }
+                };
+            }
+            return result;
+        }
+
+        /**
+         * Return the number of rows of the cursor, if the end of the rows was not reached then the
+         * rest of the rows are read and kept into memory until they are iterated.
+         * @return Number of rows.
+         */
+        @Override
+        public synchronized int size() {
+            while(fetch());
+            if(!iterated && rows == null) {
+                rows = new ArrayList<>(pending);
+                pending.clear();
+            }
+            return count;
+        }
+
+        /**
+         * Checks if the cursor has some row reading at most one row.
+         * @return True if the cursor has not rows.
+         */
+        @Override
+        public synchronized boolean isEmpty() {
+            return count == 0 && !fetch();
+        }
+
+        /**
+         * Reads and maps the next row of the postgres result set, the row is added to the pending rows.
+         * @return False if there are not more rows.
+         */
+        private boolean fetch() {
+            boolean result = false;
+            if(!closed) {
+                try {
+                    result = sqlResultSet.next();
+                    if(result) {
+                        pending.add(session.mapRow(plan, query, sqlResultSet));
+                        count++;
+                    }
+                } catch (Exception ex) {
+                    session.onError(ex);
+                    close();
+                    throw new IllegalStateException(ex);
+                }
+                if(!result) {
+                    close();
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public synchronized void close() {
+            if(!closed) {
+                closed = true;
+                try {
+                    sqlResultSet.close();
+                    statement.setFetchSize(0);
+                } catch (SQLException ex) {
+                    Log.d(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                            "Unable to close cursor", ex);
+                }
+                session.releaseStatement(statement);
+                if(restoreAutoCommit) {
+                    restoreAutoCommit();
+                }
+                session.unregisterCursor(this);
+            }
+        }
+
+        /**
+         * Ends the transaction opened for the cursor and enables the autocommit again, the writes
+         * executed by the session while the cursor was open are committed as in autocommit mode.
+         */
+        private void restoreAutoCommit() {
+            Connection connection = session.getConnection();
+            try {
+                connection.setAutoCommit(true);
+                session.onCommit();
+            } catch (SQLException ex) {
+                Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                        Errors.getMessage(PostgressErrors.UNABLE_TO_COMMIT), ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.hcjf.layers.storage.postgres.actions;
+
+import org.hcjf.errors.Errors;
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.layers.storage.actions.Delete;
+import org.hcjf.layers.storage.actions.ResultSet;
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.hcjf.layers.storage.postgres.errors.PostgressErrors;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.hcjf.properties.SystemProperties;
+import org.hcjf.utils.Strings;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Delete implementation for postgres database, optionally the deleted rows are returned.
+ * @author Javier Quiroga.
+ */
+public class PostgresDelete extends Delete<PostgresStorageSession> {
+
+    private static final String DELETE_STATEMENT = "DELETE FROM %s WHERE %s%s";
+    private static final String ANY_CONDITION = "%s = ANY(%s)";
+
+    private String keyColumn;
+    private List<Object> keys;
+    private Integer chunkSize;
+    private long deletedRows;
+    private List<String> returningColumns;
+
+    public PostgresDelete(PostgresStorageSession session) {
+        super(session);
+    }
+
+    /**
+     * Enables the bulk mode, in this mode the rows with the keys are deleted in chunks and each
+     * chunk is committed in a different transaction. If there are a query then its conditions are
+     * added to the key condition. The bulk mode is refused if the session transaction has uncommitted
+     * writes, because the commit of the first chunk would commit them too.
+     * @param keyColumn Column used to identify the rows.
+     * @param keys Keys of the rows to delete.
+     */
+    public void setKeys(String keyColumn, Collection<?> keys) {
+        this.keyColumn = keyColumn;
+        this.keys = new ArrayList<>(keys);
+    }
+
+    /**
+     * Return the max number of keys deleted by each statement in the bulk mode.
+     * @return Chunk size.
+     */
+    public Integer getChunkSize() {
+        return chunkSize == null ? SystemProperties.getInteger(PostgresProperties.Delete.CHUNK_SIZE) : chunkSize;
+    }
+
+    /**
+     * Set the max number of keys deleted by each statement in the bulk mode.
+     * @param chunkSize Chunk size.
+     */
+    public void setChunkSize(Integer chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Return the number of rows deleted in the last execution. In the bulk mode the chunks are committed
+     * one by one, so if the execution fails this is the number of rows deleted by the committed chunks.
+     * @return Number of deleted rows.
+     */
+    public long getDeletedRows() {
+        return deletedRows;
+    }
+
+    /**
+     * Return the columns returned by the delete.
+     * @return Returned columns, empty list means all the columns and null means that the rows are not returned.
+     */
+    public List<String> getReturningColumns() {
+        return returningColumns;
+    }
+
+    /**
+     * Set the columns returned by the delete, the returned rows are the result of the execution.
+     * @param returningColumns Returned columns, empty list means all the columns and null means that the rows are not returned.
+     */
+    public void setReturningColumns(List<String> returningColumns) {
+        this.returningColumns = returningColumns;
+    }
+
+    /**
+     * Builds and executes the delete sentence. The 'where' part is build from specified query, in
+     * the bulk mode the key condition is added and the delete is not atomic: if some chunk fails then
+     * only its own transaction is rolled back and the rows of the previous chunks stay deleted.
+     * @param params Query parameters
+     * @param <R> Expected result set.
+     * @return Result set with the deleted rows if the returning columns are set, in other case null.
+     * @throws StorageAccessException StorageAccessException
+     */
+    @Override
+    public <R extends ResultSet> R execute(Object... params) throws StorageAccessException {
+        deletedRows = 0;
+        PreparedStatement preparedStatement = null;
+        try {
+            String resourceName = getResourceName();
+            if(resourceName == null && getQuery() != null) {
+                resourceName = getQuery().getResourceName();
+            }
+            boolean conditions = getQuery() != null && getQuery().getEvaluators().size() > 0;
+            if(keyColumn == null && !conditions) {
+                throw new StorageAccessException("Delete query conditions not found");
+            }
+
+            //Creates the conditions body of the delete operation.
+            StringBuilder whereBuilder = new StringBuilder();
+            if(keyColumn != null) {
+                whereBuilder.append(String.format(ANY_CONDITION, keyColumn,
+                        SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE)));
+                if(conditions) {
+                    whereBuilder.append(Strings.WHITE_SPACE).append(SystemProperties.get(SystemProperties.Query.ReservedWord.AND));
+                    whereBuilder.append(Strings.WHITE_SPACE).append(Strings.START_GROUP);
+                    whereBuilder = getSession().processEvaluators(whereBuilder, getQuery());
+                    whereBuilder.append(Strings.END_GROUP);
+                }
+            } else {
+                whereBuilder = getSession().processEvaluators(whereBuilder, getQuery());
+            }
+
+            //Creates statement string
+            String statement = String.format(DELETE_STATEMENT, resourceName, whereBuilder.toString(),
+                    returningColumns == null ? Strings.EMPTY_STRING : ReturningRows.clause(resourceName, returningColumns));
+            ReturningRows returningRows = returningColumns == null ? null :
+                    new ReturningRows(getSession(), resourceName, getResultType());
+
+            if(keyColumn == null) {
+                preparedStatement = getSession().prepareStatement(statement);
+                preparedStatement = getSession().setValues(preparedStatement, getQuery(), 1, params);
+                getSession().logStatement(preparedStatement);
+                deletedRows = returningRows == null ? executeUpdate(statement, preparedStatement) :
+                        returningRows.execute(statement, preparedStatement);
+                getSession().onWrite(resourceName);
+            } else {
+                boolean autoCommit = getSession().getConnection().getAutoCommit();
+                if(!autoCommit && getSession().hasPendingWrites()) {
+                    throw new StorageAccessException(Errors.getMessage(PostgressErrors.BULK_DELETE_PENDING_WRITES));
+                }
+                int chunkSize = Math.max(1, getChunkSize());
+                for (int from = 0; from < keys.size(); from += chunkSize) {
+                    preparedStatement = getSession().prepareStatement(statement);
+                    preparedStatement.setArray(1, getSession().createArray(keys.subList(from, Math.min(keys.size(), from + chunkSize))));
+                    if(conditions) {
+                        preparedStatement = getSession().setValues(preparedStatement, getQuery(), 2, params);
+                    }
+                    getSession().logStatement(preparedStatement);
+                    deletedRows += returningRows == null ? executeUpdate(statement, preparedStatement) :
+                            returningRows.execute(statement, preparedStatement);
+                    getSession().releaseStatement(preparedStatement);
+                    preparedStatement = null;
+                    getSession().onWrite(resourceName);
+                    if(!autoCommit) {
+                        getSession().getConnection().commit();
+                        getSession().onCommit();
+                    }
+                }
+            }
+            return returningRows == null ? null : returningRows.getResultSet();
+        } catch (StorageAccessException ex) {
+            getSession().onError(ex);
+            throw ex;
+        } catch (Exception ex) {
+            getSession().onError(ex);
+            throw new StorageAccessException(ex);
+        } finally {
+            getSession().releaseStatement(preparedStatement);
+        }
+    }
+
+    private int executeUpdate(String statement, PreparedStatement preparedStatement) throws SQLException {
+        long startTime = System.nanoTime();
+        int result = preparedStatement.executeUpdate();
+        getSession().onExecuted(statement, preparedStatement, System.nanoTime() - startTime);
+        return result;
+    }
+}
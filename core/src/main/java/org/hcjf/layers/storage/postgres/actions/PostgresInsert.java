@@ -0,0 +1,99 @@
+package org.hcjf.layers.storage.postgres.actions;
+
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.layers.storage.actions.Insert;
+import org.hcjf.layers.storage.actions.ResultSet;
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.hcjf.layers.storage.postgres.metrics.Metric;
+import org.hcjf.layers.storage.postgres.metrics.Metrics;
+import org.hcjf.layers.storage.values.StorageValue;
+import org.hcjf.properties.SystemProperties;
+import org.hcjf.utils.Strings;
+
+import java.sql.PreparedStatement;
+import java.util.*;
+
+/**
+ * Insert implementation for postgres database, optionally the inserted row is returned.
+ * @author Javier Quiroga.
+ */
+public class PostgresInsert extends Insert<PostgresStorageSession> {
+
+    private static final String INSERT_STATEMENT = "INSERT INTO %s (%s) VALUES (%s)%s;";
+
+    private List<String> returningColumns;
+
+    public PostgresInsert(PostgresStorageSession session) {
+        super(session);
+    }
+
+    /**
+     * Return the columns returned by the insert.
+     * @return Returned columns, empty list means all the columns and null means that the rows are not returned.
+     */
+    public List<String> getReturningColumns() {
+        return returningColumns;
+    }
+
+    /**
+     * Set the columns returned by the insert, the returned rows are the result of the execution.
+     * @param returningColumns Returned columns, empty list means all the columns and null means that the rows are not returned.
+     */
+    public void setReturningColumns(List<String> returningColumns) {
+        this.returningColumns = returningColumns;
+    }
+
+    /**
+     * Builds and executes the insert sentence.
+     * @param params Execution parameters.
+     * @param <R> Expected result set.
+     * @return Result set with the inserted row if the returning columns are set, in other case null.
+     * @throws StorageAccessException
+     */
+    @Override
+    public <R extends ResultSet> R execute(Object... params) throws StorageAccessException {
+
+        PreparedStatement preparedStatement = null;
+        try {
+            long startTime = Metrics.start();
+            Strings.Builder valuesBuilder = new Strings.Builder();
+            Strings.Builder valuePlacesBuilder = new Strings.Builder();
+            List<Object> values = new ArrayList<>();
+
+            Map<String, StorageValue> storageValues = getValues();
+            for (String storageValueName : storageValues.keySet()) {
+                valuesBuilder.append(storageValueName, Strings.ARGUMENT_SEPARATOR);
+                valuePlacesBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE), Strings.ARGUMENT_SEPARATOR);
+                values.add(storageValues.get(storageValueName).getValue());
+            }
+
+            String statement = String.format(INSERT_STATEMENT, getResourceName(), valuesBuilder.toString(), valuePlacesBuilder.toString(),
+                    returningColumns == null ? Strings.EMPTY_STRING : ReturningRows.clause(getResourceName(), returningColumns));
+            Metrics.stop(statement, Metric.BUILD_TIME, startTime);
+            preparedStatement = getSession().prepareStatement(statement);
+            getSession().setValues(preparedStatement, values, getSession().getCodecs(statement, values.size()), 1);
+
+            getSession().logStatement(preparedStatement);
+            R resultSet = null;
+            int rows;
+            if(returningColumns == null) {
+                startTime = System.nanoTime();
+                rows = preparedStatement.executeUpdate();
+                getSession().onExecuted(statement, preparedStatement, System.nanoTime() - startTime);
+            } else {
+                ReturningRows returningRows = new ReturningRows(getSession(), getResourceName(), getResultType());
+                rows = returningRows.execute(statement, preparedStatement);
+                resultSet = returningRows.getResultSet();
+            }
+            Metrics.record(statement, Metric.ROWS, rows);
+            getSession().onWrite(getResourceName());
+            return resultSet;
+        }
+        catch (Exception ex) {
+            getSession().onError(ex);
+            throw new StorageAccessException(ex);
+        } finally {
+            getSession().releaseStatement(preparedStatement);
+        }
+    }
+}
\ No newline at end of file
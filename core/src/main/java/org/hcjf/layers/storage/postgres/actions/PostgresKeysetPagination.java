@@ -0,0 +1,437 @@
+package org.hcjf.layers.storage.postgres.actions;
+
+import org.hcjf.layers.query.Query;
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.layers.storage.actions.ResultSet;
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.hcjf.layers.storage.postgres.cache.QueryFingerprint;
+import org.hcjf.properties.SystemProperties;
+import org.hcjf.utils.Strings;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Pages the results of a query using the values of the order fields of the last row of each page (keyset
+ * pagination) instead of offsets, so each page costs an index seek regardless of its depth. The order fields
+ * must be returned by the query, must be not null and together they must identify the row (the last order field
+ * should be a unique key). If all the order fields have the same direction the continuation condition is a row
+ * comparison, (k1, k2) &gt; (?, ?), in other case the condition is expanded as
+ * k1 &gt; ? OR (k1 = ? AND k2 &lt; ?). The position between requests is represented by an opaque continuation token.
+ * @author Javier Quiroga.
+ */
+public class PostgresKeysetPagination implements Iterable<ResultSet> {
+
+    private static final byte TOKEN_VERSION = 1;
+    private static final String KEYSET_FINGERPRINT = "keyset";
+
+    private final PostgresStorageSession session;
+    private final Query query;
+    private final int pageSize;
+    private final List<String> keyColumns;
+    private final List<String> keyFields;
+    private final boolean[] descending;
+    private Class resultType;
+    private Object[] params;
+
+    public PostgresKeysetPagination(PostgresStorageSession session, Query query, int pageSize) {
+        if(query.getOrderParameters() == null || query.getOrderParameters().isEmpty()) {
+            throw new IllegalArgumentException("Keyset pagination needs the order fields of the query");
+        }
+        if(pageSize <= 0) {
+            throw new IllegalArgumentException("The page size must be greater than zero");
+        }
+        this.session = session;
+        this.query = query;
+        this.pageSize = pageSize;
+        this.keyColumns = new ArrayList<>();
+        this.keyFields = new ArrayList<>();
+        this.descending = new boolean[query.getOrderParameters().size()];
+        int index = 0;
+        for(Query.QueryOrderParameter orderParameter : query.getOrderParameters()) {
+            Query.QueryComponent normalizedParameter = session.normalizeApplicationToDataSource(orderParameter);
+            keyFields.add(normalizedParameter.toString());
+            keyColumns.add(normalizedParameter instanceof Query.QueryParameter ?
+                    ((Query.QueryParameter) normalizedParameter).getFieldName() : orderParameter.getFieldName());
+            descending[index++] = orderParameter.isDesc();
+        }
+        this.params = new Object[0];
+    }
+
+    /**
+     * Return the result type of the pages.
+     * @return Result type, null for map result sets.
+     */
+    public Class getResultType() {
+        return resultType;
+    }
+
+    /**
+     * Set the result type of the pages.
+     * @param resultType Result type, null for map result sets.
+     */
+    public void setResultType(Class resultType) {
+        this.resultType = resultType;
+    }
+
+    /**
+     * Set the parameters of the query.
+     * @param params Query parameters.
+     */
+    public void setParams(Object... params) {
+        this.params = params;
+    }
+
+    /**
+     * Return the number of rows of each page.
+     * @return Page size.
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Returns the first page.
+     * @return First page.
+     * @throws StorageAccessException
+     */
+    public Page first() throws StorageAccessException {
+        return fetch(null);
+    }
+
+    /**
+     * Returns the page that follows the position of the continuation token.
+     * @param continuationToken Token returned with the previous page, null for the first page.
+     * @return Page of results.
+     * @throws StorageAccessException
+     */
+    public Page next(String continuationToken) throws StorageAccessException {
+        return fetch(continuationToken == null ? null : decode(continuationToken));
+    }
+
+    /**
+     * Return an iterator over all the pages of the query.
+     * @return Pages iterator.
+     */
+    @Override
+    public Iterator<ResultSet> iterator() {
+        return new Iterator<ResultSet>() {
+
+            private Page page;
+            private boolean finished;
+
+            @Override
+            public boolean hasNext() {
+                if(page == null && !finished) {
+                    page = fetchPage(null);
+                }
+                return page != null;
+            }
+
+            @Override
+            public ResultSet next() {
+                if(!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Page result = page;
+                page = null;
+                if(result.isLast()) {
+                    finished = true;
+                } else {
+                    page = fetchPage(result.lastKey);
+                }
+                return result.getResultSet();
+            }
+
+            private Page fetchPage(Object[] lastKey) {
+                try {
+                    return fetch(lastKey);
+                } catch (StorageAccessException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        };
+    }
+
+    private Page fetch(Object[] lastKey) throws StorageAccessException {
+        PreparedStatement preparedStatement = null;
+        try {
+            String fingerprint = QueryFingerprint.of(session, query) + Strings.ARGUMENT_SEPARATOR +
+                    KEYSET_FINGERPRINT + Strings.ARGUMENT_SEPARATOR + pageSize + Strings.ARGUMENT_SEPARATOR + (lastKey != null);
+            String statement = PostgresSelect.getStatementCache().get(fingerprint, key ->
+                    new PostgresSelect(session).buildStatement(query, lastKey == null ? null : buildCondition(), pageSize));
+
+            preparedStatement = session.prepareStatement(statement);
+            int index = 1;
+            for(Object value : session.collectValues(new ArrayList<>(), query, params)) {
+                index = session.setValue(preparedStatement, index, value);
+            }
+            if(lastKey != null) {
+                for(Object value : getConditionValues(lastKey)) {
+                    index = session.setValue(preparedStatement, index, value);
+                }
+            }
+            session.logStatement(preparedStatement);
+
+            Object[] rowKey = new Object[keyColumns.size()];
+            int[] rows = new int[1];
+            long startTime = System.nanoTime();
+            try (java.sql.ResultSet sqlResultSet = preparedStatement.executeQuery()) {
+                session.onExecuted(statement, preparedStatement, System.nanoTime() - startTime);
+                ResultSet resultSet = session.createResultSet(statement, query, sqlResultSet, resultType, row -> {
+                    for (int i = 0; i < rowKey.length; i++) {
+                        rowKey[i] = row.getObject(keyColumns.get(i));
+                    }
+                    rows[0]++;
+                });
+                return new Page(resultSet, rows[0] < pageSize ? null : rowKey);
+            }
+        } catch (Exception ex) {
+            session.onError(ex);
+            throw new StorageAccessException(ex);
+        } finally {
+            session.releaseStatement(preparedStatement);
+        }
+    }
+
+    /**
+     * Creates the condition to continue after the last row.
+     * @return Sql condition.
+     */
+    private String buildCondition() {
+        String replaceableValue = SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE);
+        String argumentSeparator = SystemProperties.get(SystemProperties.Query.ReservedWord.ARGUMENT_SEPARATOR);
+        StringBuilder result = new StringBuilder();
+        if(isUniformDirection()) {
+            StringBuilder valuesBuilder = new StringBuilder();
+            result.append(Strings.START_GROUP);
+            for (int i = 0; i < keyFields.size(); i++) {
+                if(i > 0) {
+                    result.append(argumentSeparator).append(Strings.WHITE_SPACE);
+                    valuesBuilder.append(argumentSeparator).append(Strings.WHITE_SPACE);
+                }
+                result.append(keyFields.get(i));
+                valuesBuilder.append(replaceableValue);
+            }
+            result.append(Strings.END_GROUP).append(Strings.WHITE_SPACE);
+            result.append(getOperator(0)).append(Strings.WHITE_SPACE);
+            result.append(Strings.START_GROUP).append(valuesBuilder).append(Strings.END_GROUP);
+        } else {
+            result.append(Strings.START_GROUP);
+            for (int i = 0; i < keyFields.size(); i++) {
+                if(i > 0) {
+                    result.append(Strings.WHITE_SPACE).append(SystemProperties.get(SystemProperties.Query.ReservedWord.OR));
+                    result.append(Strings.WHITE_SPACE);
+                }
+                result.append(Strings.START_GROUP);
+                for (int j = 0; j < i; j++) {
+                    result.append(keyFields.get(j)).append(SystemProperties.get(SystemProperties.Query.ReservedWord.EQUALS));
+                    result.append(replaceableValue).append(Strings.WHITE_SPACE);
+                    result.append(SystemProperties.get(SystemProperties.Query.ReservedWord.AND)).append(Strings.WHITE_SPACE);
+                }
+                result.append(keyFields.get(i)).append(Strings.WHITE_SPACE).append(getOperator(i));
+                result.append(Strings.WHITE_SPACE).append(replaceableValue);
+                result.append(Strings.END_GROUP);
+            }
+            result.append(Strings.END_GROUP);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Return the values to bind into the continuation condition, in the same order that the replaceable values.
+     * @param lastKey Key of the last row.
+     * @return List of values.
+     */
+    private List<Object> getConditionValues(Object[] lastKey) {
+        List<Object> result = new ArrayList<>();
+        if(isUniformDirection()) {
+            result.addAll(Arrays.asList(lastKey));
+        } else {
+            for (int i = 0; i < lastKey.length; i++) {
+                for (int j = 0; j <= i; j++) {
+                    result.add(lastKey[j]);
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean isUniformDirection() {
+        boolean result = true;
+        for (int i = 1; i < descending.length; i++) {
+            if(descending[i] != descending[0]) {
+                result = false;
+                break;
+            }
+        }
+        return result;
+    }
+
+    private String getOperator(int index) {
+        return SystemProperties.get(descending[index] ?
+                SystemProperties.Query.ReservedWord.SMALLER_THAN :
+                SystemProperties.Query.ReservedWord.GREATER_THAN);
+    }
+
+    /**
+     * Encodes the key of the last row as an url safe token. The token contains the hash of the query
+     * fingerprint to reject the tokens of other queries.
+     * @param key Key of the last row.
+     * @return Continuation token.
+     */
+    private String encode(Object[] key) {
+        return encodeToken(QueryFingerprint.of(session, query).hashCode(), key);
+    }
+
+    /**
+     * Decodes the continuation token.
+     * @param continuationToken Continuation token.
+     * @return Key of the last row.
+     */
+    private Object[] decode(String continuationToken) {
+        return decodeToken(continuationToken, QueryFingerprint.of(session, query).hashCode(), keyColumns.size());
+    }
+
+    /**
+     * Encodes the key as an url safe token.
+     * @param fingerprintHash Hash of the query fingerprint.
+     * @param key Key of the last row.
+     * @return Continuation token.
+     */
+    static String encodeToken(int fingerprintHash, Object[] key) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+            output.writeByte(TOKEN_VERSION);
+            output.writeInt(fingerprintHash);
+            output.writeShort(key.length);
+            for(Object value : key) {
+                if(value == null) {
+                    throw new IllegalArgumentException("The order fields of the keyset pagination can't be null");
+                } else if(value instanceof String) {
+                    output.writeByte('S');
+                    output.writeUTF((String) value);
+                } else if(value instanceof Integer || value instanceof Short) {
+                    output.writeByte('I');
+                    output.writeInt(((Number) value).intValue());
+                } else if(value instanceof Long) {
+                    output.writeByte('L');
+                    output.writeLong((Long) value);
+                } else if(value instanceof Double || value instanceof Float) {
+                    output.writeByte('D');
+                    output.writeDouble(((Number) value).doubleValue());
+                } else if(value instanceof BigDecimal) {
+                    output.writeByte('N');
+                    output.writeUTF(value.toString());
+                } else if(value instanceof Boolean) {
+                    output.writeByte('B');
+                    output.writeBoolean((Boolean) value);
+                } else if(value instanceof UUID) {
+                    output.writeByte('U');
+                    output.writeLong(((UUID) value).getMostSignificantBits());
+                    output.writeLong(((UUID) value).getLeastSignificantBits());
+                } else if(value instanceof Timestamp) {
+                    output.writeByte('T');
+                    output.writeLong(((Timestamp) value).getTime());
+                    output.writeInt(((Timestamp) value).getNanos());
+                } else if(value instanceof Date) {
+                    output.writeByte('T');
+                    output.writeLong(((Date) value).getTime());
+                    output.writeInt((int) Math.floorMod(((Date) value).getTime(), 1000L) * 1_000_000);
+                } else {
+                    throw new IllegalArgumentException("Unsupported type for keyset pagination: " + value.getClass());
+                }
+            }
+            output.flush();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Decodes the token created by {@link PostgresKeysetPagination#encodeToken(int, Object[])}.
+     * @param continuationToken Continuation token.
+     * @param fingerprintHash Hash of the query fingerprint.
+     * @param keySize Number of order fields of the query.
+     * @return Key of the last row.
+     */
+    static Object[] decodeToken(String continuationToken, int fingerprintHash, int keySize) {
+        try {
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(
+                    Base64.getUrlDecoder().decode(continuationToken)));
+            if(input.readByte() != TOKEN_VERSION || input.readInt() != fingerprintHash) {
+                throw new IllegalArgumentException("The continuation token doesn't belong to the query");
+            }
+            Object[] result = new Object[input.readShort()];
+            if(result.length != keySize) {
+                throw new IllegalArgumentException("The continuation token doesn't belong to the query");
+            }
+            for (int i = 0; i < result.length; i++) {
+                byte type = input.readByte();
+                switch (type) {
+                    case 'S': result[i] = input.readUTF(); break;
+                    case 'I': result[i] = input.readInt(); break;
+                    case 'L': result[i] = input.readLong(); break;
+                    case 'D': result[i] = input.readDouble(); break;
+                    case 'N': result[i] = new BigDecimal(input.readUTF()); break;
+                    case 'B': result[i] = input.readBoolean(); break;
+                    case 'U': result[i] = new UUID(input.readLong(), input.readLong()); break;
+                    case 'T': {
+                        Timestamp timestamp = new Timestamp(input.readLong());
+                        timestamp.setNanos(input.readInt());
+                        result[i] = timestamp;
+                        break;
+                    }
+                    default: throw new IllegalArgumentException("Invalid continuation token");
+                }
+            }
+            return result;
+        } catch (IOException | IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid continuation token", ex);
+        }
+    }
+
+    /**
+     * Page of results.
+     */
+    public class Page {
+
+        private final ResultSet resultSet;
+        private final Object[] lastKey;
+
+        private Page(ResultSet resultSet, Object[] lastKey) {
+            this.resultSet = resultSet;
+            this.lastKey = lastKey;
+        }
+
+        /**
+         * Return the rows of the page.
+         * @param <R> Expected result set.
+         * @return Result set.
+         */
+        public <R extends ResultSet> R getResultSet() {
+            return (R) resultSet;
+        }
+
+        /**
+         * Return true if there are not more pages.
+         * @return Last page value.
+         */
+        public boolean isLast() {
+            return lastKey == null;
+        }
+
+        /**
+         * Return the token to request the next page.
+         * @return Continuation token or null if this is the last page.
+         */
+        public String getContinuationToken() {
+            return lastKey == null ? null : encode(lastKey);
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package org.hcjf.layers.storage.postgres.actions;
+
+import org.hcjf.layers.query.*;
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.layers.storage.actions.ResultSet;
+import org.hcjf.layers.storage.actions.Select;
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.hcjf.layers.storage.postgres.cache.BoundedCache;
+import org.hcjf.layers.storage.postgres.cache.QueryFingerprint;
+import org.hcjf.layers.storage.postgres.cache.ResultCache;
+import org.hcjf.layers.storage.postgres.columnar.ColumnarResultSet;
+import org.hcjf.layers.storage.postgres.copy.CopyFormat;
+import org.hcjf.layers.storage.postgres.copy.SqlLiterals;
+import org.hcjf.layers.storage.postgres.metrics.Metric;
+import org.hcjf.layers.storage.postgres.metrics.Metrics;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.hcjf.properties.SystemProperties;
+import org.hcjf.utils.Strings;
+import org.postgresql.PGConnection;
+import org.postgresql.core.BaseConnection;
+
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.sql.Connection;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Select implementation for postgres database.
+ * @author javaito.
+ */
+public class PostgresSelect extends Select<PostgresStorageSession> {
+
+    private static final String COPY_STATEMENT = "COPY (%s) TO STDOUT WITH (FORMAT %s)";
+
+    private boolean streaming;
+    private Integer fetchSize;
+
+    public PostgresSelect(PostgresStorageSession session) {
+        super(session);
+    }
+
+    /**
+     * Return true if the select returns a cursor result set instead of a materialized result set.
+     * @return Streaming flag.
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Enables the streaming mode, in this mode the select returns a {@link PostgresCursorResultSet}
+     * and the rows are fetched and mapped while the result set is iterated.
+     * @param streaming Streaming flag.
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    /**
+     * Return the number of rows fetched in each round trip by the streaming mode.
+     * @return Fetch size.
+     */
+    public Integer getFetchSize() {
+        return fetchSize == null ? SystemProperties.getInteger(PostgresProperties.Cursor.FETCH_SIZE) : fetchSize;
+    }
+
+    /**
+     * Set the number of rows fetched in each round trip by the streaming mode.
+     * @param fetchSize Fetch size.
+     */
+    public void setFetchSize(Integer fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Return the cache of the compiled sql templates, the key of the cache is the
+     * fingerprint of the query.
+     * @return Sql template cache.
+     */
+    public static BoundedCache<String, String> getStatementCache() {
+        return StatementCacheHolder.INSTANCE;
+    }
+
+    /**
+     * Creates a prepared statement from the internal query and execute this statement
+     * into postgres engine and transform the postgres result set to a hcjf result set.
+     * @param params Execution parameter.
+     * @param <R> Expected result set.
+     * @return Result set.
+     * @throws StorageAccessException Throw this exception for any error executing the postgres select.
+     */
+    @Override
+    public <R extends ResultSet> R execute(Object... params) throws StorageAccessException {
+        PreparedStatement preparedStatement = null;
+        try {
+            Query query = getQuery();
+            long startTime = Metrics.start();
+            String fingerprint = QueryFingerprint.of(getSession(), query);
+            String statement = getStatementCache().get(fingerprint, key -> buildStatement(query));
+            Metrics.stop(statement, Metric.BUILD_TIME, startTime);
+
+            ResultCache resultCache = ResultCache.getInstance();
+            Collection<String> resourceNames = getResourceNames(query);
+            ResultCache.Key cacheKey = null;
+            Map<String, Long> generations = null;
+            if(!isStreaming() && resultCache.isEnabled(resourceNames) && !getSession().hasPendingWrites(resourceNames)) {
+                cacheKey = new ResultCache.Key(fingerprint, getResultType(),
+                        getSession().collectValues(new ArrayList<>(), query, params));
+                R cachedResultSet = resultCache.get(cacheKey);
+                if(cachedResultSet != null) {
+                    return cachedResultSet;
+                }
+                generations = resultCache.getGenerations(resourceNames);
+            }
+
+            preparedStatement = getSession().prepareStatement(statement);
+            List<Object> values = getSession().collectValues(new ArrayList<>(), query, params);
+            preparedStatement = getSession().setValues(preparedStatement, values,
+                    getSession().getCodecs(statement, values.size()), 1);
+            getSession().logStatement(preparedStatement);
+            if(isStreaming()) {
+                //The driver ignores the fetch size in autocommit mode and reads all the rows,
+                //so the cursor is opened into a transaction that ends when the cursor is released
+                Connection connection = getSession().getConnection();
+                boolean restoreAutoCommit = connection.getAutoCommit();
+                if(restoreAutoCommit) {
+                    connection.setAutoCommit(false);
+                }
+                try {
+                    preparedStatement.setFetchSize(getFetchSize());
+                    startTime = System.nanoTime();
+                    java.sql.ResultSet sqlResultSet = preparedStatement.executeQuery();
+                    getSession().onExecuted(statement, preparedStatement, System.nanoTime() - startTime);
+                    R resultSet = (R) PostgresCursorResultSet.open(getSession(), query, preparedStatement, sqlResultSet,
+                            getSession().getMappingPlan(query, sqlResultSet.getMetaData(), getResultType()), restoreAutoCommit);
+                    //The statement is released by the cursor
+                    preparedStatement = null;
+                    return resultSet;
+                } catch (Exception ex) {
+                    if(restoreAutoCommit) {
+                        connection.rollback();
+                        connection.setAutoCommit(true);
+                    }
+                    throw ex;
+                }
+            } else {
+                startTime = System.nanoTime();
+                try (java.sql.ResultSet sqlResultSet = preparedStatement.executeQuery()) {
+                    getSession().onExecuted(statement, preparedStatement, System.nanoTime() - startTime);
+                    R resultSet = getSession().createResultSet(statement, getQuery(), sqlResultSet, getResultType());
+                    if(cacheKey != null) {
+                        resultCache.put(cacheKey, generations, query.getResourceName(), resultSet);
+                    }
+                    return resultSet;
+                }
+            }
+        } catch (Exception ex) {
+            getSession().onError(ex);
+            throw new StorageAccessException(ex);
+        } finally {
+            getSession().releaseStatement(preparedStatement);
+        }
+    }
+
+    /**
+     * Executes the select and stores the rows by column, the numeric values are read without boxing. This mode is
+     * intended for selects that read many numeric rows, the result is not cached.
+     * @param params Execution parameter.
+     * @return Columnar result set.
+     * @throws StorageAccessException Throw this exception for any error executing the postgres select.
+     */
+    public ColumnarResultSet executeColumnar(Object... params) throws StorageAccessException {
+        PreparedStatement preparedStatement = null;
+        try {
+            Query query = getQuery();
+            long startTime = Metrics.start();
+            String statement = getStatementCache().get(QueryFingerprint.of(getSession(), query), key -> buildStatement(query));
+            Metrics.stop(statement, Metric.BUILD_TIME, startTime);
+
+            preparedStatement = getSession().prepareStatement(statement);
+            List<Object> values = getSession().collectValues(new ArrayList<>(), query, params);
+            preparedStatement = getSession().setValues(preparedStatement, values,
+                    getSession().getCodecs(statement, values.size()), 1);
+            getSession().logStatement(preparedStatement);
+            if(fetchSize != null) {
+                preparedStatement.setFetchSize(fetchSize);
+            }
+            startTime = System.nanoTime();
+            try (java.sql.ResultSet sqlResultSet = preparedStatement.executeQuery()) {
+                getSession().onExecuted(statement, preparedStatement, System.nanoTime() - startTime);
+                return getSession().createColumnarResultSet(statement, query, sqlResultSet);
+            }
+        } catch (Exception ex) {
+            getSession().onError(ex);
+            throw new StorageAccessException(ex);
+        } finally {
+            getSession().releaseStatement(preparedStatement);
+        }
+    }
+
+    /**
+     * Return the names of the resources read by the query, the main resource and the joined resources.
+     * @param query Query instance.
+     * @return Names of the resources.
+     */
+    private Collection<String> getResourceNames(Query query) {
+        Collection<String> result = new ArrayList<>();
+        result.add(query.getResourceName());
+        if(query.getJoins() != null) {
+            for(Join join : query.getJoins()) {
+                result.add(join.getResourceName());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Executes the select with the copy command and writes the rows directly into the output stream,
+     * without create a hcjf result set. The copy command not accepts bind parameters so the values
+     * of the query are inlined as literals.
+     * @param outputStream Output stream to write the rows.
+     * @param format Data format of the rows.
+     * @param params Execution parameters.
+     * @return Number of exported rows.
+     * @throws StorageAccessException Throw this exception for any error executing the postgres copy.
+     */
+    public long export(OutputStream outputStream, CopyFormat format, Object... params) throws StorageAccessException {
+        try {
+            Query query = getQuery();
+            String statement = getStatementCache().get(QueryFingerprint.of(getSession(), query), key -> buildStatement(query));
+            boolean standardConformingStrings = getSession().getConnection().unwrap(BaseConnection.class).getStandardConformingStrings();
+            statement = String.format(COPY_STATEMENT, SqlLiterals.inline(statement,
+                    getSession().collectValues(new ArrayList<>(), query, params), standardConformingStrings), format.getOption());
+            getSession().logStatement(statement);
+            return getSession().getConnection().unwrap(PGConnection.class).getCopyAPI().copyOut(statement, outputStream);
+        } catch (Exception ex) {
+            getSession().onError(ex);
+            throw new StorageAccessException(ex);
+        }
+    }
+
+    /**
+     * Executes the select with the copy command and writes the rows directly into the channel,
+     * without create a hcjf result set.
+     * @param channel Channel to write the rows.
+     * @param format Data format of the rows.
+     * @param params Execution parameters.
+     * @return Number of exported rows.
+     * @throws StorageAccessException Throw this exception for any error executing the postgres copy.
+     */
+    public long export(WritableByteChannel channel, CopyFormat format, Object... params) throws StorageAccessException {
+        return export(Channels.newOutputStream(channel), format, params);
+    }
+
+    /**
+     * Creates the sql text for the query, the values of the query are represented as replaceable values.
+     * @param query Query instance.
+     * @return Sql text.
+     */
+    protected String buildStatement(Query query) {
+        return buildStatement(query, null, query.getLimit());
+    }
+
+    /**
+     * Creates the sql text for the query with an additional condition and other limit.
+     * @param query Query instance.
+     * @param condition Sql condition added to the query conditions with the 'and' operator, could be null.
+     * @param limit Limit of the statement, could be null.
+     * @return Sql text.
+     */
+    protected String buildStatement(Query query, String condition, Integer limit) {
+        StringBuilder queryBuilder = new StringBuilder();
+        queryBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.SELECT)).append(Strings.WHITE_SPACE);
+        String argumentSeparatorValue = SystemProperties.get(SystemProperties.Query.ReservedWord.ARGUMENT_SEPARATOR);
+        String argumentSeparator = Strings.EMPTY_STRING;
+        Query.QueryComponent normalizedQueryField;
+        if(!query.returnAll()) {
+            for (Query.QueryReturnParameter queryField : query.getReturnParameters()) {
+                queryBuilder.append(argumentSeparator);
+                normalizedQueryField = getSession().normalizeApplicationToDataSource(queryField);
+                queryBuilder.append(normalizedQueryField);
+                if (normalizedQueryField instanceof Query.QueryReturnParameter &&
+                        ((Query.QueryReturnParameter) normalizedQueryField).getAlias() != null &&
+                        !((Query.QueryReturnParameter) normalizedQueryField).getAlias().isEmpty()) {
+                    queryBuilder.append(Strings.WHITE_SPACE);
+                    queryBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.AS));
+                    queryBuilder.append(Strings.WHITE_SPACE);
+                    queryBuilder.append(((Query.QueryReturnParameter) normalizedQueryField).getAlias());
+                }
+                queryBuilder.append(Strings.WHITE_SPACE);
+                argumentSeparator = argumentSeparatorValue;
+            }
+        } else {
+            queryBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.RETURN_ALL));
+            queryBuilder.append(Strings.WHITE_SPACE);
+        }
+        queryBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.FROM)).append(Strings.WHITE_SPACE);
+        queryBuilder.append(getSession().normalizeApplicationToDataSource(query.getResource())).append(Strings.WHITE_SPACE);
+
+        if (query.getJoins() != null && query.getJoins().size() > 0) {
+            for (Join join : query.getJoins()) {
+                switch(join.getType()) {
+                    case JOIN:
+                        queryBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.JOIN));
+                        break;
+                    case LEFT:
+                        queryBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.LEFT));
+                        queryBuilder.append(Strings.WHITE_SPACE);
+                        queryBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.JOIN));
+                        break;
+                    case RIGHT:
+                        queryBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.RIGHT));
+                        queryBuilder.append(Strings.WHITE_SPACE);
+                        queryBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.JOIN));
+                        break;
+                    case INNER:
+                        queryBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.INNER));
+                        queryBuilder.append(Strings.WHITE_SPACE);
+                        queryBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.JOIN));
+                        break;
+                }
+                queryBuilder.append(Strings.WHITE_SPACE);
+                queryBuilder.append(join.getResourceName());
+                queryBuilder.append(Strings.WHITE_SPACE);
+                queryBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.ON));
+                queryBuilder.append(Strings.WHITE_SPACE);
+                queryBuilder.append(join.getLeftField().getCompleteFieldName());
+                queryBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.EQUALS));
+                queryBuilder.append(join.getRightField().getCompleteFieldName());
+                queryBuilder.append(Strings.WHITE_SPACE);
+            }
+        }
+
+        if(query.getEvaluators().size() > 0 || condition != null) {
+            queryBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.WHERE));
+            queryBuilder.append(Strings.WHITE_SPACE);
+            if(query.getEvaluators().size() > 0) {
+                queryBuilder = getSession().processEvaluators(queryBuilder, query);
+                if(condition != null) {
+                    queryBuilder.append(Strings.WHITE_SPACE).append(SystemProperties.get(SystemProperties.Query.ReservedWord.AND));
+                    queryBuilder.append(Strings.WHITE_SPACE);
+                }
+            }
+            if(condition != null) {
+                queryBuilder.append(condition);
+            }
+            queryBuilder.append(Strings.WHITE_SPACE);
+        }
+
+        if(query.getGroupParameters().size() > 0) {
+            queryBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.GROUP_BY));
+            argumentSeparator = Strings.EMPTY_STRING;
+            for (Query.QueryReturnParameter groupParameter: query.getGroupParameters()) {
+                queryBuilder.append(argumentSeparator).append(Strings.WHITE_SPACE).append(getSession().normalizeApplicationToDataSource(groupParameter));
+                argumentSeparator = argumentSeparatorValue;
+            }
+            queryBuilder.append(Strings.WHITE_SPACE);
+        }
+
+        if(query.getOrderParameters().size() > 0) {
+            queryBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.ORDER_BY));
+            argumentSeparator = Strings.EMPTY_STRING;
+            for (Query.QueryOrderParameter orderParameter: query.getOrderParameters()) {
+                queryBuilder.append(argumentSeparator).append(Strings.WHITE_SPACE).append(getSession().normalizeApplicationToDataSource(orderParameter));
+                if(orderParameter.isDesc()) {
+                    queryBuilder.append(Strings.WHITE_SPACE).append(SystemProperties.get(SystemProperties.Query.ReservedWord.DESC));
+                }
+                argumentSeparator = argumentSeparatorValue + Strings.WHITE_SPACE;
+            }
+            queryBuilder.append(Strings.WHITE_SPACE);
+        }
+
+        if(limit != null) {
+            queryBuilder.append(Strings.WHITE_SPACE).append(SystemProperties.get(SystemProperties.Query.ReservedWord.LIMIT)).
+                    append(Strings.WHITE_SPACE).append(limit);
+        }
+
+        return queryBuilder.toString();
+    }
+
+    private static class StatementCacheHolder {
+        private static final BoundedCache<String, String> INSTANCE = new BoundedCache<>(
+                SystemProperties.getInteger(PostgresProperties.Cache.STATEMENT_TEMPLATE_SIZE));
+    }
+}
@@ -0,0 +1,251 @@
+package org.hcjf.layers.storage.postgres.actions;
+
+import org.hcjf.layers.query.Query;
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.layers.storage.actions.ResultSet;
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.hcjf.layers.storage.postgres.cache.QueryFingerprint;
+import org.hcjf.layers.storage.postgres.metrics.Metric;
+import org.hcjf.layers.storage.postgres.metrics.Metrics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Executes several selects in one round trip. All the statements are sent together into one multi-statement
+ * prepared statement and the result sets are mapped in order using the session mapping. If some statement
+ * fails then the pipeline is rolled back and each select is executed alone, into its own savepoint, in order
+ * to associate the error with the query that caused it.
+ * @author Javier Quiroga.
+ */
+public class PostgresSelectPipeline {
+
+    private static final String STATEMENT_SEPARATOR = ";\n";
+
+    private final PostgresStorageSession session;
+    private final List<Entry> entries;
+
+    public PostgresSelectPipeline(PostgresStorageSession session) {
+        this.session = session;
+        this.entries = new ArrayList<>();
+    }
+
+    /**
+     * Add a query to the pipeline, the result is a map result set.
+     * @param query Query to execute.
+     * @param params Query parameters.
+     * @return Index of the query result.
+     */
+    public int add(Query query, Object... params) {
+        return add(query, null, params);
+    }
+
+    /**
+     * Add a query to the pipeline.
+     * @param query Query to execute.
+     * @param resultType Type of the result objects, if the type is null the result is a map result set.
+     * @param params Query parameters.
+     * @return Index of the query result.
+     */
+    public int add(Query query, Class resultType, Object... params) {
+        entries.add(new Entry(query, resultType, params));
+        return entries.size() - 1;
+    }
+
+    /**
+     * Add a select to the pipeline using its query and result type.
+     * @param select Select instance.
+     * @param params Query parameters.
+     * @return Index of the query result.
+     */
+    public int add(PostgresSelect select, Object... params) {
+        return add(select.getQuery(), select.getResultType(), params);
+    }
+
+    /**
+     * Return the number of queries into the pipeline.
+     * @return Number of queries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Executes all the queries of the pipeline.
+     * @return One result for each query, in the same order that the queries was added.
+     * @throws StorageAccessException Throw this exception if the pipeline can't be executed.
+     */
+    public List<Result> execute() throws StorageAccessException {
+        List<Result> results;
+        if(entries.isEmpty()) {
+            results = Collections.emptyList();
+        } else {
+            try {
+                Connection connection = session.getConnection();
+                Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+                try {
+                    results = executePipeline();
+                    if(savepoint != null) {
+                        connection.releaseSavepoint(savepoint);
+                    }
+                } catch (SQLException ex) {
+                    if(savepoint != null) {
+                        connection.rollback(savepoint);
+                    }
+                    results = executeOneByOne();
+                }
+            } catch (Exception ex) {
+                session.onError(ex);
+                throw new StorageAccessException(ex);
+            }
+        }
+        return results;
+    }
+
+    private List<Result> executePipeline() throws Exception {
+        long startTime = Metrics.start();
+        StringBuilder statementBuilder = new StringBuilder();
+        for(Entry entry : entries) {
+            if(statementBuilder.length() > 0) {
+                statementBuilder.append(STATEMENT_SEPARATOR);
+            }
+            statementBuilder.append(getStatement(entry.query));
+        }
+        String statement = statementBuilder.toString();
+        Metrics.stop(statement, Metric.BUILD_TIME, startTime);
+
+        List<Result> results = new ArrayList<>();
+        PreparedStatement preparedStatement = null;
+        try {
+            preparedStatement = session.prepareStatement(statement);
+            int index = 1;
+            for(Entry entry : entries) {
+                for(Object value : session.collectValues(new ArrayList<>(), entry.query, entry.params)) {
+                    index = session.setValue(preparedStatement, index, value);
+                }
+            }
+            session.logStatement(preparedStatement);
+            startTime = System.nanoTime();
+            preparedStatement.execute();
+            session.onExecuted(statement, preparedStatement, System.nanoTime() - startTime);
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                if(i > 0) {
+                    preparedStatement.getMoreResults();
+                }
+                try (java.sql.ResultSet sqlResultSet = preparedStatement.getResultSet()) {
+                    results.add(new Result(entry.query, session.createResultSet(
+                            getStatement(entry.query), entry.query, sqlResultSet, entry.resultType), null));
+                }
+            }
+        } finally {
+            session.releaseStatement(preparedStatement);
+        }
+        return results;
+    }
+
+    private List<Result> executeOneByOne() throws SQLException {
+        Connection connection = session.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        List<Result> results = new ArrayList<>();
+        for(Entry entry : entries) {
+            Savepoint savepoint = autoCommit ? null : connection.setSavepoint();
+            PreparedStatement preparedStatement = null;
+            try {
+                String statement = getStatement(entry.query);
+                preparedStatement = session.prepareStatement(statement);
+                preparedStatement = session.setValues(preparedStatement, entry.query, 1, entry.params);
+                session.logStatement(preparedStatement);
+                long startTime = System.nanoTime();
+                try (java.sql.ResultSet sqlResultSet = preparedStatement.executeQuery()) {
+                    session.onExecuted(statement, preparedStatement, System.nanoTime() - startTime);
+                    results.add(new Result(entry.query, session.createResultSet(
+                            statement, entry.query, sqlResultSet, entry.resultType), null));
+                }
+                if(savepoint != null) {
+                    connection.releaseSavepoint(savepoint);
+                }
+            } catch (Exception ex) {
+                if(savepoint != null) {
+                    connection.rollback(savepoint);
+                }
+                results.add(new Result(entry.query, null, ex));
+            } finally {
+                session.releaseStatement(preparedStatement);
+            }
+        }
+        return results;
+    }
+
+    private String getStatement(Query query) {
+        return PostgresSelect.getStatementCache().get(QueryFingerprint.of(session, query),
+                key -> new PostgresSelect(session).buildStatement(query));
+    }
+
+    private static class Entry {
+
+        private final Query query;
+        private final Class resultType;
+        private final Object[] params;
+
+        private Entry(Query query, Class resultType, Object[] params) {
+            this.query = query;
+            this.resultType = resultType;
+            this.params = params;
+        }
+    }
+
+    /**
+     * Result of one query of the pipeline, contains the result set or the error of the query.
+     */
+    public static class Result {
+
+        private final Query query;
+        private final ResultSet resultSet;
+        private final Throwable error;
+
+        private Result(Query query, ResultSet resultSet, Throwable error) {
+            this.query = query;
+            this.resultSet = resultSet;
+            this.error = error;
+        }
+
+        /**
+         * Return the query of the result.
+         * @return Query instance.
+         */
+        public Query getQuery() {
+            return query;
+        }
+
+        /**
+         * Return the result set of the query.
+         * @param <R> Expected result set.
+         * @return Result set or null if the query failed.
+         */
+        public <R extends ResultSet> R getResultSet() {
+            return (R) resultSet;
+        }
+
+        /**
+         * Return the error of the query.
+         * @return Error or null if the query was executed successfully.
+         */
+        public Throwable getError() {
+            return error;
+        }
+
+        /**
+         * Return true if the query was executed successfully.
+         * @return Successful value.
+         */
+        public boolean isSuccessful() {
+            return error == null;
+        }
+    }
+}
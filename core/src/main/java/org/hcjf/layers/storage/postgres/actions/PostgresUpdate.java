@@ -4,8 +4,8 @@ import org.hcjf.layers.storage.StorageAccessException;
 import org.hcjf.layers.storage.actions.ResultSet;
 import org.hcjf.layers.storage.actions.Update;
 import org.hcjf.layers.storage.postgres.PostgresStorageSession;
-import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
-import org.hcjf.log.Log;
+import org.hcjf.layers.storage.postgres.metrics.Metric;
+import org.hcjf.layers.storage.postgres.metrics.Metrics;
 import org.hcjf.properties.SystemProperties;
 import org.hcjf.utils.Strings;
 
@@ -13,28 +13,49 @@ import java.sql.PreparedStatement;
 import java.util.*;
 
 /**
+ * Update implementation for postgres database, optionally the updated rows are returned.
  * @author Javier Quiroga.
  */
 public class PostgresUpdate extends Update<PostgresStorageSession> {
 
-    private static final String UPDATE_STATEMENT = "UPDATE %s SET %s WHERE %s";
+    private static final String UPDATE_STATEMENT = "UPDATE %s SET %s WHERE %s%s";
+
+    private List<String> returningColumns;
 
     public PostgresUpdate(PostgresStorageSession session) {
         super(session);
     }
 
+    /**
+     * Return the columns returned by the update.
+     * @return Returned columns, empty list means all the columns and null means that the rows are not returned.
+     */
+    public List<String> getReturningColumns() {
+        return returningColumns;
+    }
+
+    /**
+     * Set the columns returned by the update, the returned rows are the result of the execution.
+     * @param returningColumns Returned columns, empty list means all the columns and null means that the rows are not returned.
+     */
+    public void setReturningColumns(List<String> returningColumns) {
+        this.returningColumns = returningColumns;
+    }
+
     /**
      * Builds and executes the update sentence. Two parts are needed: the 'set' part and the 'where' part.
      * The 'set' part is build from specified values set.
      * The 'where' part is build from specified query.
      * @param params Query parameters
      * @param <R> Expected result set.
-     * @return null
+     * @return Result set with the updated rows if the returning columns are set, in other case null.
      * @throws StorageAccessException StorageAccessException
      */
     @Override
     public <R extends ResultSet> R execute(Object... params) throws StorageAccessException {
+        PreparedStatement preparedStatement = null;
         try {
+            long startTime = Metrics.start();
             R resultSet;
             String resourceName = getResourceName();
             if(getQuery() == null) {
@@ -62,29 +83,34 @@ public class PostgresUpdate extends Update<PostgresStorageSession> {
             whereBuilder = getSession().processEvaluators(whereBuilder, getQuery());
 
             //Creates statement string
-            String statement = String.format(UPDATE_STATEMENT, resourceName, setBuilder.toString(), whereBuilder.toString());
-
+            String statement = String.format(UPDATE_STATEMENT, resourceName, setBuilder.toString(), whereBuilder.toString(),
+                    returningColumns == null ? Strings.EMPTY_STRING : ReturningRows.clause(resourceName, returningColumns));
+            Metrics.stop(statement, Metric.BUILD_TIME, startTime);
 
-            PreparedStatement preparedStatement = getSession().getConnection().prepareStatement(statement);
-            int index = 1;
-            for(Object baseValue : baseValues) {
-                if (baseValue instanceof Date) {
-                    preparedStatement.setTimestamp(index++, new java.sql.Timestamp(((Date) baseValue).getTime()));
-                } else if (Collection.class.isAssignableFrom(baseValue.getClass())) {
-                    for (Object object : ((Collection) baseValue)) {
-                        preparedStatement.setObject(index++, object);
-                    }
-                } else {
-                    preparedStatement.setObject(index++, baseValue);
-                }
+            preparedStatement = getSession().prepareStatement(statement);
+            List<Object> values = getSession().collectValues(baseValues, getQuery(), params);
+            preparedStatement = getSession().setValues(preparedStatement, values,
+                    getSession().getCodecs(statement, values.size()), 1);
+            getSession().logStatement(preparedStatement);
+            resultSet = null;
+            int rows;
+            if(returningColumns == null) {
+                startTime = System.nanoTime();
+                rows = preparedStatement.executeUpdate();
+                getSession().onExecuted(statement, preparedStatement, System.nanoTime() - startTime);
+            } else {
+                ReturningRows returningRows = new ReturningRows(getSession(), resourceName, getResultType());
+                rows = returningRows.execute(statement, preparedStatement);
+                resultSet = returningRows.getResultSet();
             }
-            preparedStatement = getSession().setValues(preparedStatement, getQuery(), index, params);
-            Log.d(SystemProperties.get(PostgresProperties.POSTGRES_EXECUTE_STATEMENT_LOG_TAG), preparedStatement.toString());
-            preparedStatement.executeUpdate();
-            return null;
+            Metrics.record(statement, Metric.ROWS, rows);
+            getSession().onWrite(resourceName);
+            return resultSet;
         } catch (Exception ex) {
             getSession().onError(ex);
             throw new StorageAccessException(ex);
+        } finally {
+            getSession().releaseStatement(preparedStatement);
         }
     }
 }
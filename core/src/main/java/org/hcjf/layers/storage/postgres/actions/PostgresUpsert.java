@@ -0,0 +1,161 @@
+package org.hcjf.layers.storage.postgres.actions;
+
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.hcjf.utils.Strings;
+
+import java.util.*;
+
+/**
+ * Batch insert that resolves the conflicts with existing rows into the data base, using
+ * INSERT ... ON CONFLICT (...) DO UPDATE SET column = EXCLUDED.column or DO NOTHING. The rows are
+ * sent in chunks in the same way that the batch insert. A statement can't update the same row twice,
+ * so the rows of the batch with the same conflict key are merged before the execution: the last row
+ * wins if the conflict action is update and the first row wins if the conflict action is nothing.
+ * If the returning columns are set then the rows discarded by DO NOTHING are not returned.
+ * @author Javier Quiroga.
+ */
+public class PostgresUpsert extends PostgresBatchInsert {
+
+    private static final String ON_CONFLICT = " ON CONFLICT %s DO %s";
+    private static final String UPDATE_ACTION = "UPDATE SET %s";
+    private static final String NOTHING_ACTION = "NOTHING";
+    private static final String EXCLUDED = "EXCLUDED";
+
+    private List<String> conflictColumns;
+    private List<String> updateColumns;
+    private ConflictAction conflictAction;
+
+    public PostgresUpsert(PostgresStorageSession session) {
+        super(session);
+        this.conflictColumns = Collections.emptyList();
+        this.conflictAction = ConflictAction.UPDATE;
+    }
+
+    /**
+     * Return the columns of the unique constraint used to detect the conflicts.
+     * @return Conflict columns.
+     */
+    public List<String> getConflictColumns() {
+        return conflictColumns;
+    }
+
+    /**
+     * Set the columns of the unique constraint used to detect the conflicts, the columns are required
+     * if the conflict action is update.
+     * @param conflictColumns Conflict columns.
+     */
+    public void setConflictColumns(List<String> conflictColumns) {
+        this.conflictColumns = conflictColumns == null ? Collections.emptyList() : conflictColumns;
+    }
+
+    /**
+     * Return the columns updated when the row already exists.
+     * @return Update columns, null means all the columns of the batch that are not conflict columns.
+     */
+    public List<String> getUpdateColumns() {
+        return updateColumns;
+    }
+
+    /**
+     * Set the columns updated when the row already exists.
+     * @param updateColumns Update columns, null means all the columns of the batch that are not conflict columns.
+     */
+    public void setUpdateColumns(List<String> updateColumns) {
+        this.updateColumns = updateColumns;
+    }
+
+    /**
+     * Return the action executed when the row already exists.
+     * @return Conflict action.
+     */
+    public ConflictAction getConflictAction() {
+        return conflictAction;
+    }
+
+    /**
+     * Set the action executed when the row already exists.
+     * @param conflictAction Conflict action.
+     */
+    public void setConflictAction(ConflictAction conflictAction) {
+        this.conflictAction = conflictAction;
+    }
+
+    /**
+     * Merges the rows with the same conflict key. The rows with some null value into the conflict key
+     * are never merged because the nulls are distinct for the unique indexes and these rows never conflict.
+     * @param rows Rows of the batch.
+     * @return Rows to write.
+     */
+    @Override
+    protected List<Map<String, Object>> prepareRows(List<Map<String, Object>> rows) {
+        List<Map<String, Object>> result = rows;
+        if(!conflictColumns.isEmpty()) {
+            Map<Object, Map<String, Object>> rowsByKey = new LinkedHashMap<>();
+            for(Map<String, Object> row : rows) {
+                List<Object> key = new ArrayList<>(conflictColumns.size());
+                for(String conflictColumn : conflictColumns) {
+                    key.add(row.get(conflictColumn));
+                }
+                if(key.contains(null)) {
+                    rowsByKey.put(new Object(), row);
+                } else if(conflictAction.equals(ConflictAction.UPDATE) || !rowsByKey.containsKey(key)) {
+                    rowsByKey.put(key, row);
+                }
+            }
+            if(rowsByKey.size() < rows.size()) {
+                result = new ArrayList<>(rowsByKey.values());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates the insert statement with the conflict clause.
+     * @param rowCount Number of rows of the statement.
+     * @return Upsert statement.
+     */
+    @Override
+    protected String buildStatement(int rowCount) {
+        Strings.Builder targetBuilder = new Strings.Builder();
+        for(String conflictColumn : conflictColumns) {
+            targetBuilder.append(conflictColumn, Strings.ARGUMENT_SEPARATOR);
+        }
+        String target = conflictColumns.isEmpty() ? Strings.EMPTY_STRING :
+                Strings.START_GROUP + targetBuilder.toString() + Strings.END_GROUP;
+
+        Strings.Builder setBuilder = new Strings.Builder();
+        if(conflictAction.equals(ConflictAction.UPDATE)) {
+            if(conflictColumns.isEmpty()) {
+                throw new IllegalArgumentException("The conflict columns are required to update the existing rows");
+            }
+            for(String column : updateColumns == null ? getColumns() : updateColumns) {
+                if(updateColumns != null || !conflictColumns.contains(column)) {
+                    setBuilder.append(column + Strings.WHITE_SPACE + Strings.ASSIGNATION + Strings.WHITE_SPACE +
+                            EXCLUDED + Strings.CLASS_SEPARATOR + column, Strings.ARGUMENT_SEPARATOR);
+                }
+            }
+        }
+        String set = setBuilder.toString();
+
+        //If there are not columns to update then the existing rows are kept
+        return super.buildStatement(rowCount) + String.format(ON_CONFLICT, target,
+                set.isEmpty() ? NOTHING_ACTION : String.format(UPDATE_ACTION, set));
+    }
+
+    /**
+     * Actions to resolve the conflicts with the existing rows.
+     */
+    public enum ConflictAction {
+
+        /**
+         * The existing row is updated with the values of the new row.
+         */
+        UPDATE,
+
+        /**
+         * The existing row is kept and the new row is discarded.
+         */
+        NOTHING
+
+    }
+}
@@ -0,0 +1,86 @@
+package org.hcjf.layers.storage.postgres.actions;
+
+import org.hcjf.layers.query.Query;
+import org.hcjf.layers.storage.actions.CollectionResultSet;
+import org.hcjf.layers.storage.actions.MapResultSet;
+import org.hcjf.layers.storage.actions.ResultSet;
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.hcjf.utils.Strings;
+
+import java.sql.PreparedStatement;
+import java.util.*;
+
+/**
+ * Collects the rows returned by the returning clause of the write statements, one write action could
+ * execute many statements and the rows of all the statements are returned into the same result set.
+ * @author Javier Quiroga.
+ */
+final class ReturningRows {
+
+    private static final String RETURNING = " RETURNING %s";
+    private static final String ALL_COLUMNS = "*";
+
+    private final PostgresStorageSession session;
+    private final Query query;
+    private final Class resultType;
+    private final List<Object> rows;
+
+    ReturningRows(PostgresStorageSession session, String resourceName, Class resultType) {
+        this.session = session;
+        this.query = new Query(resourceName);
+        this.resultType = resultType;
+        this.rows = new ArrayList<>();
+    }
+
+    /**
+     * Creates the returning clause, the columns are qualified with the resource name because the
+     * update statements could join other relations.
+     * @param resourceName Name of the written resource.
+     * @param columns Returned columns, empty list means all the columns of the resource.
+     * @return Returning clause.
+     */
+    static String clause(String resourceName, List<String> columns) {
+        Strings.Builder columnsBuilder = new Strings.Builder();
+        if(columns.isEmpty()) {
+            columnsBuilder.append(resourceName + Strings.CLASS_SEPARATOR + ALL_COLUMNS);
+        } else {
+            for(String column : columns) {
+                columnsBuilder.append(resourceName + Strings.CLASS_SEPARATOR + column, Strings.ARGUMENT_SEPARATOR);
+            }
+        }
+        return String.format(RETURNING, columnsBuilder.toString());
+    }
+
+    /**
+     * Executes the statement and maps the returned rows with the session mapping.
+     * @param statement Sql of the statement.
+     * @param preparedStatement Statement with all its parameters.
+     * @return Number of returned rows.
+     * @throws Exception
+     */
+    int execute(String statement, PreparedStatement preparedStatement) throws Exception {
+        long startTime = System.nanoTime();
+        try (java.sql.ResultSet sqlResultSet = preparedStatement.executeQuery()) {
+            session.onExecuted(statement, preparedStatement, System.nanoTime() - startTime);
+            Collection<?> result = (Collection<?>) session.createResultSet(
+                    statement, query, sqlResultSet, resultType).getResult();
+            rows.addAll(result);
+            return result.size();
+        }
+    }
+
+    /**
+     * Return the rows returned by all the executed statements.
+     * @param <R> Expected result set.
+     * @return Map result set or collection result set if the result type is not null.
+     */
+    <R extends ResultSet> R getResultSet() {
+        R result;
+        if(resultType == null) {
+            result = (R) new MapResultSet((List) rows);
+        } else {
+            result = (R) new CollectionResultSet(rows);
+        }
+        return result;
+    }
+}
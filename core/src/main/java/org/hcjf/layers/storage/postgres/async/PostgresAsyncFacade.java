@@ -0,0 +1,200 @@
+package org.hcjf.layers.storage.postgres.async;
+
+import org.hcjf.layers.query.Query;
+import org.hcjf.layers.storage.actions.Insert;
+import org.hcjf.layers.storage.actions.ResultSet;
+import org.hcjf.layers.storage.actions.Select;
+import org.hcjf.layers.storage.postgres.PostgresStorageLayer;
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.hcjf.log.Log;
+import org.hcjf.properties.SystemProperties;
+
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Asynchronous access to a postgres layer. Each operation is executed into its own session, the session is
+ * closed when the operation ends so the commit or rollback semantics are the same than the synchronous sessions.
+ * The number of running operations is the size of the connections pool and the number of queued operations is
+ * bounded, when there are not places the operation is rejected with a {@link RejectedExecutionException}.
+ * The operations are executed by virtual threads if the runtime supports them, in other case by a bounded
+ * thread pool.
+ * @param <S> Kind of session.
+ * @author Javier Quiroga.
+ */
+public class PostgresAsyncFacade<S extends PostgresStorageSession> {
+
+    private static final String VIRTUAL_THREAD_EXECUTOR_METHOD = "newVirtualThreadPerTaskExecutor";
+
+    private final PostgresStorageLayer<S> layer;
+    private final Semaphore runningPermits;
+    private final Semaphore admissionPermits;
+    private final ExecutorService executor;
+
+    public PostgresAsyncFacade(PostgresStorageLayer<S> layer, int maxConcurrency, int queueSize) {
+        this.layer = layer;
+        this.runningPermits = new Semaphore(Math.max(1, maxConcurrency));
+        this.admissionPermits = new Semaphore(Math.max(1, maxConcurrency) + Math.max(0, queueSize));
+        this.executor = createExecutor(Math.max(1, maxConcurrency));
+    }
+
+    /**
+     * Creates a virtual thread executor if the runtime supports it and the property is enabled,
+     * in other case creates a fixed thread pool with one thread for each connection.
+     * @param maxConcurrency Max number of running operations.
+     * @return Executor instance.
+     */
+    private ExecutorService createExecutor(int maxConcurrency) {
+        ExecutorService result = null;
+        if(SystemProperties.getBoolean(PostgresProperties.Async.VIRTUAL_THREADS)) {
+            try {
+                result = (ExecutorService) Executors.class.getMethod(VIRTUAL_THREAD_EXECUTOR_METHOD).invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                Log.d(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                        "Virtual threads not available, using a thread pool for the async operations");
+            }
+        }
+
+        if(result == null) {
+            result = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "postgres-async");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Executes the operation into a new session. If the operation fails the session is marked
+     * with the error so the transaction is rolled back when the session is closed.
+     * @param readOnly If the value is true the session is created in read only mode and it could use a replica.
+     * @param operation Operation to execute.
+     * @param <T> Kind of result.
+     * @return Future of the operation result.
+     */
+    public <T> CompletableFuture<T> submit(boolean readOnly, SessionOperation<S, T> operation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if(!admissionPermits.tryAcquire()) {
+            result.completeExceptionally(new RejectedExecutionException("Async operations queue is full"));
+        } else {
+            try {
+                executor.execute(() -> {
+                    T value = null;
+                    Throwable error = null;
+                    try {
+                        runningPermits.acquire();
+                        try {
+                            value = execute(readOnly, operation);
+                        } finally {
+                            runningPermits.release();
+                        }
+                    } catch (Throwable throwable) {
+                        error = throwable;
+                    } finally {
+                        admissionPermits.release();
+                    }
+
+                    //The dependent stages run into this thread, so the future is completed without permits
+                    if(error == null) {
+                        result.complete(value);
+                    } else {
+                        result.completeExceptionally(error);
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                admissionPermits.release();
+                result.completeExceptionally(ex);
+            }
+        }
+        return result;
+    }
+
+    private <T> T execute(boolean readOnly, SessionOperation<S, T> operation) throws Exception {
+        try (S session = readOnly ? layer.beginReadOnly() : layer.begin(false)) {
+            try {
+                return operation.execute(session);
+            } catch (Exception ex) {
+                session.onError(ex);
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Executes the query into a read only session.
+     * @param query Query to execute.
+     * @param params Query parameters.
+     * @param <R> Expected result set.
+     * @return Future of the result set.
+     */
+    public <R extends ResultSet> CompletableFuture<R> selectAsync(Query query, Object... params) {
+        return selectAsync(query, null, params);
+    }
+
+    /**
+     * Executes the query into a read only session.
+     * @param query Query to execute.
+     * @param resultType Type of the result objects, if the type is null the result is a map result set.
+     * @param params Query parameters.
+     * @param <R> Expected result set.
+     * @return Future of the result set.
+     */
+    public <R extends ResultSet> CompletableFuture<R> selectAsync(Query query, Class resultType, Object... params) {
+        return submit(true, session -> {
+            Select select = session.select(query);
+            select.setResultType(resultType);
+            return (R) select.execute(params);
+        });
+    }
+
+    /**
+     * Inserts the values into the resource.
+     * @param resourceName Name of the resource.
+     * @param values Values to insert.
+     * @param <R> Expected result set.
+     * @return Future of the insert result.
+     */
+    public <R extends ResultSet> CompletableFuture<R> insertAsync(String resourceName, Map<String, Object> values) {
+        return submit(false, session -> {
+            Insert insert = session.insert();
+            insert.setResourceName(resourceName);
+            for(String key : values.keySet()) {
+                insert.add(key, values.get(key));
+            }
+            return (R) insert.execute();
+        });
+    }
+
+    /**
+     * Updates the values of the rows selected by the query.
+     * @param query Query to filter the update.
+     * @param values Values to update.
+     * @param params Query parameters.
+     * @param <R> Expected result set.
+     * @return Future of the update result.
+     */
+    public <R extends ResultSet> CompletableFuture<R> updateAsync(Query query, Map<String, Object> values, Object... params) {
+        return submit(false, session -> (R) session.update(query, values).execute(params));
+    }
+
+    /**
+     * Stops the executor, the new operations are rejected and the queued operations are executed
+     * before the executor ends.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Waits until the running and queued operations end, this method should be called after the shutdown.
+     * @param timeout Maximum time to wait in milliseconds.
+     * @return True if all the operations ended before the timeout.
+     * @throws InterruptedException
+     */
+    public boolean awaitTermination(long timeout) throws InterruptedException {
+        return executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,22 @@
+package org.hcjf.layers.storage.postgres.async;
+
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+
+/**
+ * Operation executed asynchronously into a session.
+ * @param <S> Kind of session.
+ * @param <T> Kind of result.
+ * @author Javier Quiroga.
+ */
+@FunctionalInterface
+public interface SessionOperation<S extends PostgresStorageSession, T> {
+
+    /**
+     * Executes the operation.
+     * @param session Session of the operation, the session is closed when the operation ends.
+     * @return Result of the operation.
+     * @throws Exception
+     */
+    T execute(S session) throws Exception;
+
+}
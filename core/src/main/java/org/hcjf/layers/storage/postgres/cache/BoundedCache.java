@@ -0,0 +1,132 @@
+package org.hcjf.layers.storage.postgres.cache;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Concurrent cache with a maximum number of entries, when the limit is reached the
+ * oldest entries are evicted in insertion order.
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author Javier Quiroga.
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final Map<K, V> entries;
+    private final Queue<K> insertionOrder;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    public BoundedCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new ConcurrentHashMap<>();
+        this.insertionOrder = new ConcurrentLinkedQueue<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    /**
+     * Return the value associated to the key, if there are not value then the value is
+     * created using the factory function and stored into the cache.
+     * @param key Cache key.
+     * @param factory Function to create the value when the key is not cached.
+     * @return Cached or new value.
+     */
+    public V get(K key, Function<K, V> factory) {
+        V result = getIfPresent(key);
+        if(result == null) {
+            result = factory.apply(key);
+            put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Return the value associated to the key or null if the key is not cached.
+     * @param key Cache key.
+     * @return Cached value or null.
+     */
+    public V getIfPresent(K key) {
+        V result = maxSize > 0 ? entries.get(key) : null;
+        if(result == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Store the value into the cache if there are not other value for the same key.
+     * @param key Cache key.
+     * @param value Value to store.
+     */
+    public void put(K key, V value) {
+        if(maxSize > 0 && entries.putIfAbsent(key, value) == null) {
+            insertionOrder.offer(key);
+            while(entries.size() > maxSize) {
+                K eldest = insertionOrder.poll();
+                if(eldest == null) {
+                    break;
+                }
+                entries.remove(eldest);
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Remove all the entries of the cache, the counters are not reset.
+     */
+    public void clear() {
+        entries.clear();
+        insertionOrder.clear();
+    }
+
+    /**
+     * Return the max number of entries.
+     * @return Max number of entries.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Return the current number of entries.
+     * @return Number of entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Return the number of lookups resolved with a cached value.
+     * @return Number of hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Return the number of lookups that needed to create the value.
+     * @return Number of misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Return the number of entries removed to keep the cache into the limit.
+     * @return Number of evictions.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+}
@@ -0,0 +1,107 @@
+package org.hcjf.layers.storage.postgres.cache;
+
+import org.hcjf.layers.query.*;
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.hcjf.properties.SystemProperties;
+
+import java.util.Collection;
+
+/**
+ * Creates a structural key for a query. Two queries with the same fingerprint produce
+ * the same sql text and only differs in the values bound to the statement.
+ * @author Javier Quiroga.
+ */
+public final class QueryFingerprint {
+
+    private static final char SEPARATOR = '|';
+    private static final char START_GROUP = '(';
+    private static final char END_GROUP = ')';
+    private static final char NULL_VALUE = '0';
+    private static final char DESC = '-';
+
+    private QueryFingerprint() {
+    }
+
+    /**
+     * Creates the fingerprint of the query for the specific session implementation, the
+     * session is part of the key because each implementation could normalize the fields
+     * in a different way.
+     * @param session Session instance.
+     * @param query Query instance.
+     * @return Fingerprint of the query.
+     */
+    public static String of(PostgresStorageSession session, Query query) {
+        boolean inAsArray = SystemProperties.getBoolean(PostgresProperties.Statement.IN_AS_ARRAY);
+        StringBuilder builder = new StringBuilder();
+        builder.append(session.getClass().getName()).append(SEPARATOR);
+        builder.append(inAsArray ? 'a' : 'l').append(SEPARATOR);
+        builder.append(query.getResourceName()).append(SEPARATOR);
+
+        if(query.returnAll()) {
+            builder.append('*');
+        } else {
+            for (Query.QueryReturnParameter returnParameter : query.getReturnParameters()) {
+                builder.append(returnParameter).append(' ').append(returnParameter.getAlias()).append(',');
+            }
+        }
+        builder.append(SEPARATOR);
+
+        if(query.getJoins() != null) {
+            for (Join join : query.getJoins()) {
+                builder.append(join.getType()).append(' ').append(join.getResourceName()).append(' ');
+                builder.append(join.getLeftField().getCompleteFieldName()).append('=');
+                builder.append(join.getRightField().getCompleteFieldName()).append(',');
+            }
+        }
+        builder.append(SEPARATOR);
+
+        appendEvaluators(builder, query, inAsArray);
+        builder.append(SEPARATOR);
+
+        for (Query.QueryReturnParameter groupParameter : query.getGroupParameters()) {
+            builder.append(groupParameter).append(',');
+        }
+        builder.append(SEPARATOR);
+
+        for (Query.QueryOrderParameter orderParameter : query.getOrderParameters()) {
+            if(orderParameter.isDesc()) {
+                builder.append(DESC);
+            }
+            builder.append(orderParameter).append(',');
+        }
+        builder.append(SEPARATOR);
+
+        builder.append(query.getLimit());
+        return builder.toString();
+    }
+
+    /**
+     * Add the shape of the evaluator tree: the kind of each evaluator, the field and
+     * all the information of the values that change the sql text.
+     * @param builder Fingerprint builder.
+     * @param collection Evaluator collection.
+     * @param inAsArray True if the in lists are bound as a single array.
+     */
+    private static void appendEvaluators(StringBuilder builder, EvaluatorCollection collection, boolean inAsArray) {
+        builder.append(collection instanceof Or ? 'O' : 'A').append(START_GROUP);
+        for(Evaluator evaluator : collection.getEvaluators()) {
+            if(evaluator instanceof EvaluatorCollection) {
+                appendEvaluators(builder, (EvaluatorCollection) evaluator, inAsArray);
+            } else if(evaluator instanceof FieldEvaluator) {
+                FieldEvaluator fieldEvaluator = (FieldEvaluator) evaluator;
+                builder.append(evaluator.getClass().getSimpleName()).append(' ');
+                builder.append(fieldEvaluator.getQueryParameter());
+                Object rawValue = fieldEvaluator.getRawValue();
+                if(rawValue == null) {
+                    builder.append(NULL_VALUE);
+                } else if(!inAsArray && rawValue instanceof Collection &&
+                        (evaluator instanceof In || evaluator instanceof NotIn)) {
+                    builder.append('#').append(((Collection) rawValue).size());
+                }
+            }
+            builder.append(',');
+        }
+        builder.append(END_GROUP);
+    }
+}
@@ -0,0 +1,503 @@
+package org.hcjf.layers.storage.postgres.cache;
+
+import org.hcjf.layers.query.JoinableMap;
+import org.hcjf.layers.storage.actions.CollectionResultSet;
+import org.hcjf.layers.storage.actions.MapResultSet;
+import org.hcjf.layers.storage.actions.ResultSet;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.hcjf.log.Log;
+import org.hcjf.properties.SystemProperties;
+import org.hcjf.utils.Introspection;
+import org.hcjf.utils.Strings;
+
+import java.lang.reflect.Array;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of select results, only for the enabled resources. The entries are bounded by time to live and by
+ * the estimated size in bytes of all the cached results, when the size is exceeded the least recently used
+ * entries are evicted. Each resource has a generation counter that is incremented when a write over the
+ * resource is committed, the entries created with an old generation of some of its resources are discarded.
+ * The rows are stored as snapshots of its values and each reader receives new row objects, so the rows
+ * returned by the cache can be modified without affecting the other readers. The dates, lists and arrays
+ * are copied too, the other values are shared.
+ * @author Javier Quiroga.
+ */
+public class ResultCache {
+
+    private static final long ENTRY_OVERHEAD = 96;
+    private static final long REFERENCE_SIZE = 8;
+    private static final long STRING_OVERHEAD = 40;
+    private static final long BOXED_VALUE_SIZE = 24;
+    private static final long OBJECT_SIZE = 64;
+
+    private final long maxBytes;
+    private final long timeToLive;
+    private final Set<String> enabledResources;
+    private final Map<String, AtomicLong> generations;
+    private final LinkedHashMap<Key, Entry> entries;
+    private long bytes;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private final LongAdder expirations;
+    private final LongAdder invalidations;
+
+    public ResultCache(long maxBytes, long timeToLive, Collection<String> enabledResources) {
+        this.maxBytes = maxBytes;
+        this.timeToLive = timeToLive;
+        this.enabledResources = ConcurrentHashMap.newKeySet();
+        this.enabledResources.addAll(enabledResources);
+        this.generations = new ConcurrentHashMap<>();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+        this.expirations = new LongAdder();
+        this.invalidations = new LongAdder();
+    }
+
+    /**
+     * Return the result cache of the layer.
+     * @return Result cache instance.
+     */
+    public static ResultCache getInstance() {
+        return ResultCacheHolder.INSTANCE;
+    }
+
+    /**
+     * Enables the cache for the resource.
+     * @param resourceName Name of the resource.
+     */
+    public void enable(String resourceName) {
+        enabledResources.add(resourceName);
+    }
+
+    /**
+     * Disables the cache for the resource and invalidates its entries.
+     * @param resourceName Name of the resource.
+     */
+    public void disable(String resourceName) {
+        enabledResources.remove(resourceName);
+        invalidate(resourceName);
+    }
+
+    /**
+     * Return true if all the resources are enabled.
+     * @param resourceNames Names of the resources.
+     * @return True if the results of the resources can be cached.
+     */
+    public boolean isEnabled(Collection<String> resourceNames) {
+        return !enabledResources.isEmpty() && enabledResources.containsAll(resourceNames);
+    }
+
+    /**
+     * Return the current generation of the resource.
+     * @param resourceName Name of the resource.
+     * @return Generation.
+     */
+    public long getGeneration(String resourceName) {
+        AtomicLong generation = generations.get(resourceName);
+        return generation == null ? 0 : generation.get();
+    }
+
+    /**
+     * Return the current generations of the resources, this method must be called before the query is executed
+     * in order to discard the result if some resource is written during the execution.
+     * @param resourceNames Names of the resources.
+     * @return Generations by resource name.
+     */
+    public Map<String, Long> getGenerations(Collection<String> resourceNames) {
+        Map<String, Long> result = new HashMap<>();
+        for(String resourceName : resourceNames) {
+            result.put(resourceName, getGeneration(resourceName));
+        }
+        return result;
+    }
+
+    /**
+     * Return the cached result for the key.
+     * @param key Cache key.
+     * @param <R> Expected result set.
+     * @return Result set or null if there are not a valid entry.
+     */
+    public <R extends ResultSet> R get(Key key) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if(entry != null) {
+                if(entry.expiresAt < System.currentTimeMillis()) {
+                    remove(key);
+                    expirations.increment();
+                    entry = null;
+                } else if(!isCurrent(entry.generations)) {
+                    remove(key);
+                    entry = null;
+                }
+            }
+        }
+
+        R result = null;
+        if(entry != null) {
+            try {
+                result = entry.createResultSet(key.resultType);
+            } catch (Exception ex) {
+                Log.d(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                        "Unable to restore the cached rows", ex);
+                synchronized (this) {
+                    remove(key);
+                }
+            }
+        }
+
+        if(result == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Stores the result set if the generations of the resources are still current and the result fits into the cache.
+     * The cache stores a snapshot of the values of the rows, the rows of the result set are not referenced by the cache
+     * and the size of the entry is estimated from the stored snapshots.
+     * @param key Cache key.
+     * @param generations Generations taken before the query execution.
+     * @param resourceName Name of the resource of the map rows.
+     * @param resultSet Result set to store.
+     */
+    public void put(Key key, Map<String, Long> generations, String resourceName, ResultSet resultSet) {
+        Object result = resultSet.getResult();
+        if(result instanceof Collection) {
+            try {
+                List<Map<String, Object>> rows = new ArrayList<>(((Collection<?>) result).size());
+                for(Object row : (Collection<?>) result) {
+                    rows.add(snapshot(row));
+                }
+                long size = ENTRY_OVERHEAD + key.size + estimateSize(rows);
+                if(size <= maxBytes) {
+                    Entry entry = new Entry(rows, resultSet instanceof MapResultSet, resourceName,
+                            generations, System.currentTimeMillis() + timeToLive, size);
+                    synchronized (this) {
+                        if(isCurrent(generations)) {
+                            remove(key);
+                            entries.put(key, entry);
+                            bytes += entry.size;
+                            Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+                            while (bytes > maxBytes && iterator.hasNext()) {
+                                bytes -= iterator.next().getValue().size;
+                                iterator.remove();
+                                evictions.increment();
+                            }
+                        }
+                    }
+                }
+            } catch (Exception ex) {
+                Log.d(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                        "Unable to cache the rows", ex);
+            }
+        }
+    }
+
+    /**
+     * Increments the generation of the resource and removes all its entries.
+     * @param resourceName Name of the resource.
+     */
+    public void invalidate(String resourceName) {
+        generations.computeIfAbsent(resourceName, key -> new AtomicLong()).incrementAndGet();
+        synchronized (this) {
+            Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next().getValue();
+                if(entry.generations.containsKey(resourceName)) {
+                    bytes -= entry.size;
+                    iterator.remove();
+                    invalidations.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all the entries.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Return the number of entries.
+     * @return Number of entries.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Return the estimated size in bytes of all the entries.
+     * @return Size in bytes.
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Return the max size in bytes.
+     * @return Max size in bytes.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Return the number of hits.
+     * @return Hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Return the number of misses.
+     * @return Misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Return the number of entries evicted by the size bound.
+     * @return Evictions.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Return the number of entries discarded by the time to live.
+     * @return Expirations.
+     */
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    /**
+     * Return the number of entries removed by writes over its resources.
+     * @return Invalidations.
+     */
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    private boolean isCurrent(Map<String, Long> entryGenerations) {
+        boolean result = true;
+        for(Map.Entry<String, Long> generation : entryGenerations.entrySet()) {
+            if(getGeneration(generation.getKey()) != generation.getValue()) {
+                result = false;
+                break;
+            }
+        }
+        return result;
+    }
+
+    private void remove(Key key) {
+        Entry entry = entries.remove(key);
+        if(entry != null) {
+            bytes -= entry.size;
+        }
+    }
+
+    /**
+     * Creates a snapshot with the values of the row, the values of the beans are read with its getters.
+     * @param row Map row or bean.
+     * @return Values of the row indexed by name.
+     * @throws Exception
+     */
+    private static Map<String, Object> snapshot(Object row) throws Exception {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if(row instanceof Map) {
+            for(Map.Entry<?, ?> entry : ((Map<?, ?>) row).entrySet()) {
+                result.put((String) entry.getKey(), copyValue(entry.getValue()));
+            }
+        } else {
+            for(Map.Entry<String, Introspection.Getter> getter : Introspection.getGetters(row.getClass()).entrySet()) {
+                result.put(getter.getKey(), copyValue(getter.getValue().get(row)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copies the mutable values that are created by the mapping: dates, lists and arrays.
+     * @param value Value of the row.
+     * @return Copy of the value or the same value if it is not copied.
+     */
+    private static Object copyValue(Object value) {
+        Object result = value;
+        if(value instanceof Date) {
+            result = ((Date) value).clone();
+        } else if(value instanceof List) {
+            result = new ArrayList<>((List<?>) value);
+        } else if(value != null && value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            result = Array.newInstance(value.getClass().getComponentType(), length);
+            System.arraycopy(value, 0, result, 0, length);
+        }
+        return result;
+    }
+
+    /**
+     * Estimates the memory used by the object.
+     * @param object Object instance.
+     * @return Estimated size in bytes.
+     */
+    private static long estimateSize(Object object) {
+        long result;
+        if(object == null) {
+            result = REFERENCE_SIZE;
+        } else if(object instanceof String) {
+            result = STRING_OVERHEAD + 2L * ((String) object).length();
+        } else if(object instanceof byte[]) {
+            result = BOXED_VALUE_SIZE + ((byte[]) object).length;
+        } else if(object instanceof Number || object instanceof Boolean || object instanceof Date || object instanceof UUID) {
+            result = BOXED_VALUE_SIZE;
+        } else if(object instanceof Map) {
+            result = OBJECT_SIZE;
+            for(Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                result += BOXED_VALUE_SIZE + estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+            }
+        } else if(object instanceof Collection) {
+            result = OBJECT_SIZE;
+            for(Object element : (Collection<?>) object) {
+                result += REFERENCE_SIZE + estimateSize(element);
+            }
+        } else if(object.getClass().isArray()) {
+            result = OBJECT_SIZE;
+            for (int i = 0; i < Array.getLength(object); i++) {
+                result += REFERENCE_SIZE + estimateSize(Array.get(object, i));
+            }
+        } else {
+            result = OBJECT_SIZE;
+        }
+        return result;
+    }
+
+    /**
+     * Key of the cache, composed by the query fingerprint, the result type and the bound values.
+     */
+    public static class Key {
+
+        private final String fingerprint;
+        private final Class resultType;
+        private final List<Object> values;
+        private final long size;
+        private final int hashCode;
+
+        public Key(String fingerprint, Class resultType, List<Object> values) {
+            this.fingerprint = fingerprint;
+            this.resultType = resultType;
+            this.values = values;
+            this.size = estimateSize(fingerprint) + estimateSize(values);
+            this.hashCode = Objects.hash(fingerprint, resultType, values);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            boolean result = false;
+            if(obj == this) {
+                result = true;
+            } else if(obj instanceof Key) {
+                Key key = (Key) obj;
+                result = hashCode == key.hashCode && fingerprint.equals(key.fingerprint) &&
+                        Objects.equals(resultType, key.resultType) && values.equals(key.values);
+            }
+            return result;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static class Entry {
+
+        private final List<Map<String, Object>> rows;
+        private final boolean mapResult;
+        private final String resourceName;
+        private final Map<String, Long> generations;
+        private final long expiresAt;
+        private final long size;
+
+        private Entry(List<Map<String, Object>> rows, boolean mapResult, String resourceName,
+                      Map<String, Long> generations, long expiresAt, long size) {
+            this.rows = rows;
+            this.mapResult = mapResult;
+            this.resourceName = resourceName;
+            this.generations = generations;
+            this.expiresAt = expiresAt;
+            this.size = size;
+        }
+
+        /**
+         * Creates a result set with new rows from the snapshots.
+         * @param resultType Type of the rows of the collection result sets.
+         * @param <R> Expected result set.
+         * @return Result set.
+         * @throws Exception
+         */
+        private <R extends ResultSet> R createResultSet(Class resultType) throws Exception {
+            R result;
+            if(mapResult) {
+                List<Map<String, Object>> resultRows = new ArrayList<>(rows.size());
+                for(Map<String, Object> row : rows) {
+                    JoinableMap resultRow = new JoinableMap(resourceName);
+                    for(Map.Entry<String, Object> value : row.entrySet()) {
+                        resultRow.put(value.getKey(), copyValue(value.getValue()));
+                    }
+                    resultRows.add(resultRow);
+                }
+                result = (R) new MapResultSet(resultRows);
+            } else {
+                Map<String, Introspection.Setter> setters = Introspection.getSetters(resultType);
+                List<Object> resultRows = new ArrayList<>(rows.size());
+                for(Map<String, Object> row : rows) {
+                    Object resultRow = resultType.newInstance();
+                    for(Map.Entry<String, Object> value : row.entrySet()) {
+                        Introspection.Setter setter = setters.get(value.getKey());
+                        if(setter != null) {
+                            setter.invoke(resultRow, copyValue(value.getValue()));
+                        }
+                    }
+                    resultRows.add(resultRow);
+                }
+                result = (R) new CollectionResultSet(resultRows);
+            }
+            return result;
+        }
+    }
+
+    private static class ResultCacheHolder {
+        private static final ResultCache INSTANCE = new ResultCache(
+                SystemProperties.getLong(PostgresProperties.ResultCache.MAX_BYTES),
+                SystemProperties.getLong(PostgresProperties.ResultCache.TIME_TO_LIVE),
+                getResources(SystemProperties.get(PostgresProperties.ResultCache.RESOURCES)));
+
+        private static Collection<String> getResources(String resources) {
+            Collection<String> result = new ArrayList<>();
+            if(resources != null) {
+                for(String resource : resources.split(Strings.ARGUMENT_SEPARATOR)) {
+                    if(!resource.trim().isEmpty()) {
+                        result.add(resource.trim());
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.hcjf.layers.storage.postgres.cache;
+
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.hcjf.log.Log;
+import org.hcjf.properties.SystemProperties;
+import org.postgresql.PGStatement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of prepared statements associated to a physical connection. The statements are
+ * indexed by the sql text and evicted in least recently used order, each evicted statement
+ * is closed.
+ * @author Javier Quiroga.
+ */
+public class StatementCache {
+
+    private static final Map<Connection, StatementCache> caches = new ConcurrentHashMap<>();
+
+    private final Connection connection;
+    private final int maxSize;
+    private final boolean serverPrepared;
+    private final LinkedHashMap<String, PreparedStatement> idleStatements;
+    private final Map<PreparedStatement, String> borrowedStatements;
+
+    private StatementCache(Connection connection, int maxSize, boolean serverPrepared) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.serverPrepared = serverPrepared;
+        this.idleStatements = new LinkedHashMap<>(16, 0.75f, true);
+        this.borrowedStatements = new IdentityHashMap<>();
+    }
+
+    /**
+     * Return the cache associated to the physical connection, if the cache not exists then it's created.
+     * The caches of the closed connections are discarded each time that a new cache is created.
+     * @param connection Physical connection.
+     * @return Statement cache instance.
+     */
+    public static StatementCache get(Connection connection) {
+        StatementCache result = caches.get(connection);
+        if(result == null) {
+            caches.entrySet().removeIf(entry -> isClosed(entry.getKey()));
+            result = caches.computeIfAbsent(connection, key -> new StatementCache(key,
+                    SystemProperties.getInteger(PostgresProperties.Statement.CACHE_SIZE),
+                    SystemProperties.getBoolean(PostgresProperties.Statement.SERVER_PREPARED)));
+        }
+        return result;
+    }
+
+    private static boolean isClosed(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException ex) {
+            return true;
+        }
+    }
+
+    /**
+     * Return a statement for the sql text, the statement is taken from the idle statements
+     * or is prepared if there are not an idle statement for the same sql.
+     * @param sql Sql text.
+     * @return Prepared statement.
+     * @throws SQLException
+     */
+    public synchronized PreparedStatement borrow(String sql) throws SQLException {
+        PreparedStatement result = idleStatements.remove(sql);
+        if(result == null || result.isClosed()) {
+            result = connection.prepareStatement(sql);
+            if(serverPrepared) {
+                result.unwrap(PGStatement.class).setPrepareThreshold(1);
+            }
+        }
+        borrowedStatements.put(result, sql);
+        return result;
+    }
+
+    /**
+     * Return the statement to the cache. If there are other idle statement for the same sql
+     * or the statement is not borrowed from this cache then the statement is closed.
+     * @param statement Borrowed statement.
+     */
+    public synchronized void release(PreparedStatement statement) {
+        String sql = borrowedStatements.remove(statement);
+        try {
+            if(sql != null && maxSize > 0 && !statement.isClosed() && !idleStatements.containsKey(sql)) {
+                statement.clearParameters();
+                idleStatements.put(sql, statement);
+                if(idleStatements.size() > maxSize) {
+                    Iterator<PreparedStatement> iterator = idleStatements.values().iterator();
+                    PreparedStatement eldest = iterator.next();
+                    iterator.remove();
+                    close(eldest);
+                }
+            } else {
+                close(statement);
+            }
+        } catch (SQLException ex) {
+            close(statement);
+        }
+    }
+
+    /**
+     * Close all the idle statements.
+     */
+    public synchronized void clear() {
+        for(PreparedStatement statement : idleStatements.values()) {
+            close(statement);
+        }
+        idleStatements.clear();
+    }
+
+    /**
+     * Return the number of idle statements.
+     * @return Number of idle statements.
+     */
+    public synchronized int size() {
+        return idleStatements.size();
+    }
+
+    private void close(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ex) {
+            Log.d(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                    "Unable to close cached statement", ex);
+        }
+    }
+}
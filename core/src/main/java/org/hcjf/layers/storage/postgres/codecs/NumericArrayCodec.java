@@ -0,0 +1,134 @@
+package org.hcjf.layers.storage.postgres.codecs;
+
+import org.postgresql.core.Oid;
+
+import java.sql.*;
+import java.util.Arrays;
+
+/**
+ * Codec for the one-dimensional arrays of int, bigint and double precision. The values are bound as array
+ * literals and read from the text representation of the column directly into primitive arrays, without
+ * boxing the elements. The arrays with null elements or with more than one dimension are read as lists.
+ * @author Javier Quiroga.
+ */
+public class NumericArrayCodec implements TypeCodec<Object> {
+
+    private static final char START_ARRAY = '{';
+    private static final char END_ARRAY = '}';
+    private static final char SEPARATOR = ',';
+    private static final String NULL_ELEMENT = "NULL";
+
+    private final ElementType elementType;
+    private final boolean primitiveArrays;
+
+    /**
+     * Codec constructor.
+     * @param elementType Type of the elements.
+     * @param primitiveArrays If true the columns are read as primitive arrays, in other case as lists.
+     */
+    public NumericArrayCodec(ElementType elementType, boolean primitiveArrays) {
+        this.elementType = elementType;
+        this.primitiveArrays = primitiveArrays;
+    }
+
+    @Override
+    public Class<Object> getJavaType() {
+        return (Class<Object>) elementType.javaType;
+    }
+
+    @Override
+    public int[] getOids() {
+        return elementType.oids;
+    }
+
+    @Override
+    public void bind(PreparedStatement statement, int index, Object value) throws SQLException {
+        StringBuilder literal = new StringBuilder().append(START_ARRAY);
+        int length = java.lang.reflect.Array.getLength(value);
+        for (int i = 0; i < length; i++) {
+            if(i > 0) {
+                literal.append(SEPARATOR);
+            }
+            switch (elementType) {
+                case INT: literal.append(((int[]) value)[i]); break;
+                case LONG: literal.append(((long[]) value)[i]); break;
+                default: literal.append(((double[]) value)[i]);
+            }
+        }
+        literal.append(END_ARRAY);
+        statement.setObject(index, literal.toString(), Types.OTHER);
+    }
+
+    @Override
+    public Object read(ResultSet resultSet, int columnIndex) throws SQLException {
+        Object result;
+        if(primitiveArrays) {
+            String text = resultSet.getString(columnIndex);
+            if(text == null) {
+                result = null;
+            } else if(text.isEmpty() || text.charAt(0) != START_ARRAY ||
+                    text.indexOf(START_ARRAY, 1) >= 0 || text.contains(NULL_ELEMENT)) {
+                result = readList(resultSet, columnIndex);
+            } else {
+                result = parse(text);
+            }
+        } else {
+            result = readList(resultSet, columnIndex);
+        }
+        return result;
+    }
+
+    private Object readList(ResultSet resultSet, int columnIndex) throws SQLException {
+        Array array = resultSet.getArray(columnIndex);
+        return array == null ? null : Arrays.asList((Object[]) array.getArray());
+    }
+
+    private Object parse(String text) {
+        int end = text.length() - 1;
+        int size = end == 1 ? 0 : 1;
+        for (int i = 1; i < end; i++) {
+            if(text.charAt(i) == SEPARATOR) {
+                size++;
+            }
+        }
+
+        Object result;
+        switch (elementType) {
+            case INT: result = new int[size]; break;
+            case LONG: result = new long[size]; break;
+            default: result = new double[size];
+        }
+        int start = 1;
+        for (int i = 0; i < size; i++) {
+            int separator = text.indexOf(SEPARATOR, start);
+            String element = text.substring(start, separator < 0 ? end : separator).trim();
+            switch (elementType) {
+                case INT: ((int[]) result)[i] = Integer.parseInt(element); break;
+                case LONG: ((long[]) result)[i] = Long.parseLong(element); break;
+                default: ((double[]) result)[i] = Double.parseDouble(element);
+            }
+            start = separator + 1;
+        }
+        return result;
+    }
+
+    /**
+     * Element types supported by the codec.
+     */
+    public enum ElementType {
+
+        INT(int[].class, Oid.INT2_ARRAY, Oid.INT4_ARRAY),
+
+        LONG(long[].class, Oid.INT8_ARRAY),
+
+        DOUBLE(double[].class, Oid.FLOAT4_ARRAY, Oid.FLOAT8_ARRAY);
+
+        private final Class javaType;
+        private final int[] oids;
+
+        ElementType(Class javaType, int... oids) {
+            this.javaType = javaType;
+            this.oids = oids;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.hcjf.layers.storage.postgres.codecs;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Codec composed by a binder function and a reader function.
+ * @param <T> Java type bound by the codec.
+ * @author Javier Quiroga.
+ */
+public class SimpleCodec<T> implements TypeCodec<T> {
+
+    private static final int[] NO_OIDS = new int[0];
+
+    private final Class<T> javaType;
+    private final Binder<T> binder;
+    private final Reader reader;
+    private final int[] oids;
+
+    /**
+     * Codec constructor.
+     * @param javaType Java type bound by the codec, null if the codec only reads values.
+     * @param binder Binder of the values, null if the codec only reads values.
+     * @param reader Reader of the values, null if the codec only binds values.
+     * @param oids Oids of the postgres types read by the codec.
+     */
+    public SimpleCodec(Class<T> javaType, Binder<T> binder, Reader reader, int... oids) {
+        this.javaType = binder == null ? null : javaType;
+        this.binder = binder;
+        this.reader = reader;
+        this.oids = reader == null ? NO_OIDS : oids;
+    }
+
+    @Override
+    public Class<T> getJavaType() {
+        return javaType;
+    }
+
+    @Override
+    public int[] getOids() {
+        return oids;
+    }
+
+    @Override
+    public void bind(PreparedStatement statement, int index, T value) throws SQLException {
+        binder.bind(statement, index, value);
+    }
+
+    @Override
+    public Object read(ResultSet resultSet, int columnIndex) throws SQLException {
+        return reader.read(resultSet, columnIndex);
+    }
+
+    /**
+     * Binds a value as statement parameter.
+     * @param <T> Java type.
+     */
+    public interface Binder<T> {
+
+        void bind(PreparedStatement statement, int index, T value) throws SQLException;
+
+    }
+
+    /**
+     * Reads the value of a column.
+     */
+    public interface Reader {
+
+        Object read(ResultSet resultSet, int columnIndex) throws SQLException;
+
+    }
+}
@@ -0,0 +1,45 @@
+package org.hcjf.layers.storage.postgres.codecs;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Binds the values of a java type as statement parameters and reads the values of some postgres types
+ * from the result sets, using the typed methods of jdbc.
+ * @param <T> Java type bound by the codec.
+ * @author Javier Quiroga.
+ */
+public interface TypeCodec<T> {
+
+    /**
+     * Return the java type bound by the codec, the codec is used for the subtypes too.
+     * @return Java type or null if the codec only reads values.
+     */
+    Class<T> getJavaType();
+
+    /**
+     * Return the oids of the postgres types read by the codec.
+     * @return Postgres type oids.
+     */
+    int[] getOids();
+
+    /**
+     * Binds the value as statement parameter.
+     * @param statement Prepared statement.
+     * @param index Index of the parameter.
+     * @param value Not null value.
+     * @throws SQLException
+     */
+    void bind(PreparedStatement statement, int index, T value) throws SQLException;
+
+    /**
+     * Reads the value of the column for the current row.
+     * @param resultSet Postgres result set positioned on the row.
+     * @param columnIndex Index of the column.
+     * @return Java value or null.
+     * @throws SQLException
+     */
+    Object read(ResultSet resultSet, int columnIndex) throws SQLException;
+
+}
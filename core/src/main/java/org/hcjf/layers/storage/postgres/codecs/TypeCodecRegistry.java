@@ -0,0 +1,190 @@
+package org.hcjf.layers.storage.postgres.codecs;
+
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.hcjf.layers.storage.postgres.values.JsonValue;
+import org.hcjf.properties.SystemProperties;
+import org.postgresql.core.Oid;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.*;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the codecs indexed by java type, to bind the parameters, and by postgres type oid, to read
+ * the columns. The codec of a java type is resolved walking the class hierarchy only the first time for
+ * each class. The applications can register its own codecs, the last codec registered for a java type or
+ * for an oid replaces the previous one.
+ * @author Javier Quiroga.
+ */
+public class TypeCodecRegistry {
+
+    private static final int JSONB_OID = 3802;
+    private static final TypeCodec<?> NO_CODEC = new SimpleCodec<>(null, null, null);
+
+    private final Map<Class, TypeCodec<?>> codecsByType;
+    private final Map<Integer, TypeCodec<?>> codecsByOid;
+    private final Map<Class, TypeCodec<?>> resolvedCodecs;
+
+    public TypeCodecRegistry() {
+        this.codecsByType = new ConcurrentHashMap<>();
+        this.codecsByOid = new ConcurrentHashMap<>();
+        this.resolvedCodecs = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Return the registry of the layer, with the built-in codecs.
+     * @return Registry instance.
+     */
+    public static TypeCodecRegistry getInstance() {
+        return TypeCodecRegistryHolder.INSTANCE;
+    }
+
+    /**
+     * Registers the codec for its java type and for its oids.
+     * @param codec Codec instance.
+     */
+    public void register(TypeCodec<?> codec) {
+        if(codec.getJavaType() != null) {
+            codecsByType.put(codec.getJavaType(), codec);
+            resolvedCodecs.clear();
+        }
+        for(int oid : codec.getOids()) {
+            codecsByOid.put(oid, codec);
+        }
+    }
+
+    /**
+     * Return the codec to bind the values of the java type.
+     * @param javaType Java type.
+     * @param <T> Java type.
+     * @return Codec or null if there are not a codec for the type or for some of its super types.
+     */
+    public <T> TypeCodec<T> get(Class<T> javaType) {
+        TypeCodec<?> result = resolvedCodecs.get(javaType);
+        if(result == null) {
+            result = resolve(javaType);
+            resolvedCodecs.put(javaType, result == null ? NO_CODEC : result);
+        } else if(result == NO_CODEC) {
+            result = null;
+        }
+        return (TypeCodec<T>) result;
+    }
+
+    /**
+     * Return the codec to read the columns of the postgres type.
+     * @param oid Postgres type oid.
+     * @return Codec or null if there are not a codec for the type.
+     */
+    public TypeCodec<?> get(int oid) {
+        return codecsByOid.get(oid);
+    }
+
+    private TypeCodec<?> resolve(Class javaType) {
+        TypeCodec<?> result = null;
+        for(Class type = javaType; type != null && result == null; type = type.getSuperclass()) {
+            result = codecsByType.get(type);
+            if(result == null) {
+                for(Class interfaceType : type.getInterfaces()) {
+                    result = codecsByType.get(interfaceType);
+                    if(result != null) {
+                        break;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Registers the codecs of the common types. The compatibility properties keep the values read by the
+     * previous mapping: numeric as double, timestamps as dates and arrays as lists. The json columns are
+     * read as the object of the driver, like the previous mapping.
+     */
+    private void registerBuiltInCodecs() {
+        boolean numericAsDouble = SystemProperties.getBoolean(PostgresProperties.Codec.NUMERIC_AS_DOUBLE);
+        boolean javaTime = SystemProperties.getBoolean(PostgresProperties.Codec.JAVA_TIME);
+        boolean primitiveArrays = SystemProperties.getBoolean(PostgresProperties.Codec.PRIMITIVE_ARRAYS);
+
+        register(new SimpleCodec<>(Short.class, (s, i, v) -> s.setShort(i, v), null));
+        register(new SimpleCodec<>(Integer.class, (s, i, v) -> s.setInt(i, v), (r, c) -> {
+            int value = r.getInt(c);
+            return r.wasNull() ? null : value;
+        }, Oid.INT2, Oid.INT4));
+        register(new SimpleCodec<>(Long.class, (s, i, v) -> s.setLong(i, v), (r, c) -> {
+            long value = r.getLong(c);
+            return r.wasNull() ? null : value;
+        }, Oid.INT8));
+        register(new SimpleCodec<>(Float.class, (s, i, v) -> s.setFloat(i, v), (r, c) -> {
+            float value = r.getFloat(c);
+            return r.wasNull() ? null : value;
+        }, Oid.FLOAT4));
+        register(new SimpleCodec<>(Double.class, (s, i, v) -> s.setDouble(i, v), (r, c) -> {
+            double value = r.getDouble(c);
+            return r.wasNull() ? null : value;
+        }, Oid.FLOAT8));
+        register(new SimpleCodec<>(BigDecimal.class, (s, i, v) -> s.setBigDecimal(i, v), (r, c) -> {
+            Object result;
+            if(numericAsDouble) {
+                double value = r.getDouble(c);
+                result = r.wasNull() ? null : value;
+            } else {
+                result = r.getBigDecimal(c);
+            }
+            return result;
+        }, Oid.NUMERIC));
+        register(new SimpleCodec<>(Boolean.class, (s, i, v) -> s.setBoolean(i, v), (r, c) -> {
+            boolean value = r.getBoolean(c);
+            return r.wasNull() ? null : value;
+        }, Oid.BOOL));
+        register(new SimpleCodec<>(String.class, (s, i, v) -> s.setString(i, v), (r, c) -> r.getString(c),
+                Oid.TEXT, Oid.VARCHAR, Oid.BPCHAR, Oid.NAME));
+        register(new SimpleCodec<>(UUID.class, (s, i, v) -> s.setObject(i, v), (r, c) -> r.getObject(c),
+                Oid.UUID));
+        register(new SimpleCodec<>(byte[].class, (s, i, v) -> s.setBytes(i, v), (r, c) -> r.getBytes(c),
+                Oid.BYTEA));
+        register(new SimpleCodec<>(JsonValue.class, (s, i, v) -> s.setObject(i, v.getJson(), Types.OTHER),
+                (r, c) -> r.getObject(c), Oid.JSON, JSONB_OID));
+
+        register(new SimpleCodec<>(Date.class, (s, i, v) -> s.setTimestamp(i, new Timestamp(v.getTime())), (r, c) -> {
+            Object result;
+            if(javaTime) {
+                result = r.getObject(c, LocalDateTime.class);
+            } else {
+                Timestamp value = r.getTimestamp(c);
+                result = value == null ? null : new Date(value.getTime());
+            }
+            return result;
+        }, Oid.TIMESTAMP));
+        register(new SimpleCodec<>(OffsetDateTime.class, (s, i, v) -> s.setObject(i, v), (r, c) -> {
+            Object result;
+            if(javaTime) {
+                result = r.getObject(c, OffsetDateTime.class);
+            } else {
+                Timestamp value = r.getTimestamp(c);
+                result = value == null ? null : new Date(value.getTime());
+            }
+            return result;
+        }, Oid.TIMESTAMPTZ));
+        register(new SimpleCodec<>(Instant.class, (s, i, v) -> s.setObject(i, v.atOffset(ZoneOffset.UTC)), null));
+        register(new SimpleCodec<>(LocalDateTime.class, (s, i, v) -> s.setObject(i, v), null));
+        register(new SimpleCodec<>(LocalDate.class, (s, i, v) -> s.setObject(i, v), (r, c) ->
+                javaTime ? r.getObject(c, LocalDate.class) : r.getDate(c), Oid.DATE));
+
+        register(new NumericArrayCodec(NumericArrayCodec.ElementType.INT, primitiveArrays));
+        register(new NumericArrayCodec(NumericArrayCodec.ElementType.LONG, primitiveArrays));
+        register(new NumericArrayCodec(NumericArrayCodec.ElementType.DOUBLE, primitiveArrays));
+    }
+
+    private static class TypeCodecRegistryHolder {
+        private static final TypeCodecRegistry INSTANCE = new TypeCodecRegistry();
+
+        static {
+            INSTANCE.registerBuiltInCodecs();
+        }
+    }
+}
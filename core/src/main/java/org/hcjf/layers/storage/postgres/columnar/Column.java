@@ -0,0 +1,179 @@
+package org.hcjf.layers.storage.postgres.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * Column of a columnar result set. The values are stored into a primitive array specialized by type and the
+ * nulls are stored into a bitmap, one bit for each row.
+ * @author Javier Quiroga.
+ */
+public abstract class Column {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final String name;
+    private long[] nulls;
+    private int size;
+
+    protected Column(String name) {
+        this.name = name;
+        this.nulls = new long[words(INITIAL_CAPACITY)];
+    }
+
+    /**
+     * Creates the column specialized for the jdbc type.
+     * @param name Name of the column.
+     * @param sqlType Jdbc type of the column, one of {@link Types}.
+     * @param converter Converter used by the columns without specialization.
+     * @return Column instance.
+     */
+    public static Column create(String name, int sqlType, ObjectColumn.Converter converter) {
+        Column result;
+        switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER: result = new IntColumn(name); break;
+            case Types.BIGINT: result = new LongColumn(name); break;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+            case Types.NUMERIC:
+            case Types.DECIMAL: result = new DoubleColumn(name); break;
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR: result = new StringColumn(name); break;
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE: result = new TimestampColumn(name); break;
+            default: result = new ObjectColumn(name, converter);
+        }
+        return result;
+    }
+
+    /**
+     * Return the name of the column.
+     * @return Column name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Return the number of rows of the column.
+     * @return Number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return true if the value of the row is null.
+     * @param row Row index.
+     * @return Null value.
+     */
+    public boolean isNull(int row) {
+        return (nulls[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Reads the value of the current row of the postgres result set and adds it at the end of the column.
+     * @param resultSet Postgres result set positioned on the row.
+     * @param columnIndex Index of the column into the result set.
+     * @throws SQLException
+     */
+    public final void read(ResultSet resultSet, int columnIndex) throws SQLException {
+        if(size == capacity()) {
+            int capacity = size * 2;
+            grow(capacity);
+            nulls = Arrays.copyOf(nulls, words(capacity));
+        }
+        if(readValue(resultSet, columnIndex, size)) {
+            nulls[size >>> 6] |= 1L << size;
+        }
+        size++;
+    }
+
+    /**
+     * Return the value of the row as int.
+     * @param row Row index.
+     * @return Int value, zero for null values.
+     * @throws IllegalStateException if the column can't be read as int.
+     */
+    public int getInt(int row) {
+        throw new IllegalStateException("The column " + name + " can't be read as int");
+    }
+
+    /**
+     * Return the value of the row as long.
+     * @param row Row index.
+     * @return Long value, zero for null values.
+     * @throws IllegalStateException if the column can't be read as long.
+     */
+    public long getLong(int row) {
+        throw new IllegalStateException("The column " + name + " can't be read as long");
+    }
+
+    /**
+     * Return the value of the row as double.
+     * @param row Row index.
+     * @return Double value, zero for null values.
+     * @throws IllegalStateException if the column can't be read as double.
+     */
+    public double getDouble(int row) {
+        throw new IllegalStateException("The column " + name + " can't be read as double");
+    }
+
+    /**
+     * Return the value of the row as string.
+     * @param row Row index.
+     * @return String value or null.
+     */
+    public String getString(int row) {
+        return isNull(row) ? null : getValue(row).toString();
+    }
+
+    /**
+     * Return the value of the row with the same type that the map result sets.
+     * @param row Row index.
+     * @return Boxed value or null.
+     */
+    public abstract Object getValue(int row);
+
+    /**
+     * Return the number of rows that the column can store without grow.
+     * @return Capacity.
+     */
+    protected abstract int capacity();
+
+    /**
+     * Grows the storage of the column.
+     * @param capacity New capacity.
+     */
+    protected abstract void grow(int capacity);
+
+    /**
+     * Reads the value of the current row of the postgres result set and stores it into the row position.
+     * @param resultSet Postgres result set positioned on the row.
+     * @param columnIndex Index of the column into the result set.
+     * @param row Row position.
+     * @return True if the value is null.
+     * @throws SQLException
+     */
+    protected abstract boolean readValue(ResultSet resultSet, int columnIndex, int row) throws SQLException;
+
+    /**
+     * Return the initial capacity of the columns.
+     * @return Initial capacity.
+     */
+    protected static int initialCapacity() {
+        return INITIAL_CAPACITY;
+    }
+
+    private static int words(int capacity) {
+        return (capacity + 63) >>> 6;
+    }
+}
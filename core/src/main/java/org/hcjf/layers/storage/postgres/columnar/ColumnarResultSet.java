@@ -0,0 +1,154 @@
+package org.hcjf.layers.storage.postgres.columnar;
+
+import org.hcjf.layers.query.JoinableMap;
+import org.hcjf.layers.storage.actions.MapResultSet;
+
+import java.util.*;
+
+/**
+ * Result set stored by columns. The numeric and timestamp values are stored into primitive arrays and
+ * the strings are encoded with a dictionary, so reading millions of rows doesn't create one object
+ * for each cell. The values are accessed by column and row index without boxing, and the result set
+ * can be converted to a map result set when a hcjf result set is needed.
+ * @author Javier Quiroga.
+ */
+public class ColumnarResultSet {
+
+    private final String resourceName;
+    private final Column[] columns;
+    private final Map<String, Integer> indexes;
+    private final int rowCount;
+
+    public ColumnarResultSet(String resourceName, Column[] columns, int rowCount) {
+        this.resourceName = resourceName;
+        this.columns = columns;
+        this.rowCount = rowCount;
+        this.indexes = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            indexes.put(columns[i].getName(), i);
+        }
+    }
+
+    /**
+     * Return the number of rows.
+     * @return Number of rows.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Return the number of columns.
+     * @return Number of columns.
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Return the index of the column, the columns are named with the same keys that the map result sets.
+     * @param name Name of the column.
+     * @return Index of the column or -1 if the column doesn't exist.
+     */
+    public int getColumnIndex(String name) {
+        Integer result = indexes.get(name);
+        return result == null ? -1 : result;
+    }
+
+    /**
+     * Return the column.
+     * @param column Index of the column.
+     * @param <C> Expected column type.
+     * @return Column instance.
+     */
+    public <C extends Column> C getColumn(int column) {
+        return (C) columns[column];
+    }
+
+    /**
+     * Return the column.
+     * @param name Name of the column.
+     * @param <C> Expected column type.
+     * @return Column instance or null if the column doesn't exist.
+     */
+    public <C extends Column> C getColumn(String name) {
+        Integer index = indexes.get(name);
+        return index == null ? null : (C) columns[index];
+    }
+
+    /**
+     * Return true if the value is null.
+     * @param column Index of the column.
+     * @param row Index of the row.
+     * @return Null value.
+     */
+    public boolean isNull(int column, int row) {
+        return columns[column].isNull(row);
+    }
+
+    /**
+     * Return the value as int.
+     * @param column Index of the column.
+     * @param row Index of the row.
+     * @return Int value, zero for null values.
+     */
+    public int getInt(int column, int row) {
+        return columns[column].getInt(row);
+    }
+
+    /**
+     * Return the value as long, the timestamps are returned as milliseconds since the epoch.
+     * @param column Index of the column.
+     * @param row Index of the row.
+     * @return Long value, zero for null values.
+     */
+    public long getLong(int column, int row) {
+        return columns[column].getLong(row);
+    }
+
+    /**
+     * Return the value as double.
+     * @param column Index of the column.
+     * @param row Index of the row.
+     * @return Double value, zero for null values.
+     */
+    public double getDouble(int column, int row) {
+        return columns[column].getDouble(row);
+    }
+
+    /**
+     * Return the value as string.
+     * @param column Index of the column.
+     * @param row Index of the row.
+     * @return String value or null.
+     */
+    public String getString(int column, int row) {
+        return columns[column].getString(row);
+    }
+
+    /**
+     * Return the boxed value.
+     * @param column Index of the column.
+     * @param row Index of the row.
+     * @return Value with the same type that the map result sets.
+     */
+    public Object getValue(int column, int row) {
+        return columns[column].getValue(row);
+    }
+
+    /**
+     * Creates a map result set with the same rows, each row is a new joinable map.
+     * @return Map result set.
+     */
+    public MapResultSet toMapResultSet() {
+        List<Map<String, Object>> rows = new ArrayList<>(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            JoinableMap mapRow = new JoinableMap(resourceName);
+            for(Column column : columns) {
+                mapRow.put(column.getName(), column.getValue(row));
+            }
+            rows.add(mapRow);
+        }
+        return new MapResultSet(rows);
+    }
+}
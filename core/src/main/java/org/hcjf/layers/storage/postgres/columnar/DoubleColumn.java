@@ -0,0 +1,45 @@
+package org.hcjf.layers.storage.postgres.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Column of double values, the numeric columns are read as double in the same way that the map result sets.
+ * @author Javier Quiroga.
+ */
+public class DoubleColumn extends Column {
+
+    private double[] values;
+
+    public DoubleColumn(String name) {
+        super(name);
+        this.values = new double[initialCapacity()];
+    }
+
+    @Override
+    public double getDouble(int row) {
+        return values[row];
+    }
+
+    @Override
+    public Object getValue(int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    protected int capacity() {
+        return values.length;
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    protected boolean readValue(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+        values[row] = resultSet.getDouble(columnIndex);
+        return resultSet.wasNull();
+    }
+}
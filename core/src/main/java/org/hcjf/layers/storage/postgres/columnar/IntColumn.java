@@ -0,0 +1,55 @@
+package org.hcjf.layers.storage.postgres.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Column of int values.
+ * @author Javier Quiroga.
+ */
+public class IntColumn extends Column {
+
+    private int[] values;
+
+    public IntColumn(String name) {
+        super(name);
+        this.values = new int[initialCapacity()];
+    }
+
+    @Override
+    public int getInt(int row) {
+        return values[row];
+    }
+
+    @Override
+    public long getLong(int row) {
+        return values[row];
+    }
+
+    @Override
+    public double getDouble(int row) {
+        return values[row];
+    }
+
+    @Override
+    public Object getValue(int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    protected int capacity() {
+        return values.length;
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    protected boolean readValue(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+        values[row] = resultSet.getInt(columnIndex);
+        return resultSet.wasNull();
+    }
+}
@@ -0,0 +1,50 @@
+package org.hcjf.layers.storage.postgres.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Column of long values.
+ * @author Javier Quiroga.
+ */
+public class LongColumn extends Column {
+
+    private long[] values;
+
+    public LongColumn(String name) {
+        super(name);
+        this.values = new long[initialCapacity()];
+    }
+
+    @Override
+    public long getLong(int row) {
+        return values[row];
+    }
+
+    @Override
+    public double getDouble(int row) {
+        return values[row];
+    }
+
+    @Override
+    public Object getValue(int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    protected int capacity() {
+        return values.length;
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    protected boolean readValue(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+        values[row] = resultSet.getLong(columnIndex);
+        return resultSet.wasNull();
+    }
+}
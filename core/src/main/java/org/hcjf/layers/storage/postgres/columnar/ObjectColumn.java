@@ -0,0 +1,52 @@
+package org.hcjf.layers.storage.postgres.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Column for the types without primitive specialization, the values are read with getObject and
+ * converted with the same conversion that the map result sets.
+ * @author Javier Quiroga.
+ */
+public class ObjectColumn extends Column {
+
+    private final Converter converter;
+    private Object[] values;
+
+    public ObjectColumn(String name, Converter converter) {
+        super(name);
+        this.converter = converter;
+        this.values = new Object[initialCapacity()];
+    }
+
+    @Override
+    public Object getValue(int row) {
+        return values[row];
+    }
+
+    @Override
+    protected int capacity() {
+        return values.length;
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    protected boolean readValue(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+        values[row] = converter.convert(resultSet.getObject(columnIndex));
+        return values[row] == null;
+    }
+
+    /**
+     * Converts the values from the data base to java types.
+     */
+    public interface Converter {
+
+        Object convert(Object columnValue) throws SQLException;
+
+    }
+}
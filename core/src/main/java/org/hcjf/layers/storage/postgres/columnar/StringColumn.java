@@ -0,0 +1,81 @@
+package org.hcjf.layers.storage.postgres.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Column of strings encoded with a dictionary, each row stores the code of its value and each
+ * distinct value is stored only once.
+ * @author Javier Quiroga.
+ */
+public class StringColumn extends Column {
+
+    private static final int NULL_CODE = -1;
+
+    private int[] codes;
+    private final List<String> dictionary;
+    private final Map<String, Integer> codesByValue;
+
+    public StringColumn(String name) {
+        super(name);
+        this.codes = new int[initialCapacity()];
+        this.dictionary = new ArrayList<>();
+        this.codesByValue = new HashMap<>();
+    }
+
+    /**
+     * Return the code of the value of the row.
+     * @param row Row index.
+     * @return Code into the dictionary, -1 for null values.
+     */
+    public int getCode(int row) {
+        return codes[row];
+    }
+
+    /**
+     * Return the distinct values of the column indexed by code.
+     * @return Dictionary.
+     */
+    public List<String> getDictionary() {
+        return Collections.unmodifiableList(dictionary);
+    }
+
+    @Override
+    public String getString(int row) {
+        int code = codes[row];
+        return code == NULL_CODE ? null : dictionary.get(code);
+    }
+
+    @Override
+    public Object getValue(int row) {
+        return getString(row);
+    }
+
+    @Override
+    protected int capacity() {
+        return codes.length;
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        codes = Arrays.copyOf(codes, capacity);
+    }
+
+    @Override
+    protected boolean readValue(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+        String value = resultSet.getString(columnIndex);
+        if(value == null) {
+            codes[row] = NULL_CODE;
+        } else {
+            Integer code = codesByValue.get(value);
+            if(code == null) {
+                code = dictionary.size();
+                dictionary.add(value);
+                codesByValue.put(value, code);
+            }
+            codes[row] = code;
+        }
+        return value == null;
+    }
+}
@@ -0,0 +1,53 @@
+package org.hcjf.layers.storage.postgres.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Column of timestamps stored as milliseconds since the epoch.
+ * @author Javier Quiroga.
+ */
+public class TimestampColumn extends Column {
+
+    private long[] values;
+
+    public TimestampColumn(String name) {
+        super(name);
+        this.values = new long[initialCapacity()];
+    }
+
+    /**
+     * Return the milliseconds since the epoch of the row.
+     * @param row Row index.
+     * @return Epoch milliseconds, zero for null values.
+     */
+    @Override
+    public long getLong(int row) {
+        return values[row];
+    }
+
+    @Override
+    public Object getValue(int row) {
+        return isNull(row) ? null : new Date(values[row]);
+    }
+
+    @Override
+    protected int capacity() {
+        return values.length;
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    protected boolean readValue(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+        Timestamp timestamp = resultSet.getTimestamp(columnIndex);
+        values[row] = timestamp == null ? 0 : timestamp.getTime();
+        return timestamp == null;
+    }
+}
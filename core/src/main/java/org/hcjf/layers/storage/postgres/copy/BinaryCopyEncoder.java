@@ -0,0 +1,203 @@
+package org.hcjf.layers.storage.postgres.copy;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoder for the binary format of the copy command. The binary format needs the exact type of
+ * each column, the values are converted to the column type. The conversions are exact: the values
+ * that the server would reject in the text format, like fractions or out of range numbers for the
+ * integer columns, are rejected too.
+ * @author Javier Quiroga.
+ */
+public class BinaryCopyEncoder extends CopyEncoder {
+
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final long POSTGRES_EPOCH_MILLIS = 946684800000L;
+    private static final byte JSONB_VERSION = 1;
+    private static final Set<String> TRUE_LITERALS = new HashSet<>(Arrays.asList("t", "true", "y", "yes", "on", "1"));
+    private static final Set<String> FALSE_LITERALS = new HashSet<>(Arrays.asList("f", "false", "n", "no", "off", "0"));
+
+    private final ColumnType[] columnTypes;
+
+    public BinaryCopyEncoder(List<String> columnTypes) {
+        this.columnTypes = new ColumnType[columnTypes.size()];
+        for (int i = 0; i < this.columnTypes.length; i++) {
+            this.columnTypes[i] = ColumnType.fromTypeName(columnTypes.get(i));
+        }
+    }
+
+    @Override
+    public void writeHeader(CopyBuffer buffer) {
+        buffer.writeBytes(SIGNATURE);
+        //Flags field
+        buffer.writeInt(0);
+        //Header extension length
+        buffer.writeInt(0);
+    }
+
+    @Override
+    public void writeRow(CopyBuffer buffer, Object[] values) {
+        buffer.writeShort(values.length);
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if(value == null) {
+                buffer.writeInt(-1);
+                continue;
+            }
+            switch (columnTypes[i]) {
+                case INT2: buffer.writeInt(2); buffer.writeShort((int) toInteger(value, Short.MIN_VALUE, Short.MAX_VALUE)); break;
+                case INT4: buffer.writeInt(4); buffer.writeInt((int) toInteger(value, Integer.MIN_VALUE, Integer.MAX_VALUE)); break;
+                case INT8: buffer.writeInt(8); buffer.writeLong(toInteger(value, Long.MIN_VALUE, Long.MAX_VALUE)); break;
+                case FLOAT4: buffer.writeInt(4); buffer.writeInt(Float.floatToIntBits(toNumber(value).floatValue())); break;
+                case FLOAT8: buffer.writeInt(8); buffer.writeLong(Double.doubleToLongBits(toNumber(value).doubleValue())); break;
+                case BOOL: buffer.writeInt(1); buffer.writeByte(toBoolean(value) ? 1 : 0); break;
+                case UUID: {
+                    UUID uuid = value instanceof UUID ? (UUID) value : java.util.UUID.fromString(value.toString());
+                    buffer.writeInt(16);
+                    buffer.writeLong(uuid.getMostSignificantBits());
+                    buffer.writeLong(uuid.getLeastSignificantBits());
+                    break;
+                }
+                case BYTEA: {
+                    byte[] bytes = (byte[]) value;
+                    buffer.writeInt(bytes.length);
+                    buffer.writeBytes(bytes);
+                    break;
+                }
+                case TIMESTAMP: {
+                    long time = toDate(value).getTime();
+                    buffer.writeInt(8);
+                    buffer.writeLong(TimeUnit.MILLISECONDS.toMicros(time + TimeZone.getDefault().getOffset(time) - POSTGRES_EPOCH_MILLIS));
+                    break;
+                }
+                case TIMESTAMPTZ: {
+                    buffer.writeInt(8);
+                    buffer.writeLong(TimeUnit.MILLISECONDS.toMicros(toDate(value).getTime() - POSTGRES_EPOCH_MILLIS));
+                    break;
+                }
+                case DATE: {
+                    long time = toDate(value).getTime();
+                    buffer.writeInt(4);
+                    buffer.writeInt((int) Math.floorDiv(time + TimeZone.getDefault().getOffset(time) - POSTGRES_EPOCH_MILLIS,
+                            TimeUnit.DAYS.toMillis(1)));
+                    break;
+                }
+                case JSONB: {
+                    byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                    buffer.writeInt(bytes.length + 1);
+                    buffer.writeByte(JSONB_VERSION);
+                    buffer.writeBytes(bytes);
+                    break;
+                }
+                default: {
+                    byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                    buffer.writeInt(bytes.length);
+                    buffer.writeBytes(bytes);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void writeTrailer(CopyBuffer buffer) {
+        buffer.writeShort(-1);
+    }
+
+    private Number toNumber(Object value) {
+        return value instanceof Number ? (Number) value : Double.valueOf(value.toString());
+    }
+
+    /**
+     * Converts the value to an integer without losing information, the values with fraction or out of the
+     * range of the column are rejected.
+     * @param value Number or string value.
+     * @param min Min value of the column type.
+     * @param max Max value of the column type.
+     * @return Integer value.
+     */
+    private long toInteger(Object value, long min, long max) {
+        long result;
+        try {
+            if(value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                result = ((Number) value).longValue();
+            } else if(value instanceof BigInteger) {
+                result = ((BigInteger) value).longValueExact();
+            } else if(value instanceof BigDecimal) {
+                result = ((BigDecimal) value).longValueExact();
+            } else if(value instanceof Double || value instanceof Float) {
+                result = new BigDecimal(((Number) value).doubleValue()).longValueExact();
+            } else {
+                result = new BigDecimal(value.toString().trim()).longValueExact();
+            }
+        } catch (ArithmeticException | NumberFormatException ex) {
+            throw new IllegalArgumentException("Expected integer value: " + value, ex);
+        }
+        if(result < min || result > max) {
+            throw new IllegalArgumentException("Integer value out of range: " + value);
+        }
+        return result;
+    }
+
+    /**
+     * Converts the value to boolean, the strings must be boolean literals accepted by postgres.
+     * @param value Boolean or string value.
+     * @return Boolean value.
+     */
+    private boolean toBoolean(Object value) {
+        boolean result;
+        if(value instanceof Boolean) {
+            result = (Boolean) value;
+        } else {
+            String literal = value.toString().trim().toLowerCase();
+            if(TRUE_LITERALS.contains(literal)) {
+                result = true;
+            } else if(FALSE_LITERALS.contains(literal)) {
+                result = false;
+            } else {
+                throw new IllegalArgumentException("Expected boolean value: " + value);
+            }
+        }
+        return result;
+    }
+
+    private Date toDate(Object value) {
+        if(!(value instanceof Date)) {
+            throw new IllegalArgumentException("Expected date value: " + value);
+        }
+        return (Date) value;
+    }
+
+    /**
+     * Postgres types supported by the binary encoder.
+     */
+    private enum ColumnType {
+
+        INT2, INT4, INT8, FLOAT4, FLOAT8, BOOL, UUID, BYTEA, TIMESTAMP, TIMESTAMPTZ, DATE, JSONB, TEXT;
+
+        private static ColumnType fromTypeName(String typeName) {
+            ColumnType result;
+            switch (typeName) {
+                case "int2": case "smallserial": result = INT2; break;
+                case "int4": case "serial": result = INT4; break;
+                case "int8": case "bigserial": result = INT8; break;
+                case "float4": result = FLOAT4; break;
+                case "float8": result = FLOAT8; break;
+                case "bool": result = BOOL; break;
+                case "uuid": result = UUID; break;
+                case "bytea": result = BYTEA; break;
+                case "timestamp": result = TIMESTAMP; break;
+                case "timestamptz": result = TIMESTAMPTZ; break;
+                case "date": result = DATE; break;
+                case "jsonb": result = JSONB; break;
+                case "text": case "varchar": case "bpchar": case "name": case "json": result = TEXT; break;
+                default: throw new IllegalArgumentException("Binary copy is not supported for the type '" +
+                        typeName + "', use the text or csv format");
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.hcjf.layers.storage.postgres.copy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer used to encode the copy rows. The buffer is reused between flushes
+ * so the encoding not creates a new array for each block of rows.
+ * @author Javier Quiroga.
+ */
+public class CopyBuffer {
+
+    private byte[] data;
+    private int size;
+
+    public CopyBuffer(int initialCapacity) {
+        this.data = new byte[Math.max(16, initialCapacity)];
+    }
+
+    /**
+     * Return the internal array, only the first {@link CopyBuffer#size()} bytes are valid.
+     * @return Internal array.
+     */
+    public byte[] array() {
+        return data;
+    }
+
+    /**
+     * Return the number of bytes written since the last reset.
+     * @return Number of bytes.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Discard the content of the buffer keeping the allocated memory.
+     */
+    public void reset() {
+        size = 0;
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        data[size++] = (byte) value;
+    }
+
+    public void writeShort(int value) {
+        ensureCapacity(2);
+        data[size++] = (byte) (value >>> 8);
+        data[size++] = (byte) value;
+    }
+
+    public void writeInt(int value) {
+        ensureCapacity(4);
+        data[size++] = (byte) (value >>> 24);
+        data[size++] = (byte) (value >>> 16);
+        data[size++] = (byte) (value >>> 8);
+        data[size++] = (byte) value;
+    }
+
+    public void writeLong(long value) {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    public void writeBytes(byte[] value) {
+        ensureCapacity(value.length);
+        System.arraycopy(value, 0, data, size, value.length);
+        size += value.length;
+    }
+
+    public void writeUtf8(String value) {
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write an ascii string, all the chars of the string must be ascii chars.
+     * @param value Ascii string.
+     */
+    public void writeAscii(String value) {
+        ensureCapacity(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            data[size++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void ensureCapacity(int length) {
+        if(size + length > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, size + length));
+        }
+    }
+}
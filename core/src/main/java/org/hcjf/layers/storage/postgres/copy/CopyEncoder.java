@@ -0,0 +1,47 @@
+package org.hcjf.layers.storage.postgres.copy;
+
+import java.util.List;
+
+/**
+ * Base class for the encoders of the rows sent with the copy command.
+ * @author Javier Quiroga.
+ */
+public abstract class CopyEncoder {
+
+    /**
+     * Creates the encoder for the format.
+     * @param format Copy format.
+     * @param columnTypes Postgres type name of each column, only needed by the binary format.
+     * @return Encoder instance.
+     */
+    public static CopyEncoder create(CopyFormat format, List<String> columnTypes) {
+        CopyEncoder result;
+        switch (format) {
+            case BINARY: result = new BinaryCopyEncoder(columnTypes); break;
+            case CSV: result = new TextCopyEncoder(true); break;
+            default: result = new TextCopyEncoder(false);
+        }
+        return result;
+    }
+
+    /**
+     * Write the bytes needed before the first row.
+     * @param buffer Copy buffer.
+     */
+    public void writeHeader(CopyBuffer buffer) {
+    }
+
+    /**
+     * Write the values of a row, the values are in the same order that the columns of the copy command.
+     * @param buffer Copy buffer.
+     * @param values Row values.
+     */
+    public abstract void writeRow(CopyBuffer buffer, Object[] values);
+
+    /**
+     * Write the bytes needed after the last row.
+     * @param buffer Copy buffer.
+     */
+    public void writeTrailer(CopyBuffer buffer) {
+    }
+}
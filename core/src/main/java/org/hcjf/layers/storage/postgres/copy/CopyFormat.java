@@ -0,0 +1,28 @@
+package org.hcjf.layers.storage.postgres.copy;
+
+/**
+ * Data formats supported by the postgres copy command.
+ * @author Javier Quiroga.
+ */
+public enum CopyFormat {
+
+    TEXT("text"),
+
+    CSV("csv"),
+
+    BINARY("binary");
+
+    private final String option;
+
+    CopyFormat(String option) {
+        this.option = option;
+    }
+
+    /**
+     * Return the value of the option 'FORMAT' of the copy command.
+     * @return Format option.
+     */
+    public String getOption() {
+        return option;
+    }
+}
@@ -0,0 +1,153 @@
+package org.hcjf.layers.storage.postgres.copy;
+
+import org.hcjf.layers.storage.postgres.values.ArrayValue;
+import org.postgresql.core.Utils;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Renders values as postgres literals. It's used by the statements that not accept
+ * bind parameters, like the copy command.
+ * @author Javier Quiroga.
+ */
+public final class SqlLiterals {
+
+    private static final char REPLACEABLE_VALUE = '?';
+    private static final char QUOTE = '\'';
+    private static final char IDENTIFIER_QUOTE = '"';
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private SqlLiterals() {
+    }
+
+    /**
+     * Replace each replaceable value of the sql with the literal of the next value. The replaceable
+     * values into quoted strings and quoted identifiers are ignored. The collections are expanded
+     * and each element replaces one replaceable value, in the same way that the values are bound.
+     * @param sql Sql with replaceable values.
+     * @param values Values to inline.
+     * @param standardConformingStrings True if the server has standard conforming strings enabled.
+     * @return Sql without replaceable values.
+     * @throws SQLException
+     */
+    public static String inline(String sql, Collection<Object> values, boolean standardConformingStrings) throws SQLException {
+        Iterator<Object> iterator = new FlatIterator(values.iterator());
+        StringBuilder result = new StringBuilder(sql.length() + values.size() * 8);
+        boolean quoted = false;
+        boolean identifier = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char character = sql.charAt(i);
+            if(character == QUOTE && !identifier) {
+                quoted = !quoted;
+            } else if(character == IDENTIFIER_QUOTE && !quoted) {
+                identifier = !identifier;
+            } else if(character == REPLACEABLE_VALUE && !quoted && !identifier) {
+                if(!iterator.hasNext()) {
+                    throw new IllegalArgumentException("There are more replaceable values than values");
+                }
+                render(result, iterator.next(), standardConformingStrings);
+                continue;
+            }
+            result.append(character);
+        }
+        if(iterator.hasNext()) {
+            throw new IllegalArgumentException("There are more values than replaceable values");
+        }
+        return result.toString();
+    }
+
+    /**
+     * Append the literal of the value.
+     * @param builder Builder to put the literal.
+     * @param value Value to render.
+     * @param standardConformingStrings True if the server has standard conforming strings enabled.
+     * @throws SQLException
+     */
+    public static void render(StringBuilder builder, Object value, boolean standardConformingStrings) throws SQLException {
+        if(value == null) {
+            builder.append("NULL");
+        } else if(value instanceof Boolean) {
+            builder.append(((Boolean) value) ? "TRUE" : "FALSE");
+        } else if(value instanceof Double || value instanceof Float) {
+            double doubleValue = ((Number) value).doubleValue();
+            if(Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+                quote(builder, value.toString(), standardConformingStrings);
+                builder.append("::float8");
+            } else {
+                builder.append(value);
+            }
+        } else if(value instanceof Number) {
+            builder.append(value);
+        } else if(value instanceof ArrayValue) {
+            builder.append("ARRAY[");
+            boolean first = true;
+            for(Object element : ((ArrayValue) value).getValues()) {
+                if(!first) {
+                    builder.append(',');
+                }
+                first = false;
+                render(builder, element, standardConformingStrings);
+            }
+            builder.append("]::").append(((ArrayValue) value).getTypeName()).append("[]");
+        } else if(value instanceof Date) {
+            quote(builder, new java.sql.Timestamp(((Date) value).getTime()).toString(), standardConformingStrings);
+        } else if(value instanceof byte[]) {
+            StringBuilder hex = new StringBuilder("\\x");
+            for(byte b : (byte[]) value) {
+                hex.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+            }
+            quote(builder, hex.toString(), standardConformingStrings);
+            builder.append("::bytea");
+        } else {
+            quote(builder, value.toString(), standardConformingStrings);
+        }
+    }
+
+    private static void quote(StringBuilder builder, String value, boolean standardConformingStrings) throws SQLException {
+        if(!standardConformingStrings) {
+            builder.append('E');
+        }
+        builder.append(QUOTE);
+        Utils.escapeLiteral(builder, value, standardConformingStrings);
+        builder.append(QUOTE);
+    }
+
+    /**
+     * Iterator that expands the collections.
+     */
+    private static class FlatIterator implements Iterator<Object> {
+
+        private final Iterator<Object> values;
+        private Iterator<Object> current;
+
+        private FlatIterator(Iterator<Object> values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while((current == null || !current.hasNext()) && values.hasNext()) {
+                Object value = values.next();
+                if(value instanceof Collection) {
+                    current = ((Collection<Object>) value).iterator();
+                } else {
+                    current = Collections.singletonList(value).iterator();
+                }
+            }
+            return current != null && current.hasNext();
+        }
+
+        @Override
+        public Object next() {
+            if(!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+    }
+}
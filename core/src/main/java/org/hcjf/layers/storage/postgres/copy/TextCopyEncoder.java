@@ -0,0 +1,124 @@
+package org.hcjf.layers.storage.postgres.copy;
+
+import java.util.Collection;
+import java.util.Date;
+
+/**
+ * Encoder for the text and csv formats of the copy command. The values are rendered using the
+ * same rules that the insert operation: the dates are timestamps and the collections are arrays.
+ * @author Javier Quiroga.
+ */
+public class TextCopyEncoder extends CopyEncoder {
+
+    private static final String TEXT_NULL = "\\N";
+    private static final char TEXT_DELIMITER = '\t';
+    private static final char CSV_DELIMITER = ',';
+    private static final char CSV_QUOTE = '"';
+    private static final char LINE_END = '\n';
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final boolean csv;
+    private final StringBuilder line;
+    private final StringBuilder value;
+
+    public TextCopyEncoder(boolean csv) {
+        this.csv = csv;
+        this.line = new StringBuilder();
+        this.value = new StringBuilder();
+    }
+
+    @Override
+    public void writeRow(CopyBuffer buffer, Object[] values) {
+        line.setLength(0);
+        for (int i = 0; i < values.length; i++) {
+            if(i > 0) {
+                line.append(csv ? CSV_DELIMITER : TEXT_DELIMITER);
+            }
+            if(values[i] == null) {
+                if(!csv) {
+                    line.append(TEXT_NULL);
+                }
+            } else {
+                value.setLength(0);
+                render(value, values[i]);
+                if(csv) {
+                    appendCsv(line, value);
+                } else {
+                    appendText(line, value);
+                }
+            }
+        }
+        line.append(LINE_END);
+        buffer.writeUtf8(line.toString());
+    }
+
+    /**
+     * Creates the postgres text representation of the value.
+     * @param builder Builder to put the representation.
+     * @param value Value to render.
+     */
+    protected void render(StringBuilder builder, Object value) {
+        if(value instanceof Date) {
+            builder.append(new java.sql.Timestamp(((Date) value).getTime()));
+        } else if(value instanceof Collection) {
+            builder.append('{');
+            boolean first = true;
+            for(Object element : (Collection) value) {
+                if(!first) {
+                    builder.append(',');
+                }
+                first = false;
+                if(element == null) {
+                    builder.append("NULL");
+                } else {
+                    int start = builder.length();
+                    render(builder, element);
+                    String elementValue = builder.substring(start);
+                    builder.setLength(start);
+                    builder.append('"');
+                    for (int i = 0; i < elementValue.length(); i++) {
+                        char character = elementValue.charAt(i);
+                        if(character == '"' || character == '\\') {
+                            builder.append('\\');
+                        }
+                        builder.append(character);
+                    }
+                    builder.append('"');
+                }
+            }
+            builder.append('}');
+        } else if(value instanceof byte[]) {
+            builder.append("\\x");
+            for(byte b : (byte[]) value) {
+                builder.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+            }
+        } else {
+            builder.append(value);
+        }
+    }
+
+    private void appendText(StringBuilder builder, CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            switch (character) {
+                case '\\': builder.append("\\\\"); break;
+                case '\n': builder.append("\\n"); break;
+                case '\r': builder.append("\\r"); break;
+                case '\t': builder.append("\\t"); break;
+                default: builder.append(character);
+            }
+        }
+    }
+
+    private void appendCsv(StringBuilder builder, CharSequence value) {
+        builder.append(CSV_QUOTE);
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            if(character == CSV_QUOTE) {
+                builder.append(CSV_QUOTE);
+            }
+            builder.append(character);
+        }
+        builder.append(CSV_QUOTE);
+    }
+}
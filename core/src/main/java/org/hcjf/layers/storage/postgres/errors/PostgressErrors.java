@@ -0,0 +1,44 @@
+package org.hcjf.layers.storage.postgres.errors;
+
+import org.hcjf.errors.Errors;
+import org.hcjf.utils.Messages;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class PostgressErrors {
+
+    public static final String UNABLE_TO_CLOSE_CONNECTION = "postgres.errors.unable.to.close.connection";
+    public static final String UNABLE_TO_CREATE_CONNECTION = "postgres.errors.unable.to.create.connection";
+    public static final String ROLLBACK_OPERATION = "postgres.errors.rollback.operation";
+    public static final String UNABLE_TO_MAP_COLUMN = "postgres.errors.unable.to.map.column";
+    public static final String UNABLE_TO_COMMIT = "postgres.errors.unable.to.commit";
+    public static final String UNABLE_TO_ROLLBACK = "postgres.errors.unable.to.rollback";
+    public static final String UNABLE_TO_CLOSE_CURSOR = "postgres.errors.unable.to.close.cursor";
+    public static final String AUTOCOMMIT_SESSION_ERROR = "postgres.errors.autocommit.session.error";
+    public static final String UNABLE_TO_WARM_UP = "postgres.errors.unable.to.warm.up";
+    public static final String LAYER_SHUT_DOWN = "postgres.errors.layer.shut.down";
+    public static final String SHUTDOWN_TIMEOUT = "postgres.errors.shutdown.timeout";
+    public static final String UNABLE_TO_RESOLVE_CODEC = "postgres.errors.unable.to.resolve.codec";
+    public static final String UNABLE_TO_CANCEL_COPY = "postgres.errors.unable.to.cancel.copy";
+    public static final String BULK_DELETE_PENDING_WRITES = "postgres.errors.bulk.delete.pending.writes";
+
+    public static void main() {
+        Errors.addDefault(UNABLE_TO_CLOSE_CONNECTION, "Unable to close connection");
+        Errors.addDefault(UNABLE_TO_CLOSE_CONNECTION, "Unable to close connection");
+        Errors.addDefault(UNABLE_TO_CREATE_CONNECTION, "Unable to create connection");
+        Errors.addDefault(ROLLBACK_OPERATION, "Rollback operation by session error");
+        Errors.addDefault(UNABLE_TO_MAP_COLUMN, "Unable to map the column '%s' into the type %s");
+        Errors.addDefault(UNABLE_TO_COMMIT, "Unable to commit the session transaction");
+        Errors.addDefault(UNABLE_TO_ROLLBACK, "Unable to rollback the session transaction");
+        Errors.addDefault(UNABLE_TO_CLOSE_CURSOR, "Unable to close the session cursor");
+        Errors.addDefault(AUTOCOMMIT_SESSION_ERROR, "Error in autocommit session, the operations already executed can't be rolled back");
+        Errors.addDefault(UNABLE_TO_WARM_UP, "Unable to warm-up the connections pool");
+        Errors.addDefault(LAYER_SHUT_DOWN, "The postgres layer is shut down");
+        Errors.addDefault(SHUTDOWN_TIMEOUT, "Shutdown timeout (%d ms), the pool is closed with in-flight sessions");
+        Errors.addDefault(UNABLE_TO_RESOLVE_CODEC, "Unable to resolve the codec of the type '%s', the column is read with getObject");
+        Errors.addDefault(UNABLE_TO_CANCEL_COPY, "Unable to cancel the copy operation");
+        Errors.addDefault(BULK_DELETE_PENDING_WRITES, "The bulk delete commits each chunk and the session transaction has uncommitted writes");
+    }
+
+}
@@ -0,0 +1,120 @@
+package org.hcjf.layers.storage.postgres.mapping;
+
+import org.hcjf.errors.Errors;
+import org.hcjf.layers.storage.postgres.codecs.TypeCodec;
+import org.hcjf.layers.storage.postgres.errors.PostgressErrors;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.hcjf.log.Log;
+import org.hcjf.properties.SystemProperties;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resolved mapping between the columns of a postgres result set and the target of each
+ * value. The plan is created once for each result shape and then it's reused for all the rows.
+ * @author Javier Quiroga.
+ */
+public class ResultMappingPlan {
+
+    private final Class resultType;
+    private final int[] columns;
+    private final String[] keys;
+    private final MethodHandle[] setters;
+    private final TypeCodec<?>[] codecs;
+    private final AtomicIntegerArray failedColumns;
+    private final LongAdder failures;
+
+    /**
+     * Plan constructor.
+     * @param resultType Expected object type, null if the rows are mapped as maps.
+     * @param columns Indexes of the mapped columns into the postgres result set.
+     * @param keys Application key of each mapped column.
+     * @param setters Setter of each mapped column, only for plans with result type.
+     * @param codecs Codec to read each mapped column, null for the columns without codec.
+     */
+    public ResultMappingPlan(Class resultType, int[] columns, String[] keys, MethodHandle[] setters, TypeCodec<?>[] codecs) {
+        this.resultType = resultType;
+        this.columns = columns;
+        this.keys = keys;
+        this.setters = setters;
+        this.codecs = codecs;
+        this.failedColumns = new AtomicIntegerArray(columns.length);
+        this.failures = new LongAdder();
+    }
+
+    /**
+     * Return the expected object type, null if the rows are mapped as maps.
+     * @return Result type.
+     */
+    public Class getResultType() {
+        return resultType;
+    }
+
+    /**
+     * Return the number of mapped columns.
+     * @return Number of mapped columns.
+     */
+    public int size() {
+        return columns.length;
+    }
+
+    /**
+     * Return the index into the postgres result set of the mapped column.
+     * @param position Position of the mapped column into the plan.
+     * @return Index of the column.
+     */
+    public int getColumn(int position) {
+        return columns[position];
+    }
+
+    /**
+     * Return the application key of the mapped column.
+     * @param position Position of the mapped column into the plan.
+     * @return Application key.
+     */
+    public String getKey(int position) {
+        return keys[position];
+    }
+
+    /**
+     * Return the setter of the mapped column.
+     * @param position Position of the mapped column into the plan.
+     * @return Setter handle with the type (Object,Object)void.
+     */
+    public MethodHandle getSetter(int position) {
+        return setters[position];
+    }
+
+    /**
+     * Return the codec to read the mapped column.
+     * @param position Position of the mapped column into the plan.
+     * @return Codec or null if the column has not codec.
+     */
+    public TypeCodec<?> getCodec(int position) {
+        return codecs[position];
+    }
+
+    /**
+     * Records an error setting the value of the column, the error is logged only the
+     * first time for each column of the plan.
+     * @param position Position of the mapped column into the plan.
+     * @param throwable Error setting the value.
+     */
+    public void onFailure(int position, Throwable throwable) {
+        failures.increment();
+        if(failedColumns.compareAndSet(position, 0, 1)) {
+            Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                    Errors.getMessage(PostgressErrors.UNABLE_TO_MAP_COLUMN, keys[position], resultType), throwable);
+        }
+    }
+
+    /**
+     * Return the number of values that could not be set using this plan.
+     * @return Number of failures.
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+}
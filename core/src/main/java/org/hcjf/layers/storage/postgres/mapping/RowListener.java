@@ -0,0 +1,20 @@
+package org.hcjf.layers.storage.postgres.mapping;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Listener called for each row mapped from a postgres result set.
+ * @author Javier Quiroga.
+ */
+@FunctionalInterface
+public interface RowListener {
+
+    /**
+     * This method is called after the current row is mapped.
+     * @param resultSet Postgres result set positioned on the mapped row.
+     * @throws SQLException
+     */
+    void onRow(ResultSet resultSet) throws SQLException;
+
+}
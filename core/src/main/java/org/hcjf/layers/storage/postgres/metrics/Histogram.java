@@ -0,0 +1,142 @@
+package org.hcjf.layers.storage.postgres.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram with logarithmic buckets, each power of two is divided in linear sub-buckets so the
+ * relative error of the recorded values is bounded (1 / 2^SUB_BUCKET_BITS). The record operation
+ * doesn't allocate and doesn't lock.
+ * @author Javier Quiroga.
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final AtomicLong max;
+
+    public Histogram() {
+        this.buckets = new AtomicLongArray(BUCKET_COUNT);
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Records a value, the negative values are recorded as zero.
+     * @param value Recorded value.
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        buckets.incrementAndGet(getIndex(value));
+        count.increment();
+        sum.add(value);
+        long currentMax = max.get();
+        while(value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Return the number of recorded values.
+     * @return Count of values.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Return the sum of the recorded values.
+     * @return Sum of values.
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Return the max recorded value.
+     * @return Max value.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Return the mean of the recorded values.
+     * @return Mean value.
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) getSum() / count;
+    }
+
+    /**
+     * Return the approximated value for the percentile, the value is the upper bound of the bucket
+     * that contains the percentile.
+     * @param percentile Percentile between 0 and 100.
+     * @return Approximated value.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+
+        long result = 0;
+        if(total > 0) {
+            long target = Math.max(1, (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0));
+            long accumulated = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                accumulated += snapshot[i];
+                if(accumulated >= target) {
+                    result = Math.min(getMax(), getUpperBound(i));
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes all the recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    private static int getIndex(long value) {
+        int result;
+        if(value < SUB_BUCKET_COUNT) {
+            result = (int) value;
+        } else {
+            int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+            result = (shift + 1) * SUB_BUCKET_COUNT + (int) ((value >>> shift) & (SUB_BUCKET_COUNT - 1));
+        }
+        return result;
+    }
+
+    private static long getUpperBound(int index) {
+        long result;
+        if(index < SUB_BUCKET_COUNT) {
+            result = index;
+        } else {
+            int shift = index / SUB_BUCKET_COUNT - 1;
+            long lowerBound = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+            result = lowerBound + (1L << shift) - 1;
+        }
+        return result;
+    }
+}
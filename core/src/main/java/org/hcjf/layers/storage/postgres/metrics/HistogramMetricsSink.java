@@ -0,0 +1,81 @@
+package org.hcjf.layers.storage.postgres.metrics;
+
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.hcjf.properties.SystemProperties;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Sink that keeps one histogram for each query shape and metric. The histograms are created with the
+ * first value of each metric and the number of shapes is bounded, when the bound is reached the values
+ * of the new shapes are recorded into the overflow shape.
+ * @author Javier Quiroga.
+ */
+public class HistogramMetricsSink implements MetricsSink {
+
+    public static final String OVERFLOW_SHAPE = "*";
+
+    private final Map<String, AtomicReferenceArray<Histogram>> histograms;
+    private final int maxShapes;
+
+    public HistogramMetricsSink() {
+        this(SystemProperties.getInteger(PostgresProperties.Metrics.MAX_SHAPES));
+    }
+
+    /**
+     * Sink constructor.
+     * @param maxShapes Max number of shapes, without the overflow shape.
+     */
+    public HistogramMetricsSink(int maxShapes) {
+        this.histograms = new ConcurrentHashMap<>();
+        this.maxShapes = maxShapes;
+    }
+
+    @Override
+    public void record(String shape, Metric metric, long value) {
+        AtomicReferenceArray<Histogram> shapeHistograms = histograms.get(shape);
+        if(shapeHistograms == null) {
+            if(histograms.size() >= maxShapes) {
+                shape = OVERFLOW_SHAPE;
+            }
+            shapeHistograms = histograms.computeIfAbsent(shape, key -> new AtomicReferenceArray<>(Metric.values().length));
+        }
+
+        Histogram histogram = shapeHistograms.get(metric.ordinal());
+        if(histogram == null) {
+            shapeHistograms.compareAndSet(metric.ordinal(), null, new Histogram());
+            histogram = shapeHistograms.get(metric.ordinal());
+        }
+        histogram.record(value);
+    }
+
+    /**
+     * Return all the recorded shapes.
+     * @return Set of shapes.
+     */
+    public Set<String> getShapes() {
+        return Collections.unmodifiableSet(histograms.keySet());
+    }
+
+    /**
+     * Return the histogram of the shape and metric.
+     * @param shape Query shape.
+     * @param metric Metric.
+     * @return Histogram instance or null if there are not values for the shape and metric.
+     */
+    public Histogram getHistogram(String shape, Metric metric) {
+        AtomicReferenceArray<Histogram> shapeHistograms = histograms.get(shape);
+        return shapeHistograms == null ? null : shapeHistograms.get(metric.ordinal());
+    }
+
+    /**
+     * Removes all the shapes.
+     */
+    public void clear() {
+        histograms.clear();
+    }
+}
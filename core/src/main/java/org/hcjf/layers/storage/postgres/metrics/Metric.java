@@ -0,0 +1,34 @@
+package org.hcjf.layers.storage.postgres.metrics;
+
+/**
+ * Values recorded by the layer for each query shape.
+ * @author Javier Quiroga.
+ */
+public enum Metric {
+
+    /**
+     * Time to build the sql text in nanoseconds.
+     */
+    BUILD_TIME,
+
+    /**
+     * Time to execute the statement in nanoseconds.
+     */
+    EXECUTE_TIME,
+
+    /**
+     * Time to map the postgres result set into a hcjf result set in nanoseconds.
+     */
+    MAPPING_TIME,
+
+    /**
+     * Number of rows returned or affected.
+     */
+    ROWS,
+
+    /**
+     * Time waiting a connection from the pool in nanoseconds, the shape is the name of the pool.
+     */
+    POOL_WAIT
+
+}
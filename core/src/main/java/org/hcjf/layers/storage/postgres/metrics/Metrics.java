@@ -0,0 +1,74 @@
+package org.hcjf.layers.storage.postgres.metrics;
+
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.hcjf.properties.SystemProperties;
+
+/**
+ * Access point to the metrics sink used by the layer. By default the values are discarded, if the
+ * metrics are enabled by properties the default sink is a {@link HistogramMetricsSink}.
+ * @author Javier Quiroga.
+ */
+public final class Metrics {
+
+    private static volatile MetricsSink sink = SystemProperties.getBoolean(PostgresProperties.Metrics.ENABLED) ?
+            new HistogramMetricsSink() : NoOpMetricsSink.INSTANCE;
+
+    private Metrics() {
+    }
+
+    /**
+     * Return the current sink.
+     * @return Metrics sink.
+     */
+    public static MetricsSink getSink() {
+        return sink;
+    }
+
+    /**
+     * Set the sink of the layer, if the sink is null the values are discarded.
+     * @param sink Metrics sink.
+     */
+    public static void setSink(MetricsSink sink) {
+        Metrics.sink = sink == null ? NoOpMetricsSink.INSTANCE : sink;
+    }
+
+    /**
+     * Return true if the values are recorded, the callers use this method to avoid the cost
+     * of measure when the values are discarded.
+     * @return True if the metrics are enabled.
+     */
+    public static boolean isEnabled() {
+        return sink != NoOpMetricsSink.INSTANCE;
+    }
+
+    /**
+     * Return the current time to measure durations, or zero if the metrics are disabled.
+     * @return Nano time.
+     */
+    public static long start() {
+        return isEnabled() ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records the time elapsed since the start time.
+     * @param shape Query shape.
+     * @param metric Recorded metric.
+     * @param startTime Value returned by the method {@link Metrics#start()}.
+     */
+    public static void stop(String shape, Metric metric, long startTime) {
+        MetricsSink currentSink = sink;
+        if(currentSink != NoOpMetricsSink.INSTANCE) {
+            currentSink.record(shape, metric, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Records a value.
+     * @param shape Query shape.
+     * @param metric Recorded metric.
+     * @param value Recorded value.
+     */
+    public static void record(String shape, Metric metric, long value) {
+        sink.record(shape, metric, value);
+    }
+}
@@ -0,0 +1,17 @@
+package org.hcjf.layers.storage.postgres.metrics;
+
+/**
+ * Destination of the values recorded by the layer.
+ * @author Javier Quiroga.
+ */
+public interface MetricsSink {
+
+    /**
+     * Records a value for the query shape.
+     * @param shape Shape of the query, queries with the same shape differs only in the parameter values.
+     * @param metric Recorded metric.
+     * @param value Recorded value.
+     */
+    void record(String shape, Metric metric, long value);
+
+}
@@ -0,0 +1,18 @@
+package org.hcjf.layers.storage.postgres.metrics;
+
+/**
+ * Sink that discards all the values, this is the default sink.
+ * @author Javier Quiroga.
+ */
+public final class NoOpMetricsSink implements MetricsSink {
+
+    public static final NoOpMetricsSink INSTANCE = new NoOpMetricsSink();
+
+    private NoOpMetricsSink() {
+    }
+
+    @Override
+    public void record(String shape, Metric metric, long value) {
+    }
+
+}
@@ -0,0 +1,23 @@
+package org.hcjf.layers.storage.postgres.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * Hikari metrics factory that records the pool acquisition wait into the metrics sink of the layer,
+ * using the pool name as shape.
+ * @author Javier Quiroga.
+ */
+public class PoolMetricsTrackerFactory implements MetricsTrackerFactory {
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                Metrics.record(poolName, Metric.POOL_WAIT, elapsedAcquiredNanos);
+            }
+        };
+    }
+}
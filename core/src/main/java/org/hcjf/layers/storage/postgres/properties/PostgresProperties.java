@@ -0,0 +1,194 @@
+package org.hcjf.layers.storage.postgres.properties;
+
+import org.hcjf.properties.SystemProperties;
+
+/**
+ * @author Javier Quiroga.
+ */
+public final class PostgresProperties {
+
+    public static final String POSTGRES_STORAGE_LAYER_LOG_TAG = "postgres.storage.layer.log.tag";
+    public static final String POSTGRES_EXECUTE_STATEMENT_LOG_TAG = "postgres.execute.statement.log.tag";
+    public static final String POSTGRES_LOG_STATEMENTS = "postgres.storage.layer.log.statements";
+
+    public static class ReservedWord {
+
+        public static final String DISTINCT_OPERATOR = "postgres.storage.layer.distinct.operator";
+        public static final String EQUALS_OPERATOR = "postgres.storage.layer.equals.operator";
+        public static final String GRATER_THAN_OPERATOR = "postgres.storage.layer.greater.than.operator";
+        public static final String SMALLER_THAN_OPERATOR = "postgres.storage.layer.smaller.than.operator";
+        public static final String LIKE_OPERATOR = "postgres.storage.layer.like.operator";
+        public static final String IS_NULL_OPERATOR = "postgres.storage.layer.is.null.operator";
+        public static final String IS_NOT_NULL_OPERATOR = "postgres.storage.layer.is.not.null.operator";
+        public static final String IN_ARRAY_OPERATOR = "postgres.storage.layer.in.array.operator";
+        public static final String NOT_IN_ARRAY_OPERATOR = "postgres.storage.layer.not.in.array.operator";
+
+    }
+
+    public static class Pool {
+        public static final String MAX_CONNECTIONS = "postgres.storage.layer.pool.max.connections";
+        public static final String INIT_CONNECTIONS = "postgres.storage.layer.pool.init.connections";
+        public static final String IDLE_TIMEOUT = "postgres.storage.layer.pool.idle.timeout";
+        public static final String MAX_LIFE_TIME = "postgres.storage.layer.pool.max.life.time";
+        public static final String SERVER_NAME_FIELD = "postgres.storage.layer.pool.server.name.field";
+        public static final String DATABASE_NAME_FIELD = "postgres.storage.layer.pool.database.name.field";
+        public static final String USER_FIELD = "postgres.storage.layer.pool.user.field";
+        public static final String PASSWORD_FIELD = "postgres.storage.layer.pool.password.field";
+        public static final String PORT_NUMBER_FIELD = "postgres.storage.layer.pool.port.number.field";
+        public static final String WARM_UP = "postgres.storage.layer.pool.warm.up";
+        public static final String WARM_UP_TYPES = "postgres.storage.layer.pool.warm.up.types";
+        public static final String SHUTDOWN_TIMEOUT = "postgres.storage.layer.pool.shutdown.timeout";
+    }
+
+    public static class Replicas {
+        public static final String BALANCING = "postgres.storage.layer.replicas.balancing";
+        public static final String MAX_LAG = "postgres.storage.layer.replicas.max.lag";
+        public static final String LAG_CHECK_PERIOD = "postgres.storage.layer.replicas.lag.check.period";
+        public static final String LAG_QUERY = "postgres.storage.layer.replicas.lag.query";
+    }
+
+    public static class Session {
+        public static final String LAZY_CONNECTION = "postgres.storage.layer.session.lazy.connection";
+        public static final String EARLY_RELEASE = "postgres.storage.layer.session.early.release";
+    }
+
+    public static class Metrics {
+        public static final String ENABLED = "postgres.storage.layer.metrics.enabled";
+        public static final String MAX_SHAPES = "postgres.storage.layer.metrics.max.shapes";
+    }
+
+    public static class SlowLog {
+        public static final String ENABLED = "postgres.storage.layer.slow.log.enabled";
+        public static final String THRESHOLD = "postgres.storage.layer.slow.log.threshold";
+        public static final String SAMPLE_RATE = "postgres.storage.layer.slow.log.sample.rate";
+        public static final String LOG_RATE_LIMIT = "postgres.storage.layer.slow.log.log.rate.limit";
+        public static final String EXPLAIN_RATE_LIMIT = "postgres.storage.layer.slow.log.explain.rate.limit";
+        public static final String EXPLAIN_TIMEOUT = "postgres.storage.layer.slow.log.explain.timeout";
+        public static final String BUFFER_SIZE = "postgres.storage.layer.slow.log.buffer.size";
+    }
+
+    public static class Async {
+        public static final String QUEUE_SIZE = "postgres.storage.layer.async.queue.size";
+        public static final String VIRTUAL_THREADS = "postgres.storage.layer.async.virtual.threads";
+    }
+
+    public static class ResultCache {
+        public static final String RESOURCES = "postgres.storage.layer.result.cache.resources";
+        public static final String MAX_BYTES = "postgres.storage.layer.result.cache.max.bytes";
+        public static final String TIME_TO_LIVE = "postgres.storage.layer.result.cache.time.to.live";
+    }
+
+    public static class Codec {
+        public static final String NUMERIC_AS_DOUBLE = "postgres.storage.layer.codec.numeric.as.double";
+        public static final String JAVA_TIME = "postgres.storage.layer.codec.java.time";
+        public static final String PRIMITIVE_ARRAYS = "postgres.storage.layer.codec.primitive.arrays";
+    }
+
+    public static class Statement {
+        public static final String CACHE_SIZE = "postgres.storage.layer.statement.cache.size";
+        public static final String SERVER_PREPARED = "postgres.storage.layer.statement.server.prepared";
+        public static final String IN_AS_ARRAY = "postgres.storage.layer.statement.in.as.array";
+    }
+
+    public static class Batch {
+        public static final String MODE = "postgres.storage.layer.batch.mode";
+        public static final String CHUNK_SIZE = "postgres.storage.layer.batch.chunk.size";
+    }
+
+    public static class Delete {
+        public static final String CHUNK_SIZE = "postgres.storage.layer.delete.chunk.size";
+    }
+
+    public static class Copy {
+        public static final String BUFFER_SIZE = "postgres.storage.layer.copy.buffer.size";
+    }
+
+    public static class Cursor {
+        public static final String FETCH_SIZE = "postgres.storage.layer.cursor.fetch.size";
+    }
+
+    public static class Cache {
+        public static final String STATEMENT_TEMPLATE_SIZE = "postgres.storage.layer.cache.statement.template.size";
+        public static final String MAPPING_PLAN_SIZE = "postgres.storage.layer.cache.mapping.plan.size";
+        public static final String COLUMN_TYPES_SIZE = "postgres.storage.layer.cache.column.types.size";
+        public static final String CODECS_SIZE = "postgres.storage.layer.cache.codecs.size";
+    }
+
+    public static void init() {
+        SystemProperties.putDefaultValue(POSTGRES_STORAGE_LAYER_LOG_TAG, "Postgres");
+        SystemProperties.putDefaultValue(POSTGRES_EXECUTE_STATEMENT_LOG_TAG, "pgDB");
+        SystemProperties.putDefaultValue(POSTGRES_LOG_STATEMENTS, "false");
+
+        SystemProperties.putDefaultValue(ReservedWord.LIKE_OPERATOR, "ILIKE");
+        SystemProperties.putDefaultValue(ReservedWord.IS_NULL_OPERATOR, "IS NULL");
+        SystemProperties.putDefaultValue(ReservedWord.IS_NOT_NULL_OPERATOR, "IS NOT NULL");
+        SystemProperties.putDefaultValue(ReservedWord.IN_ARRAY_OPERATOR, "= ANY");
+        SystemProperties.putDefaultValue(ReservedWord.NOT_IN_ARRAY_OPERATOR, "<> ALL");
+
+        SystemProperties.putDefaultValue(Pool.MAX_CONNECTIONS, "5");
+        SystemProperties.putDefaultValue(Pool.INIT_CONNECTIONS, "2");
+        SystemProperties.putDefaultValue(Pool.IDLE_TIMEOUT, "30000");
+        SystemProperties.putDefaultValue(Pool.MAX_LIFE_TIME, "120000");
+        SystemProperties.putDefaultValue(Pool.SERVER_NAME_FIELD, "serverName");
+        SystemProperties.putDefaultValue(Pool.DATABASE_NAME_FIELD, "databaseName");
+        SystemProperties.putDefaultValue(Pool.USER_FIELD, "user");
+        SystemProperties.putDefaultValue(Pool.PASSWORD_FIELD, "password");
+        SystemProperties.putDefaultValue(Pool.PORT_NUMBER_FIELD, "portNumber");
+        SystemProperties.putDefaultValue(Pool.WARM_UP, "true");
+        SystemProperties.putDefaultValue(Pool.WARM_UP_TYPES,
+                "int2,int4,int8,float4,float8,numeric,bool,text,varchar,uuid,timestamp,timestamptz,date,jsonb,bytea,_int4,_int8,_text");
+        SystemProperties.putDefaultValue(Pool.SHUTDOWN_TIMEOUT, "30000");
+
+        SystemProperties.putDefaultValue(Replicas.BALANCING, "ROUND_ROBIN");
+        SystemProperties.putDefaultValue(Replicas.MAX_LAG, "10000");
+        SystemProperties.putDefaultValue(Replicas.LAG_CHECK_PERIOD, "5000");
+        SystemProperties.putDefaultValue(Replicas.LAG_QUERY,
+                "SELECT CASE WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL " +
+                "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+                "ELSE (EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000)::bigint END");
+
+        SystemProperties.putDefaultValue(Session.LAZY_CONNECTION, "true");
+        SystemProperties.putDefaultValue(Session.EARLY_RELEASE, "true");
+
+        SystemProperties.putDefaultValue(Metrics.ENABLED, "false");
+        SystemProperties.putDefaultValue(Metrics.MAX_SHAPES, "256");
+
+        SystemProperties.putDefaultValue(SlowLog.ENABLED, "true");
+        SystemProperties.putDefaultValue(SlowLog.THRESHOLD, "1000");
+        SystemProperties.putDefaultValue(SlowLog.SAMPLE_RATE, "0");
+        SystemProperties.putDefaultValue(SlowLog.LOG_RATE_LIMIT, "60");
+        SystemProperties.putDefaultValue(SlowLog.EXPLAIN_RATE_LIMIT, "6");
+        SystemProperties.putDefaultValue(SlowLog.EXPLAIN_TIMEOUT, "10000");
+        SystemProperties.putDefaultValue(SlowLog.BUFFER_SIZE, "100");
+
+        SystemProperties.putDefaultValue(Async.QUEUE_SIZE, "1000");
+        SystemProperties.putDefaultValue(Async.VIRTUAL_THREADS, "true");
+
+        SystemProperties.putDefaultValue(ResultCache.RESOURCES, "");
+        SystemProperties.putDefaultValue(ResultCache.MAX_BYTES, "67108864");
+        SystemProperties.putDefaultValue(ResultCache.TIME_TO_LIVE, "60000");
+
+        SystemProperties.putDefaultValue(Codec.NUMERIC_AS_DOUBLE, "true");
+        SystemProperties.putDefaultValue(Codec.JAVA_TIME, "false");
+        SystemProperties.putDefaultValue(Codec.PRIMITIVE_ARRAYS, "false");
+
+        SystemProperties.putDefaultValue(Statement.CACHE_SIZE, "64");
+        SystemProperties.putDefaultValue(Statement.SERVER_PREPARED, "false");
+        SystemProperties.putDefaultValue(Statement.IN_AS_ARRAY, "false");
+
+        SystemProperties.putDefaultValue(Batch.MODE, "VALUES");
+        SystemProperties.putDefaultValue(Batch.CHUNK_SIZE, "500");
+
+        SystemProperties.putDefaultValue(Delete.CHUNK_SIZE, "5000");
+
+        SystemProperties.putDefaultValue(Copy.BUFFER_SIZE, "65536");
+
+        SystemProperties.putDefaultValue(Cursor.FETCH_SIZE, "1000");
+
+        SystemProperties.putDefaultValue(Cache.STATEMENT_TEMPLATE_SIZE, "512");
+        SystemProperties.putDefaultValue(Cache.MAPPING_PLAN_SIZE, "512");
+        SystemProperties.putDefaultValue(Cache.COLUMN_TYPES_SIZE, "256");
+        SystemProperties.putDefaultValue(Cache.CODECS_SIZE, "512");
+    }
+
+}
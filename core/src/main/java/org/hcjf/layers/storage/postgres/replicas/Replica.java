@@ -0,0 +1,101 @@
+package org.hcjf.layers.storage.postgres.replicas;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read replica with its own data source and the state used by the router. The replica is not
+ * available until the first successful check of its replication lag.
+ * @author Javier Quiroga.
+ */
+public class Replica {
+
+    private final String name;
+    private final DataSource dataSource;
+    private final AtomicInteger outstanding;
+    private volatile long lag;
+    private volatile boolean available;
+
+    public Replica(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.outstanding = new AtomicInteger();
+        this.lag = Long.MAX_VALUE;
+        this.available = false;
+    }
+
+    /**
+     * Return the name of the replica.
+     * @return Replica name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Return the data source of the replica.
+     * @return Data source.
+     */
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Takes a connection from the data source of the replica, the connection is counted as
+     * outstanding until the method {@link Replica#release()} is called.
+     * @return Replica connection.
+     * @throws SQLException
+     */
+    public Connection getConnection() throws SQLException {
+        outstanding.incrementAndGet();
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException ex) {
+            outstanding.decrementAndGet();
+            throw ex;
+        }
+    }
+
+    /**
+     * Discount a connection of the outstanding connections.
+     */
+    public void release() {
+        outstanding.decrementAndGet();
+    }
+
+    /**
+     * Return the number of connections taken and not released.
+     * @return Outstanding connections.
+     */
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * Return the last replication lag measured in milliseconds.
+     * @return Replication lag.
+     */
+    public long getLag() {
+        return lag;
+    }
+
+    /**
+     * Return true if the replica can receive sessions.
+     * @return Availability of the replica.
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Updates the state of the replica.
+     * @param lag Replication lag in milliseconds.
+     * @param available Availability of the replica.
+     */
+    void update(long lag, boolean available) {
+        this.lag = lag;
+        this.available = available;
+    }
+}
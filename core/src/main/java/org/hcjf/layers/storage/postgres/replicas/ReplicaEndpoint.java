@@ -0,0 +1,42 @@
+package org.hcjf.layers.storage.postgres.replicas;
+
+/**
+ * Address of a read replica, the data base, user and password are the same that the primary.
+ * @author Javier Quiroga.
+ */
+public class ReplicaEndpoint {
+
+    private final String name;
+    private final String serverName;
+    private final Integer portNumber;
+
+    public ReplicaEndpoint(String name, String serverName, Integer portNumber) {
+        this.name = name;
+        this.serverName = serverName;
+        this.portNumber = portNumber;
+    }
+
+    /**
+     * Return the name of the replica, it's used as part of the pool name.
+     * @return Replica name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Return the host of the replica.
+     * @return Replica host.
+     */
+    public String getServerName() {
+        return serverName;
+    }
+
+    /**
+     * Return the port number of the replica.
+     * @return Port number.
+     */
+    public Integer getPortNumber() {
+        return portNumber;
+    }
+}
@@ -0,0 +1,162 @@
+package org.hcjf.layers.storage.postgres.replicas;
+
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.hcjf.log.Log;
+import org.hcjf.properties.SystemProperties;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Choose the replica for each read only session. The replicas with a replication lag greater
+ * than the configured threshold, or that can't be checked, are excluded until the next check.
+ * The replicas are excluded too until its first check. The lag query must return zero if the replica
+ * is streaming from the primary and has replayed all the received changes, and null if the lag is not
+ * available (the wal receiver is not streaming, the node is not replicating or it has not replayed any
+ * transaction).
+ * @author Javier Quiroga.
+ */
+public class ReplicaRouter {
+
+    private final List<Replica> replicas;
+    private final Strategy strategy;
+    private final long maxLag;
+    private final AtomicInteger nextIndex;
+    private ScheduledExecutorService lagMonitor;
+
+    public ReplicaRouter(List<Replica> replicas, Strategy strategy, long maxLag) {
+        this.replicas = Collections.unmodifiableList(new ArrayList<>(replicas));
+        this.strategy = strategy;
+        this.maxLag = maxLag;
+        this.nextIndex = new AtomicInteger();
+    }
+
+    /**
+     * Return all the replicas of the router.
+     * @return List of replicas.
+     */
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Return the balancing strategy.
+     * @return Balancing strategy.
+     */
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Select an available replica using the balancing strategy.
+     * @return Selected replica or null if there are not available replicas.
+     */
+    public Replica select() {
+        Replica result = null;
+        if(strategy.equals(Strategy.LEAST_OUTSTANDING)) {
+            for(Replica replica : replicas) {
+                if(replica.isAvailable() && (result == null || replica.getOutstanding() < result.getOutstanding())) {
+                    result = replica;
+                }
+            }
+        } else {
+            int size = replicas.size();
+            int start = Math.floorMod(nextIndex.getAndIncrement(), Math.max(1, size));
+            for (int i = 0; i < size; i++) {
+                Replica replica = replicas.get((start + i) % size);
+                if(replica.isAvailable()) {
+                    result = replica;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Measures the replication lag of all the replicas and updates its availability.
+     */
+    public void checkLag() {
+        String lagQuery = SystemProperties.get(PostgresProperties.Replicas.LAG_QUERY);
+        for(Replica replica : replicas) {
+            try (Connection connection = replica.getDataSource().getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                Long lag = null;
+                if(resultSet.next()) {
+                    lag = resultSet.getLong(1);
+                    if(resultSet.wasNull()) {
+                        lag = null;
+                    }
+                }
+
+                if(lag == null) {
+                    replica.update(Long.MAX_VALUE, false);
+                    Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                            "Replica '%s' excluded, replication lag not available", replica.getName());
+                } else {
+                    replica.update(lag, lag <= maxLag);
+                    if(lag > maxLag) {
+                        Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                                "Replica '%s' excluded, replication lag %d ms", replica.getName(), lag);
+                    }
+                }
+            } catch (SQLException ex) {
+                replica.update(Long.MAX_VALUE, false);
+                Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                        "Replica '%s' excluded, unable to check replication lag", ex, replica.getName());
+            }
+        }
+    }
+
+    /**
+     * Starts the periodic check of the replication lag.
+     * @param period Period between checks in milliseconds.
+     */
+    public synchronized void startLagMonitor(long period) {
+        if(lagMonitor == null && !replicas.isEmpty()) {
+            lagMonitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "postgres-replica-lag-monitor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            lagMonitor.scheduleWithFixedDelay(this::checkLag, 0, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops the periodic check of the replication lag.
+     */
+    public synchronized void shutdown() {
+        if(lagMonitor != null) {
+            lagMonitor.shutdownNow();
+            lagMonitor = null;
+        }
+    }
+
+    /**
+     * Balancing strategies.
+     */
+    public enum Strategy {
+
+        /**
+         * The replicas are selected in order.
+         */
+        ROUND_ROBIN,
+
+        /**
+         * The replica with less outstanding connections is selected.
+         */
+        LEAST_OUTSTANDING
+
+    }
+}
@@ -0,0 +1,37 @@
+package org.hcjf.layers.storage.postgres.slowlog;
+
+/**
+ * Token bucket that allows a number of permits per minute, the permits not used are accumulated
+ * up to the same number.
+ * @author Javier Quiroga.
+ */
+public class RateLimiter {
+
+    private static final double NANOS_PER_MINUTE = 60_000_000_000.0;
+
+    private final double permitsPerMinute;
+    private double availablePermits;
+    private long lastRefill;
+
+    public RateLimiter(double permitsPerMinute) {
+        this.permitsPerMinute = Math.max(0, permitsPerMinute);
+        this.availablePermits = this.permitsPerMinute;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Takes a permit if there are available permits.
+     * @return True if the permit was taken and false in other case.
+     */
+    public synchronized boolean tryAcquire() {
+        long now = System.nanoTime();
+        availablePermits = Math.min(permitsPerMinute, availablePermits + (now - lastRefill) * permitsPerMinute / NANOS_PER_MINUTE);
+        lastRefill = now;
+        boolean result = false;
+        if(availablePermits >= 1) {
+            availablePermits--;
+            result = true;
+        }
+        return result;
+    }
+}
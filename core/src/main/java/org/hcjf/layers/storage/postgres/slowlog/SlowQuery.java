@@ -0,0 +1,66 @@
+package org.hcjf.layers.storage.postgres.slowlog;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Entry of the slow query log.
+ * @author Javier Quiroga.
+ */
+public class SlowQuery {
+
+    private final Date date;
+    private final String statement;
+    private final List<String> parameterTypes;
+    private final long elapsedMillis;
+    private final String plan;
+
+    public SlowQuery(Date date, String statement, List<String> parameterTypes, long elapsedMillis, String plan) {
+        this.date = date;
+        this.statement = statement;
+        this.parameterTypes = Collections.unmodifiableList(parameterTypes);
+        this.elapsedMillis = elapsedMillis;
+        this.plan = plan;
+    }
+
+    /**
+     * Return the date of the execution.
+     * @return Execution date.
+     */
+    public Date getDate() {
+        return date;
+    }
+
+    /**
+     * Return the normalized sql of the statement, the values are replaced by placeholders.
+     * @return Normalized sql.
+     */
+    public String getStatement() {
+        return statement;
+    }
+
+    /**
+     * Return the postgres type names of the bind parameters.
+     * @return List of type names.
+     */
+    public List<String> getParameterTypes() {
+        return parameterTypes;
+    }
+
+    /**
+     * Return the execution time in milliseconds.
+     * @return Execution time.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Return the output of the explain command, or null if the statement was not sampled.
+     * @return Execution plan.
+     */
+    public String getPlan() {
+        return plan;
+    }
+}
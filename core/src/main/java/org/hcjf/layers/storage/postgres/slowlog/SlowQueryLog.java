@@ -0,0 +1,179 @@
+package org.hcjf.layers.storage.postgres.slowlog;
+
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.hcjf.log.Log;
+import org.hcjf.properties.SystemProperties;
+import org.postgresql.PGStatement;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Log of the statements that exceed the configured threshold. Each slow statement is logged with the
+ * normalized sql and the execution time. A sampled fraction of the slow statements (none by default) is
+ * explained in a background thread, using other connection of the data source that served the statement
+ * and into a transaction that is always rolled back. The types of the bind parameters are described only
+ * for the sampled statements and on the explain connection, never on the connection of the session. Only the selects are executed again with EXPLAIN (ANALYZE, BUFFERS), the write
+ * statements are explained without ANALYZE because the analyze executes the write (row locks, triggers and
+ * sequences) before the rollback. The logs and the explains are rate limited,
+ * and only one explain is executed or queued at the same time, the rest of the samples are discarded.
+ * The last entries are kept into a bounded ring buffer.
+ * @author Javier Quiroga.
+ */
+public class SlowQueryLog {
+
+    private static final String EXPLAIN_ANALYZE_STATEMENT = "EXPLAIN (ANALYZE, BUFFERS) %s";
+    private static final String EXPLAIN_STATEMENT = "EXPLAIN %s";
+    private static final String STATEMENT_TIMEOUT = "SET LOCAL statement_timeout = %d";
+    private static final String LOG_MESSAGE = "Slow statement (%d ms): %s";
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final RateLimiter logRateLimiter;
+    private final RateLimiter explainRateLimiter;
+    private final SlowQuery[] entries;
+    private final ThreadPoolExecutor explainExecutor;
+    private int nextEntry;
+    private int size;
+
+    public SlowQueryLog() {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(SystemProperties.getLong(PostgresProperties.SlowLog.THRESHOLD));
+        this.sampleRate = SystemProperties.getDouble(PostgresProperties.SlowLog.SAMPLE_RATE);
+        this.logRateLimiter = new RateLimiter(SystemProperties.getDouble(PostgresProperties.SlowLog.LOG_RATE_LIMIT));
+        this.explainRateLimiter = new RateLimiter(SystemProperties.getDouble(PostgresProperties.SlowLog.EXPLAIN_RATE_LIMIT));
+        this.entries = new SlowQuery[Math.max(1, SystemProperties.getInteger(PostgresProperties.SlowLog.BUFFER_SIZE))];
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1), runnable -> {
+            Thread thread = new Thread(runnable, "postgres-slow-query-explain");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Checks the execution time of the statement and if the time exceeds the threshold the statement is logged.
+     * This method must be called before the statement is released because the bind values are needed to explain it.
+     * @param dataSource Data source that served the statement, the sampled statements are explained using other
+     *                   connection of this data source. If the value is null then the statement is never explained.
+     * @param statement Normalized sql.
+     * @param preparedStatement Executed statement, null for the statements without bind values (copy), these
+     *                          statements are logged but never explained.
+     * @param elapsedNanos Execution time in nanoseconds.
+     */
+    public void onExecuted(DataSource dataSource, String statement, PreparedStatement preparedStatement, long elapsedNanos) {
+        if(elapsedNanos >= thresholdNanos && logRateLimiter.tryAcquire()) {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                    LOG_MESSAGE, elapsedMillis, statement);
+
+            Date date = new Date();
+            boolean sampled = false;
+            if(dataSource != null && preparedStatement != null && sampleRate > 0 &&
+                    ThreadLocalRandom.current().nextDouble() < sampleRate && explainRateLimiter.tryAcquire()) {
+                try {
+                    String renderedStatement = preparedStatement.unwrap(PGStatement.class).toString();
+                    explainExecutor.execute(() -> explain(dataSource, date, statement, renderedStatement, elapsedMillis));
+                    sampled = true;
+                } catch (SQLException | RejectedExecutionException ex) {
+                    //The sample is discarded
+                }
+            }
+
+            if(!sampled) {
+                add(new SlowQuery(date, statement, new ArrayList<>(), elapsedMillis, null));
+            }
+        }
+    }
+
+    /**
+     * Return the entries of the ring buffer, the newest entry first.
+     * @return List of slow queries.
+     */
+    public synchronized List<SlowQuery> getEntries() {
+        List<SlowQuery> result = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            result.add(entries[Math.floorMod(nextEntry - i, entries.length)]);
+        }
+        return result;
+    }
+
+    /**
+     * Removes all the entries of the ring buffer.
+     */
+    public synchronized void clear() {
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = null;
+        }
+        nextEntry = 0;
+        size = 0;
+    }
+
+    /**
+     * Stops the background thread of the explains.
+     */
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    private synchronized void add(SlowQuery slowQuery) {
+        entries[nextEntry] = slowQuery;
+        nextEntry = (nextEntry + 1) % entries.length;
+        size = Math.min(entries.length, size + 1);
+    }
+
+    /**
+     * Explains the statement using other connection of the data source and adds the entry to the ring buffer.
+     * @param dataSource Data source that served the statement.
+     * @param date Date of the execution.
+     * @param statement Normalized sql, used to describe the types of the bind parameters.
+     * @param renderedStatement Sql with the bind values.
+     * @param elapsedMillis Execution time in milliseconds.
+     */
+    private void explain(DataSource dataSource, Date date, String statement, String renderedStatement, long elapsedMillis) {
+        List<String> parameterTypes = new ArrayList<>();
+        String plan = null;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                try (PreparedStatement preparedStatement = connection.prepareStatement(statement)) {
+                    ParameterMetaData parameterMetaData = preparedStatement.getParameterMetaData();
+                    for (int i = 1; i <= parameterMetaData.getParameterCount(); i++) {
+                        parameterTypes.add(parameterMetaData.getParameterTypeName(i));
+                    }
+                }
+                try (Statement explainStatement = connection.createStatement()) {
+                    explainStatement.execute(String.format(STATEMENT_TIMEOUT,
+                            SystemProperties.getLong(PostgresProperties.SlowLog.EXPLAIN_TIMEOUT)));
+                    String explainFormat = isSelect(renderedStatement) ? EXPLAIN_ANALYZE_STATEMENT : EXPLAIN_STATEMENT;
+                    try (ResultSet resultSet = explainStatement.executeQuery(String.format(explainFormat, renderedStatement))) {
+                        StringBuilder planBuilder = new StringBuilder();
+                        while (resultSet.next()) {
+                            planBuilder.append(resultSet.getString(1)).append('\n');
+                        }
+                        plan = planBuilder.toString();
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException ex) {
+            Log.w(SystemProperties.get(PostgresProperties.POSTGRES_STORAGE_LAYER_LOG_TAG),
+                    "Unable to explain the slow statement", ex);
+        }
+        add(new SlowQuery(date, statement, parameterTypes, elapsedMillis, plan));
+    }
+
+    /**
+     * Checks if the statement is a select, only the selects are explained with analyze.
+     * @param statement Sql of the statement.
+     * @return True if the statement is a select.
+     */
+    private boolean isSelect(String statement) {
+        String select = SystemProperties.get(SystemProperties.Query.ReservedWord.SELECT);
+        return statement.trim().regionMatches(true, 0, select, 0, select.length());
+    }
+}
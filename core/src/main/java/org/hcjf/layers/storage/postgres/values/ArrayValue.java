@@ -0,0 +1,52 @@
+package org.hcjf.layers.storage.postgres.values;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Collection of values that is bound as a single postgres array parameter.
+ * @author Javier Quiroga.
+ */
+public class ArrayValue {
+
+    private final Collection<?> values;
+    private final String typeName;
+
+    public ArrayValue(Collection<?> values, String typeName) {
+        this.values = values;
+        this.typeName = typeName;
+    }
+
+    /**
+     * Return the elements of the array.
+     * @return Elements of the array.
+     */
+    public Collection<?> getValues() {
+        return values;
+    }
+
+    /**
+     * Return the postgres type name of the elements.
+     * @return Type name of the elements.
+     */
+    public String getTypeName() {
+        return typeName;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        boolean result = false;
+        if(obj == this) {
+            result = true;
+        } else if(obj instanceof ArrayValue) {
+            ArrayValue arrayValue = (ArrayValue) obj;
+            result = Objects.equals(typeName, arrayValue.typeName) && Objects.equals(values, arrayValue.values);
+        }
+        return result;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(typeName, values);
+    }
+}
@@ -0,0 +1,39 @@
+package org.hcjf.layers.storage.postgres.values;
+
+import java.util.Objects;
+
+/**
+ * Json document that is bound as a jsonb parameter.
+ * @author Javier Quiroga.
+ */
+public class JsonValue {
+
+    private final String json;
+
+    public JsonValue(String json) {
+        this.json = json;
+    }
+
+    /**
+     * Return the json document.
+     * @return Json text.
+     */
+    public String getJson() {
+        return json;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || (obj instanceof JsonValue && Objects.equals(json, ((JsonValue) obj).json));
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(json);
+    }
+
+    @Override
+    public String toString() {
+        return json;
+    }
+}
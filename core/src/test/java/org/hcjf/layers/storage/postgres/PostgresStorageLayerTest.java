@@ -0,0 +1,135 @@
+package org.hcjf.layers.storage.postgres;
+
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class PostgresStorageLayerTest {
+
+    @BeforeClass
+    public static void setUp() {
+        PostgresProperties.init();
+    }
+
+    @Test
+    public void testShutdownWaitsTheOpenSessions() throws Exception {
+        TestLayer layer = new TestLayer();
+        PostgresStorageSession session = layer.begin();
+        //The lazy session doesn't hold a connection but it's counted
+        Assert.assertEquals(1, layer.getOpenSessions());
+
+        AtomicBoolean result = new AtomicBoolean();
+        Thread shutdown = new Thread(() -> result.set(layer.shutdown(10000)));
+        shutdown.start();
+        shutdown.join(200);
+        Assert.assertTrue(shutdown.isAlive());
+
+        session.close();
+        shutdown.join(5000);
+        Assert.assertFalse(shutdown.isAlive());
+        Assert.assertTrue(result.get());
+        Assert.assertEquals(0, layer.getOpenSessions());
+    }
+
+    @Test
+    public void testShutdownTimeout() throws Exception {
+        TestLayer layer = new TestLayer();
+        PostgresStorageSession session = layer.begin();
+        Assert.assertFalse(layer.shutdown(100));
+        session.close();
+        Assert.assertEquals(0, layer.getOpenSessions());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNoSessionsAfterShutdown() {
+        TestLayer layer = new TestLayer();
+        layer.begin();
+        layer.shutdown(0);
+        layer.begin();
+    }
+
+    @Test
+    public void testShutdownDrainsTheQueuedOperations() throws Exception {
+        TestLayer layer = new TestLayer();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int value = i;
+            futures.add(layer.async().submit(false, session -> {
+                Thread.sleep(20);
+                return value;
+            }));
+        }
+        Assert.assertTrue(layer.shutdown(10000));
+        for (int i = 0; i < futures.size(); i++) {
+            Assert.assertEquals(Integer.valueOf(i), futures.get(i).get(1, TimeUnit.SECONDS));
+        }
+        Assert.assertEquals(0, layer.getOpenSessions());
+    }
+
+    /**
+     * Layer over a data source without server, the sessions of the tests don't take connections.
+     */
+    private static class TestLayer extends PostgresStorageLayer<PostgresStorageSession> {
+
+        private TestLayer() {
+            super("test");
+        }
+
+        @Override
+        protected DataSource createDataSource(String poolName, String serverName, Integer portNumber) {
+            return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{DataSource.class},
+                    (proxy, method, args) -> {
+                        throw new SQLException("There is not server");
+                    });
+        }
+
+        @Override
+        protected PostgresStorageSession getSessionInstance(String implName, Connection connection) {
+            return new PostgresStorageSession(implName, connection);
+        }
+
+        @Override
+        protected String getDataSourceName() {
+            return "test";
+        }
+
+        @Override
+        protected String getServerName() {
+            return "localhost";
+        }
+
+        @Override
+        protected String getDatabaseName() {
+            return "test";
+        }
+
+        @Override
+        protected String getUserName() {
+            return "test";
+        }
+
+        @Override
+        protected String getPassword() {
+            return "test";
+        }
+
+        @Override
+        protected Integer getPortNumber() {
+            return 5432;
+        }
+    }
+}
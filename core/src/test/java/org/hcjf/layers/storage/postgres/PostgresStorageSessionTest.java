@@ -0,0 +1,150 @@
+package org.hcjf.layers.storage.postgres;
+
+import org.hcjf.layers.query.Equals;
+import org.hcjf.layers.query.In;
+import org.hcjf.layers.query.NotIn;
+import org.hcjf.layers.query.Query;
+import org.hcjf.layers.storage.postgres.codecs.TypeCodec;
+import org.hcjf.layers.storage.postgres.codecs.TypeCodecRegistry;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.hcjf.layers.storage.postgres.values.ArrayValue;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class PostgresStorageSessionTest {
+
+    @BeforeClass
+    public static void setUp() {
+        PostgresProperties.init();
+    }
+
+    @Test
+    public void testCloseCommitsTheTransaction() throws IOException {
+        List<String> calls = new ArrayList<>();
+        PostgresStorageSession session = new PostgresStorageSession("test", connection(calls, false));
+        session.close();
+        Assert.assertEquals(Arrays.asList("commit", "close"), calls);
+    }
+
+    @Test
+    public void testCloseThrowsTheCommitError() {
+        List<String> calls = new ArrayList<>();
+        PostgresStorageSession session = new PostgresStorageSession("test", connection(calls, true));
+        session.onWrite("customer");
+        try {
+            session.close();
+            Assert.fail("The commit error must be thrown");
+        } catch (IOException ex) {
+            Assert.assertTrue(ex.getCause() instanceof SQLException);
+        }
+        Assert.assertEquals(Arrays.asList("commit", "rollback", "close"), calls);
+        Assert.assertFalse(session.hasPendingWrites(Collections.singletonList("customer")));
+    }
+
+    @Test
+    public void testCloseRollsBackTheSessionErrors() throws IOException {
+        List<String> calls = new ArrayList<>();
+        PostgresStorageSession session = new PostgresStorageSession("test", connection(calls, false));
+        session.onError(new IllegalStateException());
+        session.close();
+        Assert.assertEquals(Arrays.asList("rollback", "close"), calls);
+    }
+
+    @Test
+    public void testCodecsAreResolvedOncePerPosition() {
+        PostgresStorageSession session = new PostgresStorageSession("test", (Connection) null);
+        String statement = "SELECT * FROM customer WHERE id = ? AND name = ?";
+        TypeCodec[] codecs = session.getCodecs(statement, 2);
+        Assert.assertSame(codecs, session.getCodecs(statement, 2));
+
+        List<String> calls = new ArrayList<>();
+        PreparedStatement preparedStatement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    calls.add(method.getName() + " " + args[0]);
+                    return null;
+                });
+        session.setValues(preparedStatement, Arrays.asList(1, "john"), codecs, 1);
+        Assert.assertEquals(Arrays.asList("setInt 1", "setString 2"), calls);
+        Assert.assertSame(TypeCodecRegistry.getInstance().get(Integer.class), codecs[0]);
+        Assert.assertSame(TypeCodecRegistry.getInstance().get(String.class), codecs[1]);
+    }
+
+    /**
+     * Creates a connection into a transaction that records the calls of its methods.
+     * @param calls List to record the calls.
+     * @param commitError True if the commit fails.
+     * @return Connection instance.
+     */
+    @Test
+    public void testInRendersOneReplaceableValuePerElement() {
+        PostgresStorageSession session = new PostgresStorageSession("test", (Connection) null);
+        Query query = inQuery();
+        String sql = session.processEvaluators(new StringBuilder(), query).toString();
+        Assert.assertTrue(sql, sql.contains("id IN (?,?,?)"));
+        Assert.assertTrue(sql, sql.contains("status NOT IN (?,?)"));
+        Assert.assertEquals(Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList("closed", "deleted"), "john"),
+                session.collectValues(new ArrayList<>(), query));
+    }
+
+    @Test
+    public void testInAsArrayRendersAnyAndAll() {
+        System.setProperty(PostgresProperties.Statement.IN_AS_ARRAY, Boolean.TRUE.toString());
+        try {
+            PostgresStorageSession session = new PostgresStorageSession("test", (Connection) null);
+            Query query = inQuery();
+            String sql = session.processEvaluators(new StringBuilder(), query).toString();
+            Assert.assertTrue(sql, sql.contains("id = ANY (?)"));
+            Assert.assertTrue(sql, sql.contains("status <> ALL (?)"));
+            Assert.assertEquals(3, sql.chars().filter(c -> c == '?').count());
+
+            List<Object> values = session.collectValues(new ArrayList<>(), query);
+            Assert.assertEquals(Arrays.asList(
+                    new ArrayValue(Arrays.asList(1, 2, 3), "int4"),
+                    new ArrayValue(Arrays.asList("closed", "deleted"), "text"),
+                    "john"), values);
+        } finally {
+            System.clearProperty(PostgresProperties.Statement.IN_AS_ARRAY);
+        }
+    }
+
+    private Query inQuery() {
+        Query result = new Query("customer");
+        result.addEvaluator(new In("id", Arrays.asList(1, 2, 3)));
+        result.addEvaluator(new NotIn("status", Arrays.asList("closed", "deleted")));
+        result.addEvaluator(new Equals("name", "john"));
+        return result;
+    }
+
+    private Connection connection(List<String> calls, boolean commitError) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = null;
+                    switch (method.getName()) {
+                        case "getAutoCommit": result = false; break;
+                        case "commit": {
+                            calls.add(method.getName());
+                            if(commitError) {
+                                throw new SQLException("could not serialize access", "40001");
+                            }
+                            break;
+                        }
+                        case "rollback": case "close": calls.add(method.getName()); break;
+                    }
+                    return result;
+                });
+    }
+}
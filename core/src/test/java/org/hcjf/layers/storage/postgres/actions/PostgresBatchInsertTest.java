@@ -0,0 +1,33 @@
+package org.hcjf.layers.storage.postgres.actions;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class PostgresBatchInsertTest {
+
+    @Test
+    public void testRowErrors() {
+        Assert.assertTrue(PostgresBatchInsert.isRowError(new SQLException("unique violation", "23505")));
+        Assert.assertTrue(PostgresBatchInsert.isRowError(new SQLException("invalid input syntax", "22P02")));
+        Assert.assertFalse(PostgresBatchInsert.isRowError(new SQLException("connection failure", "08006")));
+        Assert.assertFalse(PostgresBatchInsert.isRowError(new SQLException("deadlock detected", "40P01")));
+        Assert.assertFalse(PostgresBatchInsert.isRowError(new SQLException("unknown")));
+    }
+
+    @Test
+    public void testSqlStateOfTheNextException() {
+        BatchUpdateException batchException = new BatchUpdateException("batch entry failed", new int[0]);
+        batchException.setNextException(new SQLException("not null violation", "23502"));
+        Assert.assertTrue(PostgresBatchInsert.isRowError(batchException));
+
+        SQLException timeout = new SQLException("statement timeout", "57014");
+        timeout.setNextException(new SQLException("unique violation", "23505"));
+        Assert.assertFalse(PostgresBatchInsert.isRowError(timeout));
+    }
+}
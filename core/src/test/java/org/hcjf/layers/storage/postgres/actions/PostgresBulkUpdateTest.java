@@ -0,0 +1,150 @@
+package org.hcjf.layers.storage.postgres.actions;
+
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.postgresql.PGStatement;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class PostgresBulkUpdateTest {
+
+    @BeforeClass
+    public static void setUp() {
+        PostgresProperties.init();
+    }
+
+    @Test
+    public void testBuildStatement() {
+        PostgresBulkUpdate update = bulkUpdate(new PostgresStorageSession("test", (Connection) null));
+        update.addRow(1, row("a", Arrays.asList("x", "y")));
+        Assert.assertEquals("UPDATE customer SET name = v.name,tags = v.tags FROM (VALUES " +
+                "(CAST(? AS int4),CAST(? AS varchar),CAST(? AS text[]))," +
+                "(CAST(? AS int4),CAST(? AS varchar),CAST(? AS text[]))) AS v (id,name,tags) " +
+                "WHERE customer.id = v.id", update.buildStatement(Arrays.asList("serial", "varchar", "_text"), 2));
+    }
+
+    @Test
+    public void testRowsWithoutValuesAreRejected() {
+        PostgresBulkUpdate update = bulkUpdate(new PostgresStorageSession("test", (Connection) null));
+        try {
+            update.addRow(1, new HashMap<>());
+            Assert.fail("The empty rows must be rejected");
+        } catch (IllegalArgumentException ex) {
+        }
+        try {
+            update.addRow(1, Collections.singletonMap("id", 1));
+            Assert.fail("The rows with only the key column must be rejected");
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+
+    @Test
+    public void testCollectionsAreBoundAsArrays() throws StorageAccessException {
+        List<String> calls = new ArrayList<>();
+        PostgresBulkUpdate update = bulkUpdate(new PostgresStorageSession("test", connection(calls)));
+        update.addRow(1, row("a", Arrays.asList("x", "y")));
+        update.addRow(2, row("b", Collections.emptyList()));
+        update.execute();
+
+        Assert.assertEquals(2, update.getUpdatedRows());
+        Assert.assertEquals(6, calls.stream().filter(call -> call.startsWith("set")).count());
+        Assert.assertTrue(calls.toString(), calls.contains("createArrayOf text [x, y]"));
+        Assert.assertTrue(calls.toString(), calls.contains("createArrayOf text []"));
+        Assert.assertTrue(calls.toString(), calls.contains("setArray 3"));
+        Assert.assertTrue(calls.toString(), calls.contains("setArray 6"));
+    }
+
+    private PostgresBulkUpdate bulkUpdate(PostgresStorageSession session) {
+        PostgresBulkUpdate update = new PostgresBulkUpdate(session);
+        update.setResourceName("customer");
+        update.setKeyColumn("id");
+        return update;
+    }
+
+    private Map<String, Object> row(String name, List<String> tags) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("name", name);
+        row.put("tags", tags);
+        return row;
+    }
+
+    /**
+     * Creates a connection in autocommit mode that records the bind calls of its statements, the
+     * resource has the columns id (int4), name (varchar) and tags (text[]).
+     * @param calls List to record the calls.
+     * @return Connection instance.
+     */
+    private Connection connection(List<String> calls) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = null;
+            switch (method.getName()) {
+                case "getAutoCommit": case "isWrapperFor": result = method.getName().equals("getAutoCommit"); break;
+                case "getCatalog": result = "bulk"; break;
+                case "prepareStatement": result = statement(calls); break;
+                case "createArrayOf": {
+                    calls.add(method.getName() + " " + args[0] + " " + Arrays.toString((Object[]) args[1]));
+                    result = proxy(Array.class, (arrayProxy, arrayMethod, arrayArgs) -> null);
+                    break;
+                }
+            }
+            return result;
+        });
+    }
+
+    private PreparedStatement statement(List<String> calls) {
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            Object result = null;
+            if(method.getName().startsWith("set")) {
+                calls.add(method.getName() + " " + args[0]);
+            } else {
+                switch (method.getName()) {
+                    case "executeUpdate": result = 2; break;
+                    case "isClosed": result = false; break;
+                    case "unwrap": result = proxy; break;
+                    case "executeQuery": result = proxy(ResultSet.class, (resultProxy, resultMethod, resultArgs) ->
+                            resultMethod.getName().equals("getMetaData") ? metaData() : null); break;
+                }
+            }
+            return result;
+        });
+    }
+
+    private ResultSetMetaData metaData() {
+        List<String> types = Arrays.asList("int4", "varchar", "_text");
+        return proxy(ResultSetMetaData.class, (proxy, method, args) ->
+                method.getName().equals("getColumnCount") ? types.size() : types.get((Integer) args[0] - 1));
+    }
+
+    /**
+     * Creates an instance of the interface, the methods of the object class are resolved by identity.
+     * @param type Interface to implement.
+     * @param handler Handler of the interface methods.
+     * @param <T> Type of the interface.
+     * @return Proxy instance.
+     */
+    private <T> T proxy(Class<T> type, InvocationHandler handler) {
+        Class[] interfaces = type.equals(PreparedStatement.class) ?
+                new Class[]{type, PGStatement.class} : new Class[]{type};
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), interfaces, (proxy, method, args) -> {
+            Object result;
+            switch (method.getName()) {
+                case "hashCode": result = System.identityHashCode(proxy); break;
+                case "equals": result = proxy == args[0]; break;
+                case "toString": result = type.getSimpleName(); break;
+                default: result = handler.invoke(proxy, method, args);
+            }
+            return result;
+        }));
+    }
+}
@@ -0,0 +1,149 @@
+package org.hcjf.layers.storage.postgres.actions;
+
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.postgresql.PGStatement;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.*;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class PostgresDeleteTest {
+
+    @BeforeClass
+    public static void setUp() {
+        PostgresProperties.init();
+    }
+
+    @Test
+    public void testKeysAreDeletedInChunks() throws StorageAccessException {
+        List<String> calls = new ArrayList<>();
+        PostgresStorageSession session = new PostgresStorageSession("test", connection(calls, true));
+        PostgresDelete delete = new PostgresDelete(session);
+        delete.setResourceName("customer");
+        delete.setKeys("id", Arrays.asList(1, 2, 3, 4, 5));
+        delete.setChunkSize(2);
+        delete.execute();
+
+        Assert.assertEquals(Arrays.asList(
+                "prepareStatement DELETE FROM customer WHERE id = ANY(?)",
+                "createArrayOf int4 [1, 2]", "setArray 1", "executeUpdate",
+                "createArrayOf int4 [3, 4]", "setArray 1", "executeUpdate",
+                "createArrayOf int4 [5]", "setArray 1", "executeUpdate"), calls);
+        Assert.assertEquals(6, delete.getDeletedRows());
+    }
+
+    @Test
+    public void testEachChunkIsCommittedIntoATransaction() throws StorageAccessException {
+        List<String> calls = new ArrayList<>();
+        PostgresStorageSession session = new PostgresStorageSession("test", connection(calls, false));
+        PostgresDelete delete = new PostgresDelete(session);
+        delete.setResourceName("customer");
+        delete.setKeys("id", Arrays.asList(1, 2, 3));
+        delete.setChunkSize(2);
+        delete.execute();
+
+        Assert.assertEquals(2, calls.stream().filter(call -> call.equals("commit")).count());
+        Assert.assertEquals("commit", calls.get(calls.size() - 1));
+    }
+
+    @Test
+    public void testPendingWritesAreNotCommittedByTheChunks() {
+        List<String> calls = new ArrayList<>();
+        PostgresStorageSession session = new PostgresStorageSession("test", connection(calls, false));
+        session.onWrite("account");
+        PostgresDelete delete = new PostgresDelete(session);
+        delete.setResourceName("customer");
+        delete.setKeys("id", Arrays.asList(1, 2, 3));
+        try {
+            delete.execute();
+            Assert.fail("The bulk delete must be refused");
+        } catch (StorageAccessException ex) {
+            Assert.assertNull(ex.getCause());
+        }
+        Assert.assertTrue(calls.isEmpty());
+    }
+
+    @Test
+    public void testConditionsAreRequired() {
+        PostgresDelete delete = new PostgresDelete(new PostgresStorageSession("test", connection(new ArrayList<>(), true)));
+        delete.setResourceName("customer");
+        try {
+            delete.execute();
+            Assert.fail("The delete without conditions must be refused");
+        } catch (StorageAccessException ex) {
+            Assert.assertEquals("Delete query conditions not found", ex.getMessage());
+            Assert.assertNull(ex.getCause());
+        }
+    }
+
+    /**
+     * Creates a connection that records the calls of the delete, each statement deletes 2 rows.
+     * @param calls List to record the calls.
+     * @param autoCommit Auto commit mode of the connection.
+     * @return Connection instance.
+     */
+    private Connection connection(List<String> calls, boolean autoCommit) {
+        PreparedStatement statement = proxy(PreparedStatement.class, (proxy, method, args) -> {
+            Object result = null;
+            switch (method.getName()) {
+                case "setArray": calls.add(method.getName() + " " + args[0]); break;
+                case "executeUpdate": calls.add(method.getName()); result = 2; break;
+                case "isClosed": result = false; break;
+                case "unwrap": result = proxy; break;
+            }
+            return result;
+        });
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = null;
+            switch (method.getName()) {
+                case "getAutoCommit": result = autoCommit; break;
+                case "isWrapperFor": case "isClosed": result = false; break;
+                case "commit": calls.add(method.getName()); break;
+                case "prepareStatement": {
+                    calls.add(method.getName() + " " + args[0]);
+                    result = statement;
+                    break;
+                }
+                case "createArrayOf": {
+                    calls.add(method.getName() + " " + args[0] + " " + Arrays.toString((Object[]) args[1]));
+                    result = proxy(Array.class, (arrayProxy, arrayMethod, arrayArgs) -> null);
+                    break;
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Creates an instance of the interface, the methods of the object class are resolved by identity.
+     * @param type Interface to implement.
+     * @param handler Handler of the interface methods.
+     * @param <T> Type of the interface.
+     * @return Proxy instance.
+     */
+    private <T> T proxy(Class<T> type, InvocationHandler handler) {
+        Class[] interfaces = type.equals(PreparedStatement.class) ?
+                new Class[]{type, PGStatement.class} : new Class[]{type};
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), interfaces, (proxy, method, args) -> {
+            Object result;
+            switch (method.getName()) {
+                case "hashCode": result = System.identityHashCode(proxy); break;
+                case "equals": result = proxy == args[0]; break;
+                case "toString": result = type.getSimpleName(); break;
+                default: result = handler.invoke(proxy, method, args);
+            }
+            return result;
+        }));
+    }
+}
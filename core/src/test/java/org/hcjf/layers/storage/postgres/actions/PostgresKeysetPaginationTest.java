@@ -0,0 +1,73 @@
+package org.hcjf.layers.storage.postgres.actions;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class PostgresKeysetPaginationTest {
+
+    private static final int FINGERPRINT_HASH = "customer|*".hashCode();
+
+    @Test
+    public void testTokenRoundTrip() {
+        Timestamp timestamp = new Timestamp(1500000000123L);
+        timestamp.setNanos(123456789);
+        UUID uuid = UUID.randomUUID();
+        Object[] key = {"john", 18, 5000000000L, 1.5, new BigDecimal("10.25"), true, uuid, timestamp};
+
+        String token = PostgresKeysetPagination.encodeToken(FINGERPRINT_HASH, key);
+        Assert.assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        Assert.assertArrayEquals(key, PostgresKeysetPagination.decodeToken(token, FINGERPRINT_HASH, key.length));
+    }
+
+    @Test
+    public void testDatesAreDecodedAsTimestamps() {
+        Date date = new Date(1500000000123L);
+        String token = PostgresKeysetPagination.encodeToken(FINGERPRINT_HASH, new Object[]{date});
+        Object[] key = PostgresKeysetPagination.decodeToken(token, FINGERPRINT_HASH, 1);
+        Assert.assertTrue(key[0] instanceof Timestamp);
+        Assert.assertEquals(date.getTime(), ((Timestamp) key[0]).getTime());
+    }
+
+    @Test
+    public void testShortAndFloatValuesAreWidened() {
+        String token = PostgresKeysetPagination.encodeToken(FINGERPRINT_HASH, new Object[]{(short) 3, 2.5f});
+        Assert.assertArrayEquals(new Object[]{3, 2.5},
+                PostgresKeysetPagination.decodeToken(token, FINGERPRINT_HASH, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsTheTokensOfOtherQueries() {
+        String token = PostgresKeysetPagination.encodeToken(FINGERPRINT_HASH, new Object[]{1});
+        PostgresKeysetPagination.decodeToken(token, FINGERPRINT_HASH + 1, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsTokensWithOtherKeySize() {
+        String token = PostgresKeysetPagination.encodeToken(FINGERPRINT_HASH, new Object[]{1});
+        PostgresKeysetPagination.decodeToken(token, FINGERPRINT_HASH, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsInvalidTokens() {
+        PostgresKeysetPagination.decodeToken("not a token", FINGERPRINT_HASH, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsTruncatedTokens() {
+        String token = PostgresKeysetPagination.encodeToken(FINGERPRINT_HASH, new Object[]{5000000000L});
+        PostgresKeysetPagination.decodeToken(token.substring(0, token.length() - 4), FINGERPRINT_HASH, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNullKeys() {
+        PostgresKeysetPagination.encodeToken(FINGERPRINT_HASH, new Object[]{null});
+    }
+}
@@ -0,0 +1,153 @@
+package org.hcjf.layers.storage.postgres.actions;
+
+import org.hcjf.layers.query.Equals;
+import org.hcjf.layers.query.Query;
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.postgresql.PGStatement;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class PostgresSelectPipelineTest {
+
+    @BeforeClass
+    public static void setUp() {
+        PostgresProperties.init();
+    }
+
+    @Test
+    public void testFailedPipelineExecutesEachSelectIntoItsOwnSavepoint() throws StorageAccessException {
+        List<String> calls = new ArrayList<>();
+        PostgresSelectPipeline pipeline = new PostgresSelectPipeline(
+                new PostgresStorageSession("test", connection(calls, false)));
+        Query first = query(1);
+        Query second = query(2);
+        pipeline.add(first);
+        pipeline.add(second);
+        List<PostgresSelectPipeline.Result> results = pipeline.execute();
+
+        Assert.assertEquals(Arrays.asList(
+                "setSavepoint", "execute", "rollback",
+                "setSavepoint", "executeQuery 1", "releaseSavepoint",
+                "setSavepoint", "executeQuery 2", "rollback"), calls);
+        Assert.assertEquals(2, results.size());
+        Assert.assertSame(first, results.get(0).getQuery());
+        Assert.assertTrue(results.get(0).isSuccessful());
+        Assert.assertNotNull(results.get(0).getResultSet());
+        Assert.assertSame(second, results.get(1).getQuery());
+        Assert.assertFalse(results.get(1).isSuccessful());
+        Assert.assertNull(results.get(1).getResultSet());
+        Assert.assertTrue(results.get(1).getError() instanceof SQLException);
+    }
+
+    @Test
+    public void testFailedPipelineInAutoCommitModeDoesNotUseSavepoints() throws StorageAccessException {
+        List<String> calls = new ArrayList<>();
+        PostgresSelectPipeline pipeline = new PostgresSelectPipeline(
+                new PostgresStorageSession("test", connection(calls, true)));
+        pipeline.add(query(2));
+        pipeline.add(query(1));
+        List<PostgresSelectPipeline.Result> results = pipeline.execute();
+
+        Assert.assertEquals(Arrays.asList("execute", "executeQuery 2", "executeQuery 1"), calls);
+        Assert.assertFalse(results.get(0).isSuccessful());
+        Assert.assertTrue(results.get(1).isSuccessful());
+    }
+
+    private Query query(int id) {
+        Query result = new Query("customer");
+        result.addEvaluator(new Equals("id", id));
+        return result;
+    }
+
+    /**
+     * Creates a connection where the multi-statement pipeline always fails and the single selects
+     * fail when the bound id is 2, all the successful selects return an empty result set.
+     * @param calls List to record the calls.
+     * @param autoCommit Auto commit mode of the connection.
+     * @return Connection instance.
+     */
+    private Connection connection(List<String> calls, boolean autoCommit) {
+        ResultSetMetaData metaData = proxy(ResultSetMetaData.class, (proxy, method, args) ->
+                method.getName().equals("getColumnCount") ? 0 : null);
+        ResultSet resultSet = proxy(ResultSet.class, (proxy, method, args) -> {
+            Object result = null;
+            switch (method.getName()) {
+                case "getMetaData": result = metaData; break;
+                case "next": result = false; break;
+            }
+            return result;
+        });
+        Savepoint savepoint = proxy(Savepoint.class, (proxy, method, args) -> null);
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = null;
+            switch (method.getName()) {
+                case "getAutoCommit": result = autoCommit; break;
+                case "isWrapperFor": case "isClosed": result = false; break;
+                case "setSavepoint": calls.add(method.getName()); result = savepoint; break;
+                case "releaseSavepoint": case "rollback": calls.add(method.getName()); break;
+                case "prepareStatement": result = statement(calls, (String) args[0], resultSet); break;
+            }
+            return result;
+        });
+    }
+
+    private PreparedStatement statement(List<String> calls, String sql, ResultSet resultSet) {
+        Object[] id = new Object[1];
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            Object result = null;
+            switch (method.getName()) {
+                case "setInt": case "setObject": id[0] = args[1]; break;
+                case "execute": {
+                    calls.add(method.getName());
+                    throw new SQLException("Pipeline failed: " + sql);
+                }
+                case "executeQuery": {
+                    calls.add(method.getName() + " " + id[0]);
+                    if(Integer.valueOf(2).equals(id[0])) {
+                        throw new SQLException("Select failed");
+                    }
+                    result = resultSet;
+                    break;
+                }
+                case "isClosed": result = false; break;
+                case "unwrap": result = proxy; break;
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Creates an instance of the interface, the methods of the object class are resolved by identity.
+     * @param type Interface to implement.
+     * @param handler Handler of the interface methods.
+     * @param <T> Type of the interface.
+     * @return Proxy instance.
+     */
+    private <T> T proxy(Class<T> type, InvocationHandler handler) {
+        Class[] interfaces = type.equals(PreparedStatement.class) ?
+                new Class[]{type, PGStatement.class} : new Class[]{type};
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), interfaces, (proxy, method, args) -> {
+            Object result;
+            switch (method.getName()) {
+                case "hashCode": result = System.identityHashCode(proxy); break;
+                case "equals": result = proxy == args[0]; break;
+                case "toString": result = type.getSimpleName(); break;
+                default: result = handler.invoke(proxy, method, args);
+            }
+            return result;
+        }));
+    }
+}
@@ -0,0 +1,72 @@
+package org.hcjf.layers.storage.postgres.actions;
+
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.util.*;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class PostgresUpsertTest {
+
+    private static PostgresStorageSession session;
+
+    @BeforeClass
+    public static void setUp() {
+        PostgresProperties.init();
+        session = new PostgresStorageSession("test", (Connection) null);
+    }
+
+    @Test
+    public void testUpdateKeepsTheLastRowOfEachKey() {
+        PostgresUpsert upsert = new PostgresUpsert(session);
+        upsert.setConflictColumns(Collections.singletonList("id"));
+        List<Map<String, Object>> rows = upsert.prepareRows(Arrays.asList(row(1, "a"), row(2, "b"), row(1, "c")));
+        Assert.assertEquals(Arrays.asList(row(1, "c"), row(2, "b")), rows);
+    }
+
+    @Test
+    public void testNothingKeepsTheFirstRowOfEachKey() {
+        PostgresUpsert upsert = new PostgresUpsert(session);
+        upsert.setConflictColumns(Collections.singletonList("id"));
+        upsert.setConflictAction(PostgresUpsert.ConflictAction.NOTHING);
+        List<Map<String, Object>> rows = upsert.prepareRows(Arrays.asList(row(1, "a"), row(2, "b"), row(1, "c")));
+        Assert.assertEquals(Arrays.asList(row(1, "a"), row(2, "b")), rows);
+    }
+
+    @Test
+    public void testRowsWithoutDuplicatesAreNotCopied() {
+        PostgresUpsert upsert = new PostgresUpsert(session);
+        upsert.setConflictColumns(Collections.singletonList("id"));
+        List<Map<String, Object>> rows = Arrays.asList(row(1, "a"), row(2, "b"));
+        Assert.assertSame(rows, upsert.prepareRows(rows));
+    }
+
+    @Test
+    public void testCompositeKeys() {
+        PostgresUpsert upsert = new PostgresUpsert(session);
+        upsert.setConflictColumns(Arrays.asList("id", "name"));
+        List<Map<String, Object>> rows = Arrays.asList(row(1, "a"), row(1, "b"), row(1, "a"));
+        Assert.assertEquals(2, upsert.prepareRows(rows).size());
+    }
+
+    @Test
+    public void testRowsWithNullKeysAreNotMerged() {
+        PostgresUpsert upsert = new PostgresUpsert(session);
+        upsert.setConflictColumns(Arrays.asList("id", "name"));
+        List<Map<String, Object>> rows = Arrays.asList(row(1, null), row(1, null), row(1, "a"), row(1, "a"));
+        Assert.assertEquals(Arrays.asList(row(1, null), row(1, null), row(1, "a")), upsert.prepareRows(rows));
+    }
+
+    private Map<String, Object> row(int id, String name) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("name", name);
+        return row;
+    }
+}
@@ -0,0 +1,62 @@
+package org.hcjf.layers.storage.postgres.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class BoundedCacheTest {
+
+    @Test
+    public void testGetCreatesTheValueOnlyOnce() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10);
+        Assert.assertEquals("A", cache.get("a", String::toUpperCase));
+        Assert.assertEquals("A", cache.get("a", key -> {
+            throw new IllegalStateException("The value is cached");
+        }));
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testEvictsInInsertionOrder() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(2);
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.getIfPresent(1);
+        cache.put(3, 3);
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNull(cache.getIfPresent(1));
+        Assert.assertEquals(Integer.valueOf(2), cache.getIfPresent(2));
+        Assert.assertEquals(Integer.valueOf(3), cache.getIfPresent(3));
+        Assert.assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void testPutKeepsTheFirstValue() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2);
+        cache.put("a", "first");
+        cache.put("a", "second");
+        Assert.assertEquals("first", cache.getIfPresent("a"));
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testZeroSizeDisablesTheCache() {
+        BoundedCache<String, String> cache = new BoundedCache<>(0);
+        cache.put("a", "a");
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNull(cache.getIfPresent("a"));
+        Assert.assertEquals("A", cache.get("a", String::toUpperCase));
+    }
+
+    @Test
+    public void testClearKeepsTheCounters() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2);
+        cache.get("a", String::toUpperCase);
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(1, cache.getMisses());
+    }
+}
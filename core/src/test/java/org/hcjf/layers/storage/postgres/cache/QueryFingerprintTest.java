@@ -0,0 +1,69 @@
+package org.hcjf.layers.storage.postgres.cache;
+
+import org.hcjf.layers.query.Query;
+import org.hcjf.layers.storage.postgres.PostgresStorageSession;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class QueryFingerprintTest {
+
+    private static PostgresStorageSession session;
+
+    @BeforeClass
+    public static void setUp() {
+        PostgresProperties.init();
+        session = new PostgresStorageSession("test", (Connection) null);
+    }
+
+    @Test
+    public void testValuesAreNotPartOfTheFingerprint() {
+        Assert.assertEquals(
+                fingerprint("SELECT * FROM customer WHERE age > 18 AND name = 'john'"),
+                fingerprint("SELECT * FROM customer WHERE age > 30 AND name = 'jane'"));
+    }
+
+    @Test
+    public void testStructureIsPartOfTheFingerprint() {
+        String fingerprint = fingerprint("SELECT * FROM customer WHERE age > 18");
+        Assert.assertNotEquals(fingerprint, fingerprint("SELECT * FROM customer WHERE age < 18"));
+        Assert.assertNotEquals(fingerprint, fingerprint("SELECT * FROM customer WHERE balance > 18"));
+        Assert.assertNotEquals(fingerprint, fingerprint("SELECT * FROM account WHERE age > 18"));
+        Assert.assertNotEquals(fingerprint, fingerprint("SELECT name FROM customer WHERE age > 18"));
+        Assert.assertNotEquals(fingerprint, fingerprint("SELECT * FROM customer WHERE age > 18 LIMIT 10"));
+    }
+
+    @Test
+    public void testOrderDirectionIsPartOfTheFingerprint() {
+        Assert.assertNotEquals(
+                fingerprint("SELECT * FROM customer ORDER BY name"),
+                fingerprint("SELECT * FROM customer ORDER BY name DESC"));
+    }
+
+    @Test
+    public void testGroupsArePartOfTheFingerprint() {
+        Assert.assertNotEquals(
+                fingerprint("SELECT * FROM customer WHERE age > 18 AND (name = 'john' OR name = 'jane')"),
+                fingerprint("SELECT * FROM customer WHERE age > 18 OR (name = 'john' AND name = 'jane')"));
+    }
+
+    @Test
+    public void testInSizeIsPartOfTheFingerprintWhenTheValuesAreExpanded() {
+        Assert.assertEquals(
+                fingerprint("SELECT * FROM customer WHERE age IN (1, 2)"),
+                fingerprint("SELECT * FROM customer WHERE age IN (3, 4)"));
+        Assert.assertNotEquals(
+                fingerprint("SELECT * FROM customer WHERE age IN (1, 2)"),
+                fingerprint("SELECT * FROM customer WHERE age IN (1, 2, 3)"));
+    }
+
+    private String fingerprint(String sql) {
+        return QueryFingerprint.of(session, Query.compile(sql));
+    }
+}
@@ -0,0 +1,200 @@
+package org.hcjf.layers.storage.postgres.cache;
+
+import org.hcjf.layers.query.JoinableMap;
+import org.hcjf.layers.storage.actions.CollectionResultSet;
+import org.hcjf.layers.storage.actions.MapResultSet;
+import org.hcjf.layers.storage.actions.ResultSet;
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.*;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class ResultCacheTest {
+
+    private static final String CUSTOMER = "customer";
+    private static final String ACCOUNT = "account";
+
+    @BeforeClass
+    public static void setUp() {
+        PostgresProperties.init();
+    }
+
+    @Test
+    public void testReadersReceiveIndependentRows() {
+        ResultCache cache = new ResultCache(1024 * 1024, 60000, Collections.singletonList(CUSTOMER));
+        ResultCache.Key key = key(1);
+        Date created = new Date(1000);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        rows.add(row("john", created, new ArrayList<>(Arrays.asList(1, 2))));
+        cache.put(key, cache.getGenerations(Collections.singletonList(CUSTOMER)), CUSTOMER, new MapResultSet(rows));
+
+        //The rows stored by the cache are not the rows of the stored result set
+        rows.get(0).put("name", "modified");
+        created.setTime(2000);
+
+        ResultSet<List<Map<String, Object>>> first = cache.get(key);
+        Map<String, Object> firstRow = first.getResult().get(0);
+        Assert.assertEquals("john", firstRow.get("name"));
+        Assert.assertEquals(new Date(1000), firstRow.get("created"));
+        firstRow.put("name", "modified");
+        ((Date) firstRow.get("created")).setTime(3000);
+        ((List<Object>) firstRow.get("tags")).add(3);
+
+        ResultSet<List<Map<String, Object>>> second = cache.get(key);
+        Map<String, Object> secondRow = second.getResult().get(0);
+        Assert.assertNotSame(firstRow, secondRow);
+        Assert.assertEquals("john", secondRow.get("name"));
+        Assert.assertEquals(new Date(1000), secondRow.get("created"));
+        Assert.assertEquals(Arrays.asList(1, 2), secondRow.get("tags"));
+        Assert.assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void testInvalidateRemovesTheEntriesOfTheResource() {
+        ResultCache cache = new ResultCache(1024 * 1024, 60000, Arrays.asList(CUSTOMER, ACCOUNT));
+        cache.put(key(1), cache.getGenerations(Collections.singletonList(CUSTOMER)), CUSTOMER, result());
+        cache.put(key(2), cache.getGenerations(Collections.singletonList(ACCOUNT)), ACCOUNT, result());
+        cache.invalidate(CUSTOMER);
+        Assert.assertNull(cache.get(key(1)));
+        Assert.assertNotNull(cache.get(key(2)));
+        Assert.assertEquals(1, cache.getInvalidations());
+    }
+
+    @Test
+    public void testDiscardsTheResultsOfOldGenerations() {
+        ResultCache cache = new ResultCache(1024 * 1024, 60000, Collections.singletonList(CUSTOMER));
+        Map<String, Long> generations = cache.getGenerations(Collections.singletonList(CUSTOMER));
+        //Write committed during the execution of the query
+        cache.invalidate(CUSTOMER);
+        cache.put(key(1), generations, CUSTOMER, result());
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNull(cache.get(key(1)));
+    }
+
+    @Test
+    public void testEvictsTheLeastRecentlyUsedEntries() {
+        ResultCache probe = new ResultCache(Long.MAX_VALUE, 60000, Collections.singletonList(CUSTOMER));
+        probe.put(key(1), probe.getGenerations(Collections.singletonList(CUSTOMER)), CUSTOMER, result());
+        long entrySize = probe.getBytes();
+
+        ResultCache cache = new ResultCache(entrySize * 2, 60000, Collections.singletonList(CUSTOMER));
+        Map<String, Long> generations = cache.getGenerations(Collections.singletonList(CUSTOMER));
+        cache.put(key(1), generations, CUSTOMER, result());
+        cache.put(key(2), generations, CUSTOMER, result());
+        cache.get(key(1));
+        cache.put(key(3), generations, CUSTOMER, result());
+        Assert.assertNotNull(cache.get(key(1)));
+        Assert.assertNull(cache.get(key(2)));
+        Assert.assertNotNull(cache.get(key(3)));
+        Assert.assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void testExpiredEntriesAreDiscarded() {
+        ResultCache cache = new ResultCache(1024 * 1024, -1, Collections.singletonList(CUSTOMER));
+        cache.put(key(1), cache.getGenerations(Collections.singletonList(CUSTOMER)), CUSTOMER, result());
+        Assert.assertNull(cache.get(key(1)));
+        Assert.assertEquals(1, cache.getExpirations());
+    }
+
+    @Test
+    public void testBeanRowsAreMeasuredByTheirValues() {
+        ResultCache.Key key = new ResultCache.Key("customer|*", Customer.class, Collections.singletonList(1));
+        ResultCache mapCache = new ResultCache(Long.MAX_VALUE, 60000, Collections.singletonList(CUSTOMER));
+        List<Map<String, Object>> mapRows = new ArrayList<>();
+        mapRows.add(row(longName(), new Date(1000), new ArrayList<>(Arrays.asList(1, 2))));
+        mapCache.put(key, mapCache.getGenerations(Collections.singletonList(CUSTOMER)), CUSTOMER, new MapResultSet(mapRows));
+
+        ResultCache beanCache = new ResultCache(Long.MAX_VALUE, 60000, Collections.singletonList(CUSTOMER));
+        List<Object> beanRows = new ArrayList<>();
+        beanRows.add(new Customer(longName(), new Date(1000), new ArrayList<>(Arrays.asList(1, 2))));
+        beanCache.put(key, beanCache.getGenerations(Collections.singletonList(CUSTOMER)), CUSTOMER, new CollectionResultSet(beanRows));
+
+        Assert.assertEquals(1, beanCache.size());
+        Assert.assertTrue(beanCache.getBytes() > 2 * longName().length());
+        Assert.assertEquals(mapCache.getBytes(), beanCache.getBytes());
+
+        ResultSet<Collection<Object>> cached = beanCache.get(key);
+        Assert.assertEquals(longName(), ((Customer) cached.getResult().iterator().next()).getName());
+    }
+
+    @Test
+    public void testIsEnabled() {
+        ResultCache cache = new ResultCache(1024, 60000, Collections.singletonList(CUSTOMER));
+        Assert.assertTrue(cache.isEnabled(Collections.singletonList(CUSTOMER)));
+        Assert.assertFalse(cache.isEnabled(Arrays.asList(CUSTOMER, ACCOUNT)));
+        cache.disable(CUSTOMER);
+        Assert.assertFalse(cache.isEnabled(Collections.singletonList(CUSTOMER)));
+    }
+
+    private ResultCache.Key key(int id) {
+        return new ResultCache.Key("customer|*", null, Collections.singletonList(id));
+    }
+
+    private MapResultSet result() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        rows.add(row("john", new Date(1000), new ArrayList<>()));
+        return new MapResultSet(rows);
+    }
+
+    private String longName() {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            result.append('a');
+        }
+        return result.toString();
+    }
+
+    private Map<String, Object> row(String name, Date created, List<Object> tags) {
+        Map<String, Object> row = new JoinableMap(CUSTOMER);
+        row.put("name", name);
+        row.put("created", created);
+        row.put("tags", tags);
+        return row;
+    }
+
+    public static class Customer {
+
+        private String name;
+        private Date created;
+        private List<Object> tags;
+
+        public Customer() {
+        }
+
+        public Customer(String name, Date created, List<Object> tags) {
+            this.name = name;
+            this.created = created;
+            this.tags = tags;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Date getCreated() {
+            return created;
+        }
+
+        public void setCreated(Date created) {
+            this.created = created;
+        }
+
+        public List<Object> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<Object> tags) {
+            this.tags = tags;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.hcjf.layers.storage.postgres.cache;
+
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class StatementCacheTest {
+
+    private static final int CACHE_SIZE = 64;
+
+    @BeforeClass
+    public static void setUp() {
+        PostgresProperties.init();
+    }
+
+    @Test
+    public void testReleasedStatementsAreReused() throws SQLException {
+        List<String> prepared = new ArrayList<>();
+        Set<PreparedStatement> closed = new HashSet<>();
+        StatementCache cache = StatementCache.get(connection(prepared, closed));
+        PreparedStatement statement = cache.borrow("SELECT 1");
+        cache.release(statement);
+        Assert.assertEquals(1, cache.size());
+        Assert.assertSame(statement, cache.borrow("SELECT 1"));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(Collections.singletonList("SELECT 1"), prepared);
+        Assert.assertTrue(closed.isEmpty());
+    }
+
+    @Test
+    public void testBorrowedStatementsAreNotShared() throws SQLException {
+        List<String> prepared = new ArrayList<>();
+        Set<PreparedStatement> closed = new HashSet<>();
+        StatementCache cache = StatementCache.get(connection(prepared, closed));
+        PreparedStatement first = cache.borrow("SELECT 1");
+        PreparedStatement second = cache.borrow("SELECT 1");
+        Assert.assertNotSame(first, second);
+        cache.release(first);
+        cache.release(second);
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(Collections.singleton(second), closed);
+    }
+
+    @Test
+    public void testEvictsTheLeastRecentlyUsedStatement() throws SQLException {
+        List<String> prepared = new ArrayList<>();
+        Set<PreparedStatement> closed = new HashSet<>();
+        StatementCache cache = StatementCache.get(connection(prepared, closed));
+        Map<String, PreparedStatement> statements = new HashMap<>();
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            String sql = "SELECT " + i;
+            statements.put(sql, cache.borrow(sql));
+            cache.release(statements.get(sql));
+        }
+        //The first statement is used again, then the second is the least recently used
+        cache.release(cache.borrow("SELECT 0"));
+        cache.release(cache.borrow("SELECT " + CACHE_SIZE));
+
+        Assert.assertEquals(CACHE_SIZE, cache.size());
+        Assert.assertEquals(Collections.singleton(statements.get("SELECT 1")), closed);
+        Assert.assertSame(statements.get("SELECT 0"), cache.borrow("SELECT 0"));
+        Assert.assertNotSame(statements.get("SELECT 1"), cache.borrow("SELECT 1"));
+    }
+
+    @Test
+    public void testForeignStatementsAreClosed() throws SQLException {
+        List<String> prepared = new ArrayList<>();
+        Set<PreparedStatement> closed = new HashSet<>();
+        Connection connection = connection(prepared, closed);
+        StatementCache cache = StatementCache.get(connection);
+        PreparedStatement statement = connection.prepareStatement("SELECT 1");
+        cache.release(statement);
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(Collections.singleton(statement), closed);
+
+        cache.release(cache.borrow("SELECT 2"));
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(2, closed.size());
+    }
+
+    /**
+     * Creates a connection that records the prepared sql and the closed statements.
+     * @param prepared List to record the prepared sql.
+     * @param closed Set to record the closed statements.
+     * @return Connection instance.
+     */
+    private Connection connection(List<String> prepared, Set<PreparedStatement> closed) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = null;
+            switch (method.getName()) {
+                case "isClosed": result = false; break;
+                case "prepareStatement": {
+                    prepared.add((String) args[0]);
+                    result = proxy(PreparedStatement.class, (statementProxy, statementMethod, statementArgs) -> {
+                        Object statementResult = null;
+                        switch (statementMethod.getName()) {
+                            case "isClosed": statementResult = closed.contains(statementProxy); break;
+                            case "close": closed.add((PreparedStatement) statementProxy); break;
+                        }
+                        return statementResult;
+                    });
+                    break;
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Creates an instance of the interface, the methods of the object class are resolved by identity.
+     * @param type Interface to implement.
+     * @param handler Handler of the interface methods.
+     * @param <T> Type of the interface.
+     * @return Proxy instance.
+     */
+    private <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{type}, (proxy, method, args) -> {
+            Object result;
+            switch (method.getName()) {
+                case "hashCode": result = System.identityHashCode(proxy); break;
+                case "equals": result = proxy == args[0]; break;
+                case "toString": result = type.getSimpleName(); break;
+                default: result = handler.invoke(proxy, method, args);
+            }
+            return result;
+        }));
+    }
+}
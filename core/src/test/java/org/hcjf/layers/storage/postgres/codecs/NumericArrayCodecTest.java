@@ -0,0 +1,85 @@
+package org.hcjf.layers.storage.postgres.codecs;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class NumericArrayCodecTest {
+
+    @Test
+    public void testParsePrimitiveArrays() throws SQLException {
+        Assert.assertArrayEquals(new int[]{1, -2, 3},
+                (int[]) read(NumericArrayCodec.ElementType.INT, "{1,-2,3}"));
+        Assert.assertArrayEquals(new long[]{5000000000L, 7},
+                (long[]) read(NumericArrayCodec.ElementType.LONG, "{5000000000, 7}"));
+        Assert.assertArrayEquals(new double[]{1.5, -2000, Double.NaN},
+                (double[]) read(NumericArrayCodec.ElementType.DOUBLE, "{1.5,-2e3,NaN}"), 0.0);
+        Assert.assertArrayEquals(new int[]{42}, (int[]) read(NumericArrayCodec.ElementType.INT, "{42}"));
+        Assert.assertArrayEquals(new int[0], (int[]) read(NumericArrayCodec.ElementType.INT, "{}"));
+        Assert.assertNull(read(NumericArrayCodec.ElementType.INT, null));
+    }
+
+    @Test
+    public void testNullElementsAndDimensionsAreReadAsLists() throws SQLException {
+        Assert.assertEquals(Arrays.asList(1, null),
+                read(NumericArrayCodec.ElementType.INT, "{1,NULL}", new Integer[]{1, null}));
+        Object result = read(NumericArrayCodec.ElementType.INT, "{{1},{2}}", new Integer[][]{{1}, {2}});
+        Assert.assertTrue(result instanceof List);
+        Assert.assertEquals(2, ((List) result).size());
+    }
+
+    @Test
+    public void testListsWithoutPrimitiveArrays() throws SQLException {
+        NumericArrayCodec codec = new NumericArrayCodec(NumericArrayCodec.ElementType.LONG, false);
+        Assert.assertEquals(Arrays.asList(1L, 2L), codec.read(resultSet("{1,2}", new Long[]{1L, 2L}), 1));
+    }
+
+    @Test
+    public void testBind() throws SQLException {
+        Object[] bound = new Object[3];
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if(method.getName().equals("setObject")) {
+                        System.arraycopy(args, 0, bound, 0, 3);
+                    }
+                    return null;
+                });
+        new NumericArrayCodec(NumericArrayCodec.ElementType.LONG, true).bind(statement, 2, new long[]{1, 5000000000L});
+        Assert.assertArrayEquals(new Object[]{2, "{1,5000000000}", Types.OTHER}, bound);
+    }
+
+    private Object read(NumericArrayCodec.ElementType elementType, String text) throws SQLException {
+        return read(elementType, text, null);
+    }
+
+    private Object read(NumericArrayCodec.ElementType elementType, String text, Object[] elements) throws SQLException {
+        return new NumericArrayCodec(elementType, true).read(resultSet(text, elements), 1);
+    }
+
+    private ResultSet resultSet(String text, Object[] elements) {
+        Array array = elements == null ? null : (Array) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{Array.class}, (proxy, method, args) ->
+                        method.getName().equals("getArray") ? elements : null);
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{ResultSet.class}, (proxy, method, args) -> {
+                    Object result = null;
+                    if(method.getName().equals("getString")) {
+                        result = text;
+                    } else if(method.getName().equals("getArray")) {
+                        result = array;
+                    }
+                    return result;
+                });
+    }
+}
@@ -0,0 +1,48 @@
+package org.hcjf.layers.storage.postgres.codecs;
+
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.postgresql.core.Oid;
+import org.postgresql.util.PGobject;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class TypeCodecRegistryTest {
+
+    @BeforeClass
+    public static void setUp() {
+        PostgresProperties.init();
+    }
+
+    @Test
+    public void testJsonIsReadAsTheDriverObject() throws SQLException {
+        PGobject json = new PGobject();
+        json.setType("jsonb");
+        json.setValue("{\"name\":\"john\"}");
+        ResultSet resultSet = (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if(!method.getName().equals("getObject")) {
+                        throw new SQLException("Unexpected call " + method.getName());
+                    }
+                    return json;
+                });
+        Assert.assertSame(json, TypeCodecRegistry.getInstance().get(Oid.JSON).read(resultSet, 1));
+        Assert.assertSame(json, TypeCodecRegistry.getInstance().get(3802).read(resultSet, 1));
+    }
+
+    @Test
+    public void testCodecsAreResolvedByTheClassHierarchy() {
+        TypeCodecRegistry registry = TypeCodecRegistry.getInstance();
+        Assert.assertSame(registry.get(Date.class), registry.get(Timestamp.class));
+        Assert.assertNull(registry.get(Object.class));
+    }
+}
@@ -0,0 +1,106 @@
+package org.hcjf.layers.storage.postgres.columnar;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class ColumnTest {
+
+    private static final int ROWS = 200;
+
+    @Test
+    public void testNullBitmapAndGrowth() throws SQLException {
+        IntColumn column = new IntColumn("id");
+        ResultSet resultSet = intResultSet(column);
+        for (int row = 0; row < ROWS; row++) {
+            column.read(resultSet, 1);
+        }
+
+        Assert.assertEquals(ROWS, column.size());
+        for (int row = 0; row < ROWS; row++) {
+            if(isNullRow(row)) {
+                Assert.assertTrue("Row " + row, column.isNull(row));
+                Assert.assertNull(column.getValue(row));
+                Assert.assertNull(column.getString(row));
+            } else {
+                Assert.assertFalse("Row " + row, column.isNull(row));
+                Assert.assertEquals(row, column.getValue(row));
+                Assert.assertEquals(Integer.toString(row), column.getString(row));
+            }
+        }
+    }
+
+    @Test
+    public void testTypedAccessors() throws SQLException {
+        IntColumn column = new IntColumn("id");
+        ResultSet resultSet = intResultSet(column);
+        for (int row = 0; row < 3; row++) {
+            column.read(resultSet, 1);
+        }
+        Assert.assertEquals(2, column.getInt(2));
+        Assert.assertEquals(2L, column.getLong(2));
+        Assert.assertEquals(2.0, column.getDouble(2), 0.0);
+        Assert.assertEquals(0, column.getInt(0));
+    }
+
+    @Test
+    public void testStringColumnCanNotBeReadAsNumber() throws SQLException {
+        List<String> values = Arrays.asList("a", null, "b", "a");
+        StringColumn column = new StringColumn("name");
+        ResultSet resultSet = (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ResultSet.class},
+                (proxy, method, args) -> method.getName().equals("getString") ? values.get(column.size()) : null);
+        for (int row = 0; row < values.size(); row++) {
+            column.read(resultSet, 1);
+        }
+        Assert.assertEquals(Arrays.asList("a", "b"), column.getDictionary());
+        Assert.assertEquals(column.getCode(0), column.getCode(3));
+        Assert.assertTrue(column.isNull(1));
+        Assert.assertEquals("b", column.getValue(2));
+
+        try {
+            column.getInt(0);
+            Assert.fail("The string columns can't be read as int");
+        } catch (IllegalStateException ex) {
+        }
+        try {
+            column.getLong(0);
+            Assert.fail("The string columns can't be read as long");
+        } catch (IllegalStateException ex) {
+        }
+        try {
+            column.getDouble(0);
+            Assert.fail("The string columns can't be read as double");
+        } catch (IllegalStateException ex) {
+        }
+    }
+
+    private boolean isNullRow(int row) {
+        return row % 7 == 0;
+    }
+
+    /**
+     * Creates a result set whose current row is the size of the column, the value of each row is its
+     * index and the rows multiples of 7 are null.
+     * @param column Column that reads the result set.
+     * @return Result set instance.
+     */
+    private ResultSet intResultSet(Column column) {
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    Object result = null;
+                    switch (method.getName()) {
+                        case "getInt": result = isNullRow(column.size()) ? 0 : column.size(); break;
+                        case "wasNull": result = isNullRow(column.size()); break;
+                    }
+                    return result;
+                });
+    }
+}
@@ -0,0 +1,162 @@
+package org.hcjf.layers.storage.postgres.copy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class BinaryCopyEncoderTest {
+
+    private static final long POSTGRES_EPOCH_MILLIS = 946684800000L;
+
+    @Test
+    public void testHeaderAndTrailer() throws IOException {
+        BinaryCopyEncoder encoder = new BinaryCopyEncoder(Collections.emptyList());
+        CopyBuffer buffer = new CopyBuffer(16);
+        encoder.writeHeader(buffer);
+        encoder.writeTrailer(buffer);
+
+        DataInputStream input = input(buffer);
+        byte[] signature = new byte[11];
+        input.readFully(signature);
+        Assert.assertArrayEquals(new byte[]{'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0}, signature);
+        Assert.assertEquals(0, input.readInt());
+        Assert.assertEquals(0, input.readInt());
+        Assert.assertEquals(-1, input.readShort());
+        Assert.assertEquals(0, input.available());
+    }
+
+    @Test
+    public void testRow() throws IOException {
+        UUID uuid = UUID.randomUUID();
+        BinaryCopyEncoder encoder = new BinaryCopyEncoder(
+                Arrays.asList("int4", "int8", "float8", "bool", "text", "uuid", "timestamptz", "jsonb", "int2"));
+        CopyBuffer buffer = new CopyBuffer(16);
+        encoder.writeRow(buffer, new Object[]{7, "5000000000", 1.5, true, "\u00e9", uuid,
+                new Date(POSTGRES_EPOCH_MILLIS + 1), "{}", null});
+
+        DataInputStream input = input(buffer);
+        Assert.assertEquals(9, input.readShort());
+        Assert.assertEquals(4, input.readInt());
+        Assert.assertEquals(7, input.readInt());
+        Assert.assertEquals(8, input.readInt());
+        Assert.assertEquals(5000000000L, input.readLong());
+        Assert.assertEquals(8, input.readInt());
+        Assert.assertEquals(1.5, input.readDouble(), 0.0);
+        Assert.assertEquals(1, input.readInt());
+        Assert.assertEquals(1, input.readByte());
+        Assert.assertEquals(2, input.readInt());
+        byte[] text = new byte[2];
+        input.readFully(text);
+        Assert.assertEquals("\u00e9", new String(text, StandardCharsets.UTF_8));
+        Assert.assertEquals(16, input.readInt());
+        Assert.assertEquals(uuid.getMostSignificantBits(), input.readLong());
+        Assert.assertEquals(uuid.getLeastSignificantBits(), input.readLong());
+        Assert.assertEquals(8, input.readInt());
+        Assert.assertEquals(1000, input.readLong());
+        Assert.assertEquals(3, input.readInt());
+        Assert.assertEquals(1, input.readByte());
+        Assert.assertEquals('{', input.readByte());
+        Assert.assertEquals('}', input.readByte());
+        Assert.assertEquals(-1, input.readInt());
+        Assert.assertEquals(0, input.available());
+    }
+
+    @Test
+    public void testExactIntegerConversions() throws IOException {
+        Assert.assertEquals(5, readInteger("int2", "5"));
+        Assert.assertEquals(-32768, readInteger("int2", -32768));
+        Assert.assertEquals(2, readInteger("int4", 2.0));
+        Assert.assertEquals(3, readInteger("int4", new BigDecimal("3.00")));
+        Assert.assertEquals(Integer.MAX_VALUE, readInteger("int4", (long) Integer.MAX_VALUE));
+        Assert.assertEquals(9007199254740993L, readInteger("int8", "9007199254740993"));
+        Assert.assertEquals(Long.MAX_VALUE, readInteger("int8", BigInteger.valueOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testRejectsOutOfRangeIntegers() {
+        assertRejected("int4", 3_000_000_000L);
+        assertRejected("int4", "3000000000");
+        assertRejected("int2", 40000);
+        assertRejected("int8", new BigDecimal("9223372036854775808"));
+        assertRejected("int8", 1e30);
+    }
+
+    @Test
+    public void testRejectsFractionsForIntegerColumns() {
+        assertRejected("int4", 1.9);
+        assertRejected("int2", 1.5f);
+        assertRejected("int8", new BigDecimal("10.25"));
+        assertRejected("int8", "1.9");
+        assertRejected("int4", Double.NaN);
+        assertRejected("int4", "one");
+    }
+
+    @Test
+    public void testBooleanLiterals() throws IOException {
+        for(Object literal : Arrays.asList(true, "true", "T", "yes", "on", "1", " y ")) {
+            Assert.assertEquals(literal.toString(), 1, readBoolean(literal));
+        }
+        for(Object literal : Arrays.asList(false, "false", "F", "no", "off", "0", "n")) {
+            Assert.assertEquals(literal.toString(), 0, readBoolean(literal));
+        }
+        assertRejected("bool", "maybe");
+        assertRejected("bool", "");
+        assertRejected("bool", 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedType() {
+        new BinaryCopyEncoder(Collections.singletonList("point"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTimestampNeedsDates() {
+        new BinaryCopyEncoder(Collections.singletonList("timestamp")).writeRow(new CopyBuffer(16), new Object[]{"now"});
+    }
+
+    private long readInteger(String type, Object value) throws IOException {
+        DataInputStream input = input(encode(type, value));
+        input.readShort();
+        int length = input.readInt();
+        return length == 2 ? input.readShort() : length == 4 ? input.readInt() : input.readLong();
+    }
+
+    private int readBoolean(Object value) throws IOException {
+        DataInputStream input = input(encode("bool", value));
+        input.readShort();
+        Assert.assertEquals(1, input.readInt());
+        return input.readByte();
+    }
+
+    private void assertRejected(String type, Object value) {
+        try {
+            encode(type, value);
+            Assert.fail("The value " + value + " must be rejected for the type " + type);
+        } catch (IllegalArgumentException ex) {
+            //The value is rejected
+        }
+    }
+
+    private CopyBuffer encode(String type, Object value) {
+        CopyBuffer buffer = new CopyBuffer(16);
+        new BinaryCopyEncoder(Collections.singletonList(type)).writeRow(buffer, new Object[]{value});
+        return buffer;
+    }
+
+    private DataInputStream input(CopyBuffer buffer) {
+        return new DataInputStream(new ByteArrayInputStream(buffer.array(), 0, buffer.size()));
+    }
+}
@@ -0,0 +1,76 @@
+package org.hcjf.layers.storage.postgres.copy;
+
+import org.hcjf.layers.storage.postgres.values.ArrayValue;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class SqlLiteralsTest {
+
+    @Test
+    public void testInline() throws SQLException {
+        Assert.assertEquals("SELECT * FROM customer WHERE age > 18 AND name = 'it''s'",
+                SqlLiterals.inline("SELECT * FROM customer WHERE age > ? AND name = ?",
+                        Arrays.asList(18, "it's"), true));
+    }
+
+    @Test
+    public void testQuotedReplaceableValuesAreIgnored() throws SQLException {
+        Assert.assertEquals("SELECT '?', \"what?\" FROM customer WHERE id = 1",
+                SqlLiterals.inline("SELECT '?', \"what?\" FROM customer WHERE id = ?",
+                        Collections.singletonList(1), true));
+    }
+
+    @Test
+    public void testCollectionsAreExpanded() throws SQLException {
+        Assert.assertEquals("SELECT * FROM customer WHERE age IN (1, 2) AND name = 'john'",
+                SqlLiterals.inline("SELECT * FROM customer WHERE age IN (?, ?) AND name = ?",
+                        Arrays.asList(Arrays.asList(1, 2), "john"), true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingValues() throws SQLException {
+        SqlLiterals.inline("SELECT * FROM customer WHERE age > ? AND name = ?", Collections.singletonList(18), true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testExtraValues() throws SQLException {
+        SqlLiterals.inline("SELECT * FROM customer WHERE age > ?", Arrays.asList(18, 19), true);
+    }
+
+    @Test
+    public void testRender() throws SQLException {
+        Assert.assertEquals("NULL", render(null, true));
+        Assert.assertEquals("TRUE", render(true, true));
+        Assert.assertEquals("42", render(42L, true));
+        Assert.assertEquals("1.5", render(1.5, true));
+        Assert.assertEquals("'NaN'::float8", render(Double.NaN, true));
+        Assert.assertEquals("'-Infinity'::float8", render(Float.NEGATIVE_INFINITY, true));
+        Assert.assertEquals("'\\x01ff'::bytea", render(new byte[]{1, (byte) 0xff}, true));
+        Assert.assertEquals("ARRAY['a',NULL,'b''c']::text[]",
+                render(new ArrayValue(Arrays.asList("a", null, "b'c"), "text"), true));
+        Date date = new Date(1500000000123L);
+        Assert.assertEquals("'" + new Timestamp(date.getTime()) + "'", render(date, true));
+    }
+
+    @Test
+    public void testQuoteWithoutStandardConformingStrings() throws SQLException {
+        Assert.assertEquals("'a\\b'", render("a\\b", true));
+        Assert.assertEquals("E'a\\\\b'", render("a\\b", false));
+        Assert.assertEquals("E'it''s'", render("it's", false));
+    }
+
+    private String render(Object value, boolean standardConformingStrings) throws SQLException {
+        StringBuilder builder = new StringBuilder();
+        SqlLiterals.render(builder, value, standardConformingStrings);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package org.hcjf.layers.storage.postgres.copy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class TextCopyEncoderTest {
+
+    private static final Object[] ROW = {1, null, "a\tb\\c\n", Arrays.asList("x", null, "y\"z"), new byte[]{1, (byte) 0xff}};
+
+    @Test
+    public void testTextFormat() {
+        Assert.assertEquals("1\t\\N\ta\\tb\\\\c\\n\t{\"x\",NULL,\"y\\\\\"z\"}\t\\\\x01ff\n",
+                encode(new TextCopyEncoder(false), ROW));
+    }
+
+    @Test
+    public void testCsvFormat() {
+        Assert.assertEquals("\"1\",,\"a\tb\\c\n\",\"{\"\"x\"\",NULL,\"\"y\\\"\"z\"\"}\",\"\\x01ff\"\n",
+                encode(new TextCopyEncoder(true), ROW));
+    }
+
+    @Test
+    public void testDatesAreTimestamps() {
+        Date date = new Date(1500000000123L);
+        Assert.assertEquals(new Timestamp(date.getTime()) + "\n", encode(new TextCopyEncoder(false), new Object[]{date}));
+    }
+
+    @Test
+    public void testRowsAreAppended() {
+        TextCopyEncoder encoder = new TextCopyEncoder(false);
+        CopyBuffer buffer = new CopyBuffer(4);
+        encoder.writeRow(buffer, new Object[]{1, "\u00e1"});
+        encoder.writeRow(buffer, new Object[]{2, "\u00e9"});
+        Assert.assertEquals("1\t\u00e1\n2\t\u00e9\n", new String(buffer.array(), 0, buffer.size(), StandardCharsets.UTF_8));
+    }
+
+    private String encode(CopyEncoder encoder, Object[] row) {
+        CopyBuffer buffer = new CopyBuffer(16);
+        encoder.writeHeader(buffer);
+        encoder.writeRow(buffer, row);
+        encoder.writeTrailer(buffer);
+        return new String(buffer.array(), 0, buffer.size(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,38 @@
+package org.hcjf.layers.storage.postgres.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class HistogramMetricsSinkTest {
+
+    @Test
+    public void testHistogramsAreCreatedByMetric() {
+        HistogramMetricsSink sink = new HistogramMetricsSink(10);
+        sink.record("SELECT 1", Metric.EXECUTE_TIME, 100);
+        Assert.assertEquals(1, sink.getHistogram("SELECT 1", Metric.EXECUTE_TIME).getCount());
+        Assert.assertNull(sink.getHistogram("SELECT 1", Metric.ROWS));
+        Assert.assertNull(sink.getHistogram("SELECT 2", Metric.EXECUTE_TIME));
+    }
+
+    @Test
+    public void testShapesAreBounded() {
+        HistogramMetricsSink sink = new HistogramMetricsSink(2);
+        sink.record("SELECT 1", Metric.EXECUTE_TIME, 1);
+        sink.record("SELECT 2", Metric.EXECUTE_TIME, 2);
+        sink.record("SELECT 3", Metric.EXECUTE_TIME, 3);
+        sink.record("SELECT 4", Metric.EXECUTE_TIME, 4);
+        sink.record("SELECT 1", Metric.EXECUTE_TIME, 5);
+
+        Assert.assertEquals(3, sink.getShapes().size());
+        Assert.assertTrue(sink.getShapes().contains(HistogramMetricsSink.OVERFLOW_SHAPE));
+        Assert.assertNull(sink.getHistogram("SELECT 3", Metric.EXECUTE_TIME));
+        Assert.assertEquals(2, sink.getHistogram(HistogramMetricsSink.OVERFLOW_SHAPE, Metric.EXECUTE_TIME).getCount());
+        Assert.assertEquals(2, sink.getHistogram("SELECT 1", Metric.EXECUTE_TIME).getCount());
+
+        sink.clear();
+        Assert.assertTrue(sink.getShapes().isEmpty());
+    }
+}
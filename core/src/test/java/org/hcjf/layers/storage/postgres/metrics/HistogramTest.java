@@ -0,0 +1,75 @@
+package org.hcjf.layers.storage.postgres.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class HistogramTest {
+
+    @Test
+    public void testSmallValuesAreExact() {
+        Histogram histogram = new Histogram();
+        for (int i = 0; i < 16; i++) {
+            histogram.record(i);
+        }
+        Assert.assertEquals(16, histogram.getCount());
+        Assert.assertEquals(120, histogram.getSum());
+        Assert.assertEquals(15, histogram.getMax());
+        Assert.assertEquals(7.5, histogram.getMean(), 0.0);
+        Assert.assertEquals(7, histogram.getValueAtPercentile(50));
+        Assert.assertEquals(15, histogram.getValueAtPercentile(100));
+        Assert.assertEquals(0, histogram.getValueAtPercentile(0));
+    }
+
+    @Test
+    public void testRelativeErrorIsBounded() {
+        long[] values = {16, 17, 100, 1000, 12345, 1000000, 123456789L, Long.MAX_VALUE / 3};
+        for(long value : values) {
+            Histogram histogram = new Histogram();
+            histogram.record(value);
+            //The bucket upper bound is limited by the max so a second bigger value is recorded
+            histogram.record(Long.MAX_VALUE);
+            long percentile = histogram.getValueAtPercentile(50);
+            Assert.assertTrue(value + " -> " + percentile, percentile >= value);
+            Assert.assertTrue(value + " -> " + percentile, percentile - value <= value / 16);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        Assert.assertEquals(1000, histogram.getMax());
+        assertNear(500, histogram.getValueAtPercentile(50));
+        assertNear(990, histogram.getValueAtPercentile(99));
+        Assert.assertEquals(1000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testNegativeValuesAreZero() {
+        Histogram histogram = new Histogram();
+        histogram.record(-10);
+        Assert.assertEquals(1, histogram.getCount());
+        Assert.assertEquals(0, histogram.getSum());
+        Assert.assertEquals(0, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testReset() {
+        Histogram histogram = new Histogram();
+        histogram.record(100);
+        histogram.reset();
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getMax());
+        Assert.assertEquals(0, histogram.getValueAtPercentile(50));
+        Assert.assertEquals(0, histogram.getMean(), 0.0);
+    }
+
+    private void assertNear(long expected, long value) {
+        Assert.assertTrue(expected + " -> " + value, value >= expected && value - expected <= expected / 16);
+    }
+}
@@ -0,0 +1,152 @@
+package org.hcjf.layers.storage.postgres.replicas;
+
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class ReplicaRouterTest {
+
+    private static final long MAX_LAG = 1000;
+
+    @BeforeClass
+    public static void setUp() {
+        PostgresProperties.init();
+    }
+
+    @Test
+    public void testRoundRobin() {
+        Replica first = new Replica("first", null);
+        Replica second = new Replica("second", null);
+        Replica third = new Replica("third", null);
+        ReplicaRouter router = new ReplicaRouter(Arrays.asList(first, second, third),
+                ReplicaRouter.Strategy.ROUND_ROBIN, MAX_LAG);
+        checked(first, second, third);
+        Assert.assertSame(first, router.select());
+        Assert.assertSame(second, router.select());
+        Assert.assertSame(third, router.select());
+        Assert.assertSame(first, router.select());
+    }
+
+    @Test
+    public void testRoundRobinSkipsUnavailableReplicas() {
+        Replica first = new Replica("first", null);
+        Replica second = new Replica("second", null);
+        ReplicaRouter router = new ReplicaRouter(Arrays.asList(first, second),
+                ReplicaRouter.Strategy.ROUND_ROBIN, MAX_LAG);
+        checked(first, second);
+        second.update(Long.MAX_VALUE, false);
+        Assert.assertSame(first, router.select());
+        Assert.assertSame(first, router.select());
+        first.update(Long.MAX_VALUE, false);
+        Assert.assertNull(router.select());
+    }
+
+    @Test
+    public void testLeastOutstanding() throws SQLException {
+        Replica first = new Replica("first", dataSource(0L));
+        Replica second = new Replica("second", dataSource(0L));
+        ReplicaRouter router = new ReplicaRouter(Arrays.asList(first, second),
+                ReplicaRouter.Strategy.LEAST_OUTSTANDING, MAX_LAG);
+        router.checkLag();
+        first.getConnection();
+        Assert.assertSame(second, router.select());
+        second.getConnection();
+        second.getConnection();
+        Assert.assertSame(first, router.select());
+        second.update(Long.MAX_VALUE, false);
+        first.getConnection();
+        Assert.assertSame(first, router.select());
+        first.release();
+        Assert.assertEquals(1, first.getOutstanding());
+    }
+
+    @Test
+    public void testReplicasAreUnavailableUntilTheFirstCheck() {
+        Replica replica = new Replica("replica", dataSource(0L));
+        ReplicaRouter router = new ReplicaRouter(Collections.singletonList(replica),
+                ReplicaRouter.Strategy.ROUND_ROBIN, MAX_LAG);
+        Assert.assertFalse(replica.isAvailable());
+        Assert.assertNull(router.select());
+        router.checkLag();
+        Assert.assertSame(replica, router.select());
+    }
+
+    @Test
+    public void testEmptyRouter() {
+        Assert.assertNull(new ReplicaRouter(Collections.emptyList(), ReplicaRouter.Strategy.ROUND_ROBIN, MAX_LAG).select());
+        Assert.assertNull(new ReplicaRouter(Collections.emptyList(), ReplicaRouter.Strategy.LEAST_OUTSTANDING, MAX_LAG).select());
+    }
+
+    @Test
+    public void testCheckLag() {
+        Replica caughtUp = new Replica("caughtUp", dataSource(0L));
+        Replica lagging = new Replica("lagging", dataSource(MAX_LAG + 1));
+        Replica unknown = new Replica("unknown", dataSource(null));
+        Replica unreachable = new Replica("unreachable", (DataSource) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class[]{DataSource.class}, (proxy, method, args) -> {
+                    throw new SQLException("Connection refused");
+                }));
+        ReplicaRouter router = new ReplicaRouter(Arrays.asList(caughtUp, lagging, unknown, unreachable),
+                ReplicaRouter.Strategy.ROUND_ROBIN, MAX_LAG);
+        router.checkLag();
+
+        Assert.assertTrue(caughtUp.isAvailable());
+        Assert.assertEquals(0, caughtUp.getLag());
+        Assert.assertFalse(lagging.isAvailable());
+        Assert.assertEquals(MAX_LAG + 1, lagging.getLag());
+        Assert.assertFalse(unknown.isAvailable());
+        Assert.assertEquals(Long.MAX_VALUE, unknown.getLag());
+        Assert.assertFalse(unreachable.isAvailable());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertSame(caughtUp, router.select());
+        }
+    }
+
+    /**
+     * Marks the replicas as checked without lag.
+     * @param replicas Replicas to update.
+     */
+    private void checked(Replica... replicas) {
+        for(Replica replica : replicas) {
+            replica.update(0, true);
+        }
+    }
+
+    /**
+     * Creates a data source whose connections return the lag value for any query.
+     * @param lag Lag value, null to return a null column.
+     * @return Data source instance.
+     */
+    private DataSource dataSource(Long lag) {
+        ClassLoader classLoader = getClass().getClassLoader();
+        ResultSet resultSet = (ResultSet) Proxy.newProxyInstance(classLoader, new Class[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    Object result = null;
+                    switch (method.getName()) {
+                        case "next": result = true; break;
+                        case "getLong": result = lag == null ? 0L : lag; break;
+                        case "wasNull": result = lag == null; break;
+                    }
+                    return result;
+                });
+        Statement statement = (Statement) Proxy.newProxyInstance(classLoader, new Class[]{Statement.class},
+                (proxy, method, args) -> method.getName().equals("executeQuery") ? resultSet : null);
+        Connection connection = (Connection) Proxy.newProxyInstance(classLoader, new Class[]{Connection.class},
+                (proxy, method, args) -> method.getName().equals("createStatement") ? statement : null);
+        return (DataSource) Proxy.newProxyInstance(classLoader, new Class[]{DataSource.class},
+                (proxy, method, args) -> method.getName().equals("getConnection") ? connection : null);
+    }
+}
@@ -0,0 +1,74 @@
+package org.hcjf.layers.storage.postgres.slowlog;
+
+import org.hcjf.layers.storage.postgres.properties.PostgresProperties;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Javier Quiroga.
+ */
+public class SlowQueryLogTest {
+
+    private static final String STATEMENT = "SELECT * FROM customer WHERE id = ?";
+
+    @BeforeClass
+    public static void setUp() {
+        PostgresProperties.init();
+    }
+
+    @Test
+    public void testSlowStatementWithoutRoundTrips() {
+        List<String> calls = new ArrayList<>();
+        SlowQueryLog slowQueryLog = new SlowQueryLog();
+        try {
+            slowQueryLog.onExecuted(proxy(DataSource.class, calls), STATEMENT,
+                    proxy(PreparedStatement.class, calls), TimeUnit.SECONDS.toNanos(5));
+            List<SlowQuery> entries = slowQueryLog.getEntries();
+            Assert.assertEquals(1, entries.size());
+            Assert.assertEquals(STATEMENT, entries.get(0).getStatement());
+            Assert.assertEquals(5000, entries.get(0).getElapsedMillis());
+            Assert.assertTrue(entries.get(0).getParameterTypes().isEmpty());
+            Assert.assertNull(entries.get(0).getPlan());
+            Assert.assertTrue(calls.toString(), calls.isEmpty());
+        } finally {
+            slowQueryLog.shutdown();
+        }
+    }
+
+    @Test
+    public void testFastStatementIsNotLogged() {
+        List<String> calls = new ArrayList<>();
+        SlowQueryLog slowQueryLog = new SlowQueryLog();
+        try {
+            slowQueryLog.onExecuted(proxy(DataSource.class, calls), STATEMENT,
+                    proxy(PreparedStatement.class, calls), TimeUnit.MILLISECONDS.toNanos(5));
+            Assert.assertTrue(slowQueryLog.getEntries().isEmpty());
+            Assert.assertTrue(calls.isEmpty());
+        } finally {
+            slowQueryLog.shutdown();
+        }
+    }
+
+    /**
+     * Creates an instance of the interface that records the calls of its methods.
+     * @param type Interface to implement.
+     * @param calls List to record the calls.
+     * @param <T> Type of the interface.
+     * @return Proxy instance.
+     */
+    private <T> T proxy(Class<T> type, List<String> calls) {
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{type},
+                (proxy, method, args) -> {
+                    calls.add(method.getName());
+                    return null;
+                }));
+    }
+}
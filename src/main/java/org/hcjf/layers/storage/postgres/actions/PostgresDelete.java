@@ -1,7 +0,0 @@
-package org.hcjf.layers.storage.postgres.actions;
-
-/**
- * @author Javier Quiroga.
- */
-public class PostgresDelete {
-}